@@ -0,0 +1,68 @@
+#!/usr/bin/env python3
+"""Compare deux résultats JMH (-rf json) et signale les régressions au-delà d'un seuil.
+
+Usage : python3 src/jmh/compare.py reference.json target/jmh-result.json [--threshold 10]
+
+Un benchmark est en régression si son score se dégrade de plus du seuil (en %) et si l'écart dépasse
+les marges d'erreur des deux mesures. Le sens de la dégradation dépend du mode : plus lent pour un temps moyen
+(avgt, sample, ss), moins d'opérations pour un débit (thrpt). Code de sortie 1 en cas de régression.
+"""
+import argparse
+import json
+import math
+import sys
+
+
+def load(path):
+    with open(path, encoding="utf-8") as file:
+        results = {}
+        for result in json.load(file):
+            params = ",".join(f"{key}={value}" for key, value in sorted(result.get("params", {}).items()))
+            name = result["benchmark"] + (f"[{params}]" if params else "")
+            results[name] = result
+        return results
+
+
+def error(metric):
+    """Marge d'erreur d'une mesure ("NaN" pour une seule itération)."""
+    value = float(metric.get("scoreError", 0))
+    return 0.0 if math.isnan(value) else value
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Compare deux résultats JMH et signale les régressions.")
+    parser.add_argument("reference")
+    parser.add_argument("current")
+    parser.add_argument("--threshold", type=float, default=10.0, help="Dégradation tolérée, en %% (défaut : 10)")
+    args = parser.parse_args()
+
+    reference = load(args.reference)
+    current = load(args.current)
+    regressions = 0
+    print(f"{'Benchmark':<90} {'Référence':>14} {'Actuel':>14} {'Écart':>8}")
+    for name in sorted(current):
+        metric = current[name]["primaryMetric"]
+        if name not in reference:
+            print(f"{name:<90} {'-':>14} {metric['score']:>14.3f} {'nouveau':>8}")
+            continue
+        base = reference[name]["primaryMetric"]
+        higher_is_better = current[name]["mode"] == "thrpt"
+        change = (metric["score"] - base["score"]) / base["score"] * 100
+        degradation = -change if higher_is_better else change
+        # Les intervalles de confiance (score ± erreur) ne se recouvrent pas
+        significant = abs(metric["score"] - base["score"]) > error(metric) + error(base)
+        regressed = degradation > args.threshold and significant
+        regressions += regressed
+        print(f"{name:<90} {base['score']:>14.3f} {metric['score']:>14.3f} {change:>+7.1f}%"
+              + ("  RÉGRESSION" if regressed else "")
+              + f"  ({metric['scoreUnit']})")
+    for name in sorted(set(reference) - set(current)):
+        print(f"{name:<90} {reference[name]['primaryMetric']['score']:>14.3f} {'-':>14} {'absent':>8}")
+
+    if regressions:
+        print(f"\n{regressions} benchmark(s) en régression de plus de {args.threshold:g} %")
+        sys.exit(1)
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,65 @@
+package com.generic;
+
+import com.tsp.benchmarks.ApplicationState;
+import com.tsp.models.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Liaison des clés étrangères d'une tâche avant son écriture (GenericService.processForeignKeys) :
+ * lecture de l'ID, référence de l'entité liée auprès de Hibernate, affectation de la relation.
+ * Dans le package com.generic : le plan de liaison n'est pas public.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ForeignKeyBindingBenchmark {
+
+    private final ForeignKeyBindingPlan plan = ForeignKeyBindingPlan.compile(Task.class);
+    private EntityManager entityManager;
+    private long userId;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState application) {
+        entityManager = application.bean(EntityManagerFactory.class).createEntityManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void clear() {
+        entityManager.clear(); // Références accumulées dans le contexte de persistance
+    }
+
+    @Benchmark
+    public Task bindTaskUser() {
+        Task task = new Task().setUserId(++userId % 1000 + 1); // 1000 utilisateurs distincts
+        plan.bind(task, entityManager);
+        return task;
+    }
+
+    @Benchmark
+    public ForeignKeyBindingPlan compilePlan() {
+        return ForeignKeyBindingPlan.compile(Task.class); // Fait une seule fois par service, au démarrage
+    }
+}
@@ -0,0 +1,58 @@
+package com.tsp.benchmarks;
+
+import com.tsp.TspApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contexte de l'application démarré une fois par fork, sur la base H2 du profil de test,
+ * pour les benchmarks qui ont besoin des beans (EntityManager, services).
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0", "--spring.main.banner-mode=off", "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                // Les chargements en masse contournent les écouteurs : pas de réconciliation des statistiques pendant la mesure
+                "--stats.reconcile-interval-ms=86400000"));
+        arguments.addAll(extraArguments());
+        context = new SpringApplicationBuilder(TspApplication.class)
+                .profiles("test")
+                // Arguments plutôt que .properties() : ils priment sur application-test.yml
+                .run(arguments.toArray(String[]::new));
+    }
+
+    /**
+     * @return Arguments supplémentaires de l'application, pour les états qui changent sa configuration
+     */
+    protected List<String> extraArguments() {
+        return List.of();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /**
+     * @param type Type du bean
+     * @param <T>  Type du bean
+     * @return Le bean du contexte
+     */
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,164 @@
+package com.tsp.benchmarks;
+
+import com.tsp.enums.Countries;
+import com.tsp.enums.TaskStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Génère un jeu de données réaliste (utilisateurs, tâches et leur entrée de journal de création)
+ * dans des fichiers CSV, puis les charge dans H2 par {@code INSERT ... SELECT FROM CSVREAD} :
+ * sans passer par Hibernate, ses écouteurs ni ses lots, pour atteindre 10^7 lignes en quelques minutes.
+ * <p>
+ * Distribution : un utilisateur pour 100 tâches (au moins 10), réparties de manière inégale
+ * (les premiers utilisateurs ont bien plus de tâches), statuts majoritairement terminés,
+ * 2 % de tâches supprimées logiquement, échéances sur un an autour d'aujourd'hui.
+ * La graine est fixe : deux chargements de même taille sont identiques.
+ */
+class DatasetGenerator {
+
+    /**
+     * Vocabulaire des titres et descriptions : chaque mot apparaît dans environ un titre sur six.
+     */
+    static final List<String> WORDS = List.of("report", "meeting", "release", "invoice", "review",
+            "budget", "roadmap", "migration", "audit", "training", "customer", "deployment");
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // Statuts tirés selon ces poids (sur 100), dans l'ordre de TaskStatus
+    private static final int[] STATUS_WEIGHTS = {20, 50, 5, 15, 5, 5};
+    private static final String[] COLORS = {"blue", "red", "green", "yellow"};
+    private static final int TASKS_PER_USER = 100;
+
+    private final JdbcTemplate jdbc;
+    private final Path directory;
+
+    /**
+     * @param jdbc      Accès JDBC à la base H2 de l'application
+     * @param directory Répertoire des fichiers CSV intermédiaires
+     */
+    DatasetGenerator(JdbcTemplate jdbc, Path directory) {
+        this.jdbc = jdbc;
+        this.directory = directory;
+    }
+
+    /**
+     * Génère et charge les données, puis recale les séquences et met à jour les statistiques de l'optimiseur.
+     * Les tables doivent être vides.
+     *
+     * @param tasks Nombre de tâches (et d'entrées de journal)
+     * @return Le nombre d'utilisateurs générés
+     */
+    int load(int tasks) {
+        int users = users(tasks);
+        try {
+            Files.createDirectories(directory);
+            Path userFile = directory.resolve("app_user.csv");
+            Path taskFile = directory.resolve("task.csv");
+            Path logFile = directory.resolve("log.csv");
+            writeUsers(userFile, users);
+            writeTasksAndLogs(taskFile, logFile, tasks, users);
+
+            insert("app_user", "id, created_at, updated_at, deleted, username, email, password, country", userFile);
+            insert("task", "id, created_at, updated_at, deleted_at, deleted, title, description, color, due_date, status, user_id, version", taskFile);
+            insert("log", "id, created_at, updated_at, deleted, task_id, action, timestamp, new_title, new_status, new_version", logFile);
+            for (Path file : List.of(userFile, taskFile, logFile)) {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Les identifiants générés ensuite par Hibernate (séquences par pas de 50) ne doivent pas entrer en collision
+        jdbc.execute("ALTER SEQUENCE app_user_seq RESTART WITH " + (users + 100));
+        jdbc.execute("ALTER SEQUENCE task_seq RESTART WITH " + (tasks + 100L));
+        jdbc.execute("ALTER SEQUENCE log_seq RESTART WITH " + (tasks + 100L));
+        jdbc.execute("ANALYZE"); // Sélectivité des colonnes, utilisée par H2 pour choisir ses index
+        return users;
+    }
+
+    /**
+     * @param tasks Nombre de tâches
+     * @return Nombre d'utilisateurs correspondant
+     */
+    static int users(int tasks) {
+        return Math.max(10, tasks / TASKS_PER_USER);
+    }
+
+    private void insert(String table, String columns, Path file) {
+        jdbc.execute("INSERT INTO " + table + " (" + columns + ") SELECT * FROM CSVREAD('"
+                + file.toAbsolutePath() + "', '" + columns.replace(" ", "").toUpperCase()
+                + "', 'charset=UTF-8 fieldSeparator=, nullString=')");
+    }
+
+    private void writeUsers(Path file, int users) throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        Countries[] countries = Countries.values();
+        String created = TIMESTAMP.format(LocalDateTime.now().minusYears(3));
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int id = 1; id <= users; id++) {
+                writer.append(Integer.toString(id)).append(',').append(created).append(',').append(created).append(",0,")
+                        .append("user-").append(Integer.toString(id)).append(',')
+                        .append("user").append(Integer.toString(id)).append("@dataset.tsp.io,")
+                        .append("not-a-login-password,") // Les comptes générés ne servent pas à se connecter
+                        .append(countries[random.nextInt(countries.length)].name()).append('\n');
+            }
+        }
+    }
+
+    private void writeTasksAndLogs(Path taskFile, Path logFile, int tasks, int users) throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        TaskStatus[] statuses = TaskStatus.values();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        try (BufferedWriter taskWriter = Files.newBufferedWriter(taskFile, StandardCharsets.UTF_8);
+             BufferedWriter logWriter = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8)) {
+            for (int id = 1; id <= tasks; id++) {
+                LocalDateTime createdAt = now.minusMinutes(random.nextInt(2 * 365 * 24 * 60));
+                String created = TIMESTAMP.format(createdAt);
+                String updated = TIMESTAMP.format(createdAt.plusMinutes(random.nextInt(30 * 24 * 60)));
+                boolean deleted = random.nextInt(100) < 2;
+                String title = word(random) + " " + word(random) + " " + id;
+                int status = status(random);
+                // Carré d'un tirage uniforme : les premiers utilisateurs concentrent la majorité des tâches
+                double skew = random.nextDouble();
+                long userId = 1 + (long) (skew * skew * users);
+
+                taskWriter.append(Integer.toString(id)).append(',').append(created).append(',').append(updated).append(',')
+                        .append(deleted ? updated : "").append(',').append(deleted ? "1" : "0").append(',')
+                        .append(title).append(',')
+                        .append("Generated ").append(word(random)).append(" about the ").append(word(random))
+                        .append(" for ").append(word(random)).append(',')
+                        .append(COLORS[random.nextInt(COLORS.length)]).append(',')
+                        .append(TIMESTAMP.format(now.plusDays(random.nextInt(-182, 183)))).append(',')
+                        .append(statuses[status].name()).append(',')
+                        .append(Long.toString(userId)).append(",0\n");
+                logWriter.append(Integer.toString(id)).append(',').append(created).append(',').append(created).append(",0,")
+                        .append(Integer.toString(id)).append(",Création,").append(created).append(',')
+                        .append(title).append(',').append(Integer.toString(status)).append(",0\n");
+            }
+        }
+    }
+
+    private static String word(SplittableRandom random) {
+        return WORDS.get(random.nextInt(WORDS.size()));
+    }
+
+    private static int status(SplittableRandom random) {
+        int draw = random.nextInt(100);
+        for (int i = 0; i < STATUS_WEIGHTS.length; i++) {
+            draw -= STATUS_WEIGHTS[i];
+            if (draw < 0) {
+                return i;
+            }
+        }
+        return STATUS_WEIGHTS.length - 1;
+    }
+}
@@ -0,0 +1,110 @@
+package com.tsp.benchmarks;
+
+import com.generic.KeysetCursor;
+import com.tsp.models.Task;
+import com.tsp.services.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence des formes de recherche de GenericService en fonction de la taille de la table task,
+ * chargée par {@link DatasetGenerator} (un fork par taille). Courbe par forme avec src/jmh/scaling.py.
+ * <p>
+ * 10^7 lignes demandent une dizaine de Go de tas :
+ * {@code -Djmh.args="DatasetScaling -p rows=10000000 -jvmArgsAppend -Xmx16g"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DatasetScalingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int rows;
+
+    private TaskService taskService;
+    private Specification<Task> byStatus;
+    private Specification<Task> byUser;
+    private Specification<Task> globalTerm;
+    private Specification<Task> all;
+    private int deepPage;
+    private String middleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState application) {
+        int users = new DatasetGenerator(application.bean(JdbcTemplate.class), Path.of("target", "dataset")).load(rows);
+        taskService = application.bean(TaskService.class);
+        byStatus = taskService.buildSearchSpecification(null, null, Map.of("status", "ON_HOLD"));
+        // La moitié des tâches appartient aux utilisateurs d'avant celui-ci : environ 100 tâches, le cas typique
+        byUser = taskService.buildSearchSpecification(null, null, Map.of("userId", users / 4 + 1));
+        globalTerm = taskService.buildSearchSpecification("roadmap", List.of("title", "description"), null);
+        all = taskService.buildSearchSpecification(null, null, null);
+        deepPage = rows / 2 / PAGE_SIZE;
+        long middleId = rows / 2;
+        middleCursor = new KeysetCursor("id", Sort.Direction.ASC, middleId, Long.toString(middleId)).encode();
+    }
+
+    /**
+     * Filtre sur un statut peu fréquent (5 %), avec le total.
+     */
+    @Benchmark
+    public Slice<?> filterByStatus() {
+        return taskService.search(byStatus, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    /**
+     * Filtre sur les tâches d'un utilisateur, avec le total.
+     */
+    @Benchmark
+    public Slice<?> filterByUser() {
+        return taskService.search(byUser, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    /**
+     * Terme global (LIKE %terme% sur le titre et la description), avec le total.
+     */
+    @Benchmark
+    public Slice<?> globalLikeTerm() {
+        return taskService.search(globalTerm, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    /**
+     * Page au milieu de la table par OFFSET, sans le total.
+     */
+    @Benchmark
+    public Slice<?> deepPageOffset() {
+        return taskService.searchSlice(all, PageRequest.of(deepPage, PAGE_SIZE));
+    }
+
+    /**
+     * Même position par curseur (id > dernier id), pour comparaison avec l'OFFSET.
+     */
+    @Benchmark
+    public Slice<?> deepPageKeyset() {
+        return taskService.searchKeyset(all, null, null, middleCursor, PAGE_SIZE);
+    }
+}
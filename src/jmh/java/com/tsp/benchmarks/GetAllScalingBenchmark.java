@@ -0,0 +1,49 @@
+package com.tsp.benchmarks;
+
+import com.tsp.services.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence de GenericService.getAll en fonction de la taille de la table task.
+ * Séparé de {@link DatasetScalingBenchmark} : getAll charge toute la table en mémoire,
+ * les tailles s'arrêtent donc à 10^5 lignes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GetAllScalingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private TaskService taskService;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState application) {
+        new DatasetGenerator(application.bean(JdbcTemplate.class), Path.of("target", "dataset")).load(rows);
+        taskService = application.bean(TaskService.class);
+    }
+
+    @Benchmark
+    public Object getAll() {
+        return taskService.getAll();
+    }
+}
@@ -0,0 +1,112 @@
+package com.tsp.benchmarks;
+
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.Log;
+import com.tsp.models.Task;
+import com.tsp.models.User;
+import com.tsp.repositories.TaskRepository;
+import com.tsp.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit d'insertion de tâches et d'entrées de journal selon la génération des IDs : séquence par entité allouée
+ * par blocs (mapping de GenericEntity) ou colonne IDENTITY (identity-orm.xml). Chaque invocation insère un lot
+ * de {@value #BATCH} lignes dans une transaction ; le score est en lignes par seconde.
+ * Avec IDENTITY, Hibernate exécute chaque INSERT seul pour lire l'ID généré : pas de lots JDBC.
+ * La base H2 en mémoire n'a pas de latence réseau : l'écart y est bien plus faible que sur un serveur distant.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGenerationBenchmark {
+
+    private static final int BATCH = 50; // hibernate.jdbc.batch_size
+
+    /**
+     * Contexte de l'application avec la stratégie de génération des IDs à mesurer.
+     */
+    @State(Scope.Benchmark)
+    public static class IdGenerationState extends ApplicationState {
+
+        @Param({"SEQUENCE", "IDENTITY"})
+        private String strategy;
+
+        @Override
+        protected List<String> extraArguments() {
+            // Le journal d'audit des tâches insérées est abandonné plutôt qu'attendu quand sa file est pleine :
+            // sans cela, la contre-pression de son écrivain fixerait le débit mesuré
+            List<String> arguments = new ArrayList<>(List.of("--audit.log.offer-timeout-ms=0"));
+            if (strategy.equals("IDENTITY")) {
+                arguments.add("--spring.jpa.mapping-resources=identity-orm.xml");
+            }
+            return arguments;
+        }
+    }
+
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private User user;
+    private Long taskId;
+
+    @Setup(Level.Trial)
+    public void setUp(IdGenerationState application) {
+        entityManager = application.bean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(application.bean(PlatformTransactionManager.class));
+        user = application.bean(UserRepository.class).save(new User().setUsername("id-generation")
+                .setEmail("benchmark@tsp.io").setPassword("secret123"));
+        taskId = application.bean(TaskRepository.class).save(task()).getId();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertTasks() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < BATCH; i++) {
+                entityManager.persist(task());
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertLogs() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Task task = entityManager.getReference(Task.class, taskId);
+            for (int i = 0; i < BATCH; i++) {
+                entityManager.persist(new Log(task, "Modification", "Benchmark task", "Benchmark task " + i,
+                        null, null, TaskStatus.PENDING, TaskStatus.IN_PROGRESS, (long) i, i + 1L));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private Task task() {
+        return new Task().setTitle("Benchmark task").setDescription("Benchmark task description")
+                .setColor("blue").setStatus(TaskStatus.PENDING).setUser(user);
+    }
+}
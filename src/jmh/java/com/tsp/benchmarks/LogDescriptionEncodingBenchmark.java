@@ -0,0 +1,54 @@
+package com.tsp.benchmarks;
+
+import com.utils.TextDelta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de l'encodage compact des descriptions du journal (Log) pour une ligne : compression de la nouvelle
+ * description et différence avec l'ancienne à l'écriture, reconstruction des deux textes à la lecture.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogDescriptionEncodingBenchmark {
+
+    private static final String DESCRIPTION = ("Préparer la revue trimestrielle : rassembler les indicateurs de chaque équipe, "
+            + "vérifier les écarts avec le budget, rédiger la synthèse et planifier la présentation au comité. ").repeat(8);
+
+    private String edited;
+    private byte[] data;
+    private byte[] delta;
+
+    @Setup
+    public void setUp() {
+        edited = DESCRIPTION.substring(0, 400) + "(mis à jour) " + DESCRIPTION.substring(400);
+        data = TextDelta.compress(edited);
+        delta = TextDelta.diff(DESCRIPTION, edited);
+    }
+
+    @Benchmark
+    public void encodeRow(Blackhole blackhole) {
+        blackhole.consume(TextDelta.compress(edited));
+        blackhole.consume(TextDelta.diff(DESCRIPTION, edited));
+    }
+
+    @Benchmark
+    public String decodeRow() {
+        return TextDelta.apply(TextDelta.decompress(data), delta);
+    }
+}
@@ -0,0 +1,95 @@
+package com.tsp.benchmarks;
+
+import com.tsp.dtos.LogInputDTO;
+import com.tsp.dtos.LogOutputDTO;
+import com.tsp.dtos.TaskInputDTO;
+import com.tsp.dtos.TaskOutputDTO;
+import com.tsp.dtos.UserInputDTO;
+import com.tsp.dtos.UserOutputDTO;
+import com.tsp.enums.Countries;
+import com.tsp.enums.TaskStatus;
+import com.tsp.mappers.LogMapper;
+import com.tsp.mappers.TaskMapper;
+import com.tsp.mappers.UserMapper;
+import com.tsp.models.Log;
+import com.tsp.models.Task;
+import com.tsp.models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions entité / DTO des mappers de tâches, d'utilisateurs et du journal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private final TaskMapper taskMapper = new TaskMapper();
+    private final UserMapper userMapper = new UserMapper();
+    private TaskInputDTO taskInput;
+    private Task task;
+    private UserInputDTO userInput;
+    private User user;
+    private LogInputDTO logInput;
+    private Log log;
+
+    @Setup
+    public void setUp() {
+        user = new User().setUsername("benchmark").setEmail("benchmark@tsp.io").setCountry(Countries.FRANCE);
+        user.setId(1L);
+        userInput = new UserInputDTO("benchmark", "benchmark@tsp.io", null, Countries.FRANCE);
+        taskInput = new TaskInputDTO("Benchmark task", "Benchmark task description", "blue",
+                LocalDateTime.of(2030, 1, 1, 12, 0), TaskStatus.IN_PROGRESS, 1L);
+        task = taskMapper.toEntity(taskInput).setUser(user).setVersion(3L);
+        task.setId(42L);
+        logInput = new LogInputDTO(42L, "Modification", "Old title", "New title", "Old description",
+                "New description", TaskStatus.PENDING, TaskStatus.IN_PROGRESS, 2L, 3L);
+        log = LogMapper.toEntity(logInput, task);
+        log.setId(7L);
+    }
+
+    @Benchmark
+    public Task taskToEntity() {
+        return taskMapper.toEntity(taskInput);
+    }
+
+    @Benchmark
+    public TaskOutputDTO taskToOutputDTO() {
+        return taskMapper.toOutputDTO(task);
+    }
+
+    @Benchmark
+    public User userToEntity() {
+        return userMapper.toEntity(userInput);
+    }
+
+    @Benchmark
+    public UserOutputDTO userToOutputDTO() {
+        return userMapper.toOutputDTO(user);
+    }
+
+    @Benchmark
+    public Log logToEntity() {
+        return LogMapper.toEntity(logInput, task);
+    }
+
+    @Benchmark
+    public LogOutputDTO logToOutputDTO() {
+        return LogMapper.toOutputDTO(log);
+    }
+}
@@ -0,0 +1,76 @@
+package com.tsp.benchmarks;
+
+import com.tsp.models.Task;
+import com.tsp.services.TaskService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compilation d'une recherche (buildSearchSpecification) puis construction de ses prédicats Criteria
+ * sur l'EntityManager de la base H2, sans exécuter la requête.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchSpecificationBenchmark {
+
+    private static final Map<String, Object> FILTERS = Map.of(
+            "status", "in_progress",
+            "userId", 1,
+            "dueDate", "2030-01-01T12:00:00");
+
+    private TaskService taskService;
+    private EntityManager entityManager;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState application) {
+        taskService = application.bean(TaskService.class);
+        entityManager = application.bean(EntityManagerFactory.class).createEntityManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+    }
+
+    @Benchmark
+    public Predicate filters() {
+        return toPredicate(taskService.buildSearchSpecification(null, null, FILTERS));
+    }
+
+    @Benchmark
+    public Predicate globalTermAndFilters() {
+        return toPredicate(taskService.buildSearchSpecification("report", List.of("title", "description"), FILTERS));
+    }
+
+    private Predicate toPredicate(Specification<Task> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = criteriaBuilder.createQuery(Task.class);
+        Root<Task> root = query.from(Task.class);
+        return specification.toPredicate(root, query, criteriaBuilder);
+    }
+}
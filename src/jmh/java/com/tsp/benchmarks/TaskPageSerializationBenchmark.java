@@ -0,0 +1,69 @@
+package com.tsp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tsp.dtos.TaskOutputDTO;
+import com.tsp.enums.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON des pages de tâches renvoyées par les recherches (Slice par défaut, Page avec le total),
+ * avec un ObjectMapper configuré comme celui de Spring MVC.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskPageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private Slice<TaskOutputDTO> slice;
+    private Page<TaskOutputDTO> page;
+
+    @Setup
+    public void setUp() {
+        List<TaskOutputDTO> tasks = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            tasks.add(new TaskOutputDTO(id, "Benchmark task " + id, "blue", "Benchmark task description " + id,
+                    LocalDateTime.of(2030, 1, 1, 12, 0).plusHours(id), TaskStatus.IN_PROGRESS, id % 10, id));
+        }
+        PageRequest pageable = PageRequest.of(0, pageSize);
+        slice = new SliceImpl<>(tasks, pageable, true);
+        page = new PageImpl<>(tasks, pageable, 10_000);
+    }
+
+    @Benchmark
+    public byte[] slice() throws Exception {
+        return objectMapper.writeValueAsBytes(slice);
+    }
+
+    @Benchmark
+    public byte[] pageWithTotal() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,87 @@
+package com.tsp.benchmarks;
+
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.Task;
+import com.tsp.models.User;
+import com.tsp.repositories.TaskRepository;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.AuditLogWriter;
+import com.tsp.services.SoftDeletePurgeJob;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Suppression physique d'un utilisateur et de ses tâches : purge ensembliste par lots (SoftDeletePurgeJob.purgeUser)
+ * contre la cascade JPA de User.getTasks() (chargement de toutes les tâches puis un DELETE par ligne).
+ * Une mesure par itération, sur un utilisateur recréé avant chacune. Le journal et les snapshots des tâches
+ * sont supprimés à la préparation : ils bloqueraient la cascade, et les deux variantes suppriment ainsi les mêmes lignes.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserPurgeBenchmark {
+
+    @Param({"1000"})
+    private int tasks;
+
+    private SoftDeletePurgeJob purgeJob;
+    private UserRepository userRepository;
+    private TaskRepository taskRepository;
+    private AuditLogWriter auditLogWriter;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState application) {
+        purgeJob = application.bean(SoftDeletePurgeJob.class);
+        userRepository = application.bean(UserRepository.class);
+        taskRepository = application.bean(TaskRepository.class);
+        auditLogWriter = application.bean(AuditLogWriter.class);
+        jdbcTemplate = application.bean(JdbcTemplate.class);
+        transactionTemplate = new TransactionTemplate(application.bean(PlatformTransactionManager.class));
+    }
+
+    @Setup(Level.Iteration)
+    public void createUser() {
+        User user = userRepository.save(new User().setUsername("purge-" + System.nanoTime())
+                .setEmail("purge@tsp.io").setPassword("secret123"));
+        taskRepository.saveAll(IntStream.range(0, tasks)
+                .mapToObj(i -> new Task().setTitle("Purged task " + i).setDescription("Purged description")
+                        .setColor("black").setStatus(TaskStatus.PENDING).setUser(user))
+                .toList());
+        auditLogWriter.flush();
+        jdbcTemplate.update("delete from log where task_id in (select id from task where user_id = ?)", user.getId());
+        jdbcTemplate.update("delete from task_snapshot where task_id in (select id from task where user_id = ?)", user.getId());
+        userId = user.getId();
+    }
+
+    @Benchmark
+    public Object setBasedPurge() {
+        return purgeJob.purgeUser(userId, progress -> { });
+    }
+
+    @Benchmark
+    public void jpaCascade() {
+        transactionTemplate.executeWithoutResult(status -> userRepository.deleteById(userId));
+    }
+}
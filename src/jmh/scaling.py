@@ -0,0 +1,76 @@
+#!/usr/bin/env python3
+"""Courbe latence / taille de table des benchmarks paramétrés par "rows" (DatasetScalingBenchmark, GetAllScalingBenchmark).
+
+Usage : python3 src/jmh/scaling.py target/jmh-result.json [--plot scaling.png]
+
+Pour chaque forme de requête, affiche la latence à chaque taille et l'exposant d'échelle entre deux tailles
+successives (pente en log-log) : ~0 la latence ne dépend pas de la taille (index), ~1 elle est linéaire (parcours).
+--plot trace les courbes en échelles logarithmiques (nécessite matplotlib).
+"""
+import argparse
+import json
+import math
+from collections import defaultdict
+
+
+def load(path):
+    curves = defaultdict(dict)
+    units = {}
+    with open(path, encoding="utf-8") as file:
+        for result in json.load(file):
+            rows = result.get("params", {}).get("rows")
+            if rows is None:
+                continue
+            name = result["benchmark"].rsplit(".", 2)[-2] + "." + result["benchmark"].rsplit(".", 1)[-1]
+            curves[name][int(rows)] = result["primaryMetric"]["score"]
+            units[name] = result["primaryMetric"]["scoreUnit"]
+    return curves, units
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Latence en fonction de la taille de la table.")
+    parser.add_argument("result")
+    parser.add_argument("--plot", help="Fichier image des courbes (PNG, SVG...)")
+    args = parser.parse_args()
+
+    curves, units = load(args.result)
+    if not curves:
+        raise SystemExit("Aucun benchmark paramétré par 'rows' dans " + args.result)
+    for name in sorted(curves):
+        points = sorted(curves[name].items())
+        print(f"{name} ({units[name]})")
+        previous = None
+        for rows, score in points:
+            slope = ""
+            if previous is not None and previous[1] > 0 and score > 0:
+                slope = f"  exposant {math.log(score / previous[1]) / math.log(rows / previous[0]):+.2f}"
+            print(f"  {rows:>12,} lignes {score:>14.3f}{slope}")
+            previous = (rows, score)
+        print()
+
+    if args.plot:
+        try:
+            import matplotlib
+            matplotlib.use("Agg")
+            import matplotlib.pyplot as plt
+        except ImportError:
+            raise SystemExit("--plot nécessite matplotlib (pip install matplotlib)")
+
+        figure, axis = plt.subplots(figsize=(9, 6))
+        for name in sorted(curves):
+            points = sorted(curves[name].items())
+            axis.plot([rows for rows, _ in points], [score for _, score in points], marker="o",
+                      label=f"{name} ({units[name]})")
+        axis.set_xscale("log")
+        axis.set_yscale("log")
+        axis.set_xlabel("Lignes dans task")
+        axis.set_ylabel("Latence moyenne")
+        axis.grid(True, which="both", alpha=0.3)
+        axis.legend(fontsize="small")
+        figure.tight_layout()
+        figure.savefig(args.plot)
+        print("Courbes écrites dans " + args.plot)
+
+
+if __name__ == "__main__":
+    main()
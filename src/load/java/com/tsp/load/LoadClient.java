@@ -0,0 +1,122 @@
+package com.tsp.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Client HTTP partagé par les workers du test de charge : envoie les requêtes JSON authentifiées
+ * à l'application et connaît les identifiants du jeu de données généré.
+ */
+class LoadClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final String baseUrl;
+    private final long[] taskIds;
+    private final long[] userIds;
+
+    /**
+     * @param baseUrl URL de l'application (http://localhost:port)
+     * @param taskIds Identifiants des tâches générées
+     * @param userIds Identifiants des utilisateurs générés
+     */
+    LoadClient(String baseUrl, long[] taskIds, long[] userIds) {
+        this.baseUrl = baseUrl;
+        this.taskIds = taskIds;
+        this.userIds = userIds;
+    }
+
+    /**
+     * Connexion par /auth/login.
+     *
+     * @param username Nom d'utilisateur
+     * @param password Mot de passe
+     * @return Le token JWT
+     * @throws IllegalStateException Si la connexion est refusée
+     */
+    String login(String username, String password) {
+        HttpResponse<String> response = send("POST", "/auth/login", null, Map.of("username", username, "password", password));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login of '" + username + "' failed with status " + response.statusCode() + ": " + response.body());
+        }
+        return json(response).get("token").asText();
+    }
+
+    /**
+     * Envoie une requête et attend la réponse complète.
+     *
+     * @param method Méthode HTTP
+     * @param path   Chemin relatif à l'URL de l'application
+     * @param token  Token JWT, ou null pour une requête anonyme
+     * @param body   Corps sérialisé en JSON, ou null
+     * @return La réponse
+     * @throws UncheckedIOException Si la requête échoue (connexion, délai dépassé)
+     */
+    HttpResponse<String> send(String method, String path, String token, Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        try {
+            if (body != null) {
+                request.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            } else {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+            return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new IOException("Interrupted", e));
+        }
+    }
+
+    /**
+     * @param response Réponse JSON
+     * @return Le corps de la réponse
+     */
+    JsonNode json(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Tokens d'un worker : les tâches sont réservées aux managers, les utilisateurs au superadmin.
+     *
+     * @param manager Token d'un manager
+     * @param admin   Token du superadmin
+     */
+    record Session(String manager, String admin) {
+    }
+
+    long randomTaskId() {
+        return taskIds[ThreadLocalRandom.current().nextInt(taskIds.length)];
+    }
+
+    long randomUserId() {
+        return userIds[ThreadLocalRandom.current().nextInt(userIds.length)];
+    }
+}
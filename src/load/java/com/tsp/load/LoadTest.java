@@ -0,0 +1,366 @@
+package com.tsp.load;
+
+import com.tsp.TspApplication;
+import com.tsp.enums.Countries;
+import com.tsp.models.Task;
+import com.tsp.models.User;
+import com.tsp.repositories.TaskRepository;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.TaskService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Test de charge de bout en bout : démarre l'application sur une base H2 en mémoire (profil de test),
+ * génère un jeu de données, connecte chaque worker par /auth/login puis exécute un mélange pondéré
+ * de requêtes sur /api/tasks, /api/tasks/search et /api/users.
+ * <p>
+ * Les latences sont enregistrées par opération dans des histogrammes HdrHistogram (en microsecondes) :
+ * journal par intervalle (latencies.hlog, lisible par HistogramLogAnalyzer), distribution complète
+ * par opération (&lt;operation&gt;.hgrm) et résumé débit / p50 / p95 / p99 / p99.9 (summary.txt).
+ * <p>
+ * Options (clé=valeur) :
+ * <ul>
+ *     <li>concurrency : nombre de workers (16)</li>
+ *     <li>duration / warmup : durées de mesure et de chauffe, en secondes (60 / 10)</li>
+ *     <li>rate : débit cible total en requêtes/s, 0 pour une boucle fermée sans pause (0).
+ *     Avec un débit cible, la latence est mesurée depuis l'heure prévue de la requête :
+ *     les retards accumulés par un serveur saturé sont comptés (pas d'omission coordonnée)</li>
+ *     <li>users / tasks : taille du jeu de données généré (100 / 10000)</li>
+ *     <li>mix : poids des opérations, par exemple tasks.get:50,tasks.search:50 (poids par défaut d'{@link Operation})</li>
+ *     <li>output : répertoire des résultats (target/load-test)</li>
+ * </ul>
+ */
+public class LoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+    private static final String MANAGER = "load-manager";
+    private static final String SUPERADMIN = "superadmin"; // Seul nom d'utilisateur qui reçoit le rôle SUPERADMIN
+    private static final int BATCH_SIZE = 500;
+
+    private final int concurrency;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final double rate;
+    private final int users;
+    private final int tasks;
+    private final Map<Operation, Integer> mix;
+    private final Path output;
+
+    private final Map<String, Recorder> recorders = new HashMap<>();
+    private final Map<String, LongAdder> errors = new HashMap<>();
+    private final Map<String, Histogram> totals = new HashMap<>();
+    private volatile boolean running = true;
+
+    /**
+     * @param options Options clé=valeur (voir la documentation de la classe)
+     */
+    LoadTest(Map<String, String> options) {
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        this.durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        this.warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        this.rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        this.users = Integer.parseInt(options.getOrDefault("users", "100"));
+        this.tasks = Integer.parseInt(options.getOrDefault("tasks", "10000"));
+        this.mix = parseMix(options.get("mix"));
+        this.output = Path.of(options.getOrDefault("output", "target/load-test"));
+        List<String> labels = new ArrayList<>(List.of("auth.login"));
+        mix.keySet().forEach(operation -> labels.add(operation.label()));
+        for (String label : labels) {
+            recorders.put(label, new Recorder(3));
+            errors.put(label, new LongAdder());
+            totals.put(label, new Histogram(3));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got '" + arg + "'.");
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        new LoadTest(options).run();
+    }
+
+    /**
+     * Démarre l'application, génère les données, exécute la charge et écrit les résultats.
+     */
+    void run() throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false"); // Le redémarrage relancerait main sans les options
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TspApplication.class)
+                .profiles("test")
+                // Arguments plutôt que .properties() : ils priment sur application-test.yml
+                .run("--server.port=0", "--spring.main.banner-mode=off", "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false")) {
+            long seedStart = System.nanoTime();
+            LoadClient client = seed(context);
+            System.out.printf("Dataset: %d users, %d tasks generated in %d ms%n",
+                    users, tasks, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+            load(client);
+        }
+    }
+
+    /**
+     * Génère les utilisateurs (dont le manager et le superadmin des workers) et les tâches,
+     * puis reconstruit l'index plein texte pour les recherches par terme.
+     *
+     * @param context Contexte de l'application
+     * @return Le client connaissant les identifiants générés
+     */
+    private LoadClient seed(ConfigurableApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        TaskRepository taskRepository = context.getBean(TaskRepository.class);
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD); // Un seul calcul BCrypt pour tous les comptes
+        Countries[] countries = Countries.values();
+
+        List<User> generated = new ArrayList<>();
+        generated.add(new User().setUsername(MANAGER).setEmail("manager@load.tsp.io").setPassword(hash));
+        generated.add(new User().setUsername(SUPERADMIN).setEmail("superadmin@load.tsp.io").setPassword(hash));
+        for (int i = 0; i < users; i++) {
+            generated.add(new User().setUsername("load-user-" + i).setEmail("user" + i + "@load.tsp.io")
+                    .setPassword(hash).setCountry(countries[i % countries.length]));
+        }
+        List<User> savedUsers = userRepository.saveAll(generated);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] taskIds = new long[tasks];
+        List<Task> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < tasks; i++) {
+            batch.add(new Task()
+                    .setTitle(Operation.randomWord() + " " + Operation.randomWord() + " " + i)
+                    .setDescription("Generated " + Operation.randomWord() + " about the " + Operation.randomWord())
+                    .setColor(random.nextBoolean() ? "blue" : "red")
+                    .setDueDate(LocalDateTime.now().plusDays(random.nextInt(-30, 60)))
+                    .setStatus(Operation.randomStatus())
+                    .setUser(savedUsers.get(random.nextInt(savedUsers.size()))));
+            if (batch.size() == BATCH_SIZE || i == tasks - 1) {
+                List<Task> saved = taskRepository.saveAll(batch);
+                for (int j = 0; j < saved.size(); j++) {
+                    taskIds[i - saved.size() + 1 + j] = saved.get(j).getId();
+                }
+                batch.clear();
+            }
+        }
+        context.getBean(TaskService.class).rebuildFullTextIndex();
+
+        long[] userIds = savedUsers.stream().mapToLong(User::getId).toArray();
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        return new LoadClient("http://localhost:" + port, taskIds, userIds);
+    }
+
+    /**
+     * Connecte les workers, exécute la chauffe puis la mesure et écrit les résultats.
+     *
+     * @param client Client HTTP
+     */
+    private void load(LoadClient client) throws IOException, InterruptedException {
+        Files.createDirectories(output);
+        Operation[] schedule = weightedSchedule();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> work(client, schedule, startNanos));
+        }
+        System.out.printf("Warmup: %d s, %d workers%s%n", warmupSeconds, concurrency,
+                rate > 0 ? String.format(", target rate %.0f req/s", rate) : "");
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+        long measureStart = System.currentTimeMillis(); // Début des intervalles des enregistreurs remis à zéro
+        // Les mesures de chauffe sont ignorées, sauf les connexions des workers qui n'ont lieu qu'au démarrage
+        totals.get("auth.login").add(recorders.get("auth.login").getIntervalHistogram());
+        recorders.values().forEach(Recorder::reset);
+        mix.keySet().forEach(operation -> errors.get(operation.label()).reset());
+
+        System.out.printf("Measuring: %d s%n", durationSeconds);
+        try (PrintStream log = new PrintStream(output.resolve("latencies.hlog").toFile())) {
+            HistogramLogWriter writer = new HistogramLogWriter(log);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(measureStart);
+            writer.setBaseTime(measureStart);
+            writer.outputLegend();
+            long deadline = measureStart + TimeUnit.SECONDS.toMillis(durationSeconds);
+            while (System.currentTimeMillis() < deadline) {
+                Thread.sleep(Math.min(1000, Math.max(1, deadline - System.currentTimeMillis())));
+                collect(writer);
+            }
+            running = false;
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        report(durationSeconds);
+    }
+
+    /**
+     * Boucle d'un worker : connexion puis requêtes tirées selon les poids jusqu'à la fin du test.
+     * Avec un débit cible, chaque worker suit un calendrier fixe et la latence part de l'heure prévue.
+     */
+    private void work(LoadClient client, Operation[] schedule, long startNanos) {
+        LoadClient.Session session;
+        try {
+            session = new LoadClient.Session(
+                    timed("auth.login", () -> client.login(MANAGER, PASSWORD)),
+                    timed("auth.login", () -> client.login(SUPERADMIN, PASSWORD)));
+        } catch (RuntimeException e) {
+            errors.get("auth.login").increment();
+            System.err.println("Worker stopped: " + e.getMessage());
+            return;
+        }
+        long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * concurrency / rate) : 0;
+        long intended = startNanos + ThreadLocalRandom.current().nextLong(Math.max(1, intervalNanos)); // Départs étalés
+        while (running) {
+            Operation operation = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+            long start = System.nanoTime();
+            if (intervalNanos > 0) {
+                if (intended > start) {
+                    sleepNanos(intended - start);
+                }
+                start = intended;
+                intended += intervalNanos;
+            }
+            boolean success;
+            try {
+                HttpResponse<String> response = operation.execute(client, session);
+                success = response.statusCode() < 300 || response.statusCode() == 304;
+            } catch (UncheckedIOException e) {
+                success = false;
+            }
+            record(operation.label(), start, success);
+        }
+    }
+
+    private String timed(String label, Supplier<String> login) {
+        long start = System.nanoTime();
+        String token = login.get();
+        record(label, start, true);
+        return token;
+    }
+
+    private void record(String label, long startNanos, boolean success) {
+        recorders.get(label).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+        if (!success) {
+            errors.get(label).increment();
+        }
+    }
+
+    /**
+     * Écrit l'intervalle écoulé de chaque opération dans le journal et l'ajoute aux totaux.
+     */
+    private void collect(HistogramLogWriter writer) {
+        for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            Histogram interval = entry.getValue().getIntervalHistogram();
+            interval.setTag(entry.getKey());
+            if (interval.getTotalCount() > 0) {
+                writer.outputIntervalHistogram(interval);
+            }
+            totals.get(entry.getKey()).add(interval);
+        }
+    }
+
+    /**
+     * Affiche et écrit le résumé par opération, et la distribution complète de chacune (.hgrm, en millisecondes).
+     */
+    private void report(int seconds) throws FileNotFoundException {
+        try (PrintStream summary = new PrintStream(output.resolve("summary.txt").toFile())) {
+            String header = String.format("%-20s %10s %10s %9s %9s %9s %9s %9s %9s%n",
+                    "operation", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+            System.out.print(header);
+            summary.print(header);
+            long requests = 0;
+            for (Map.Entry<String, Histogram> entry : totals.entrySet().stream().sorted(Map.Entry.comparingByKey()).toList()) {
+                Histogram histogram = entry.getValue();
+                requests += histogram.getTotalCount();
+                String line = String.format("%-20s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9d%n",
+                        entry.getKey(), histogram.getTotalCount(), histogram.getTotalCount() / (double) seconds,
+                        millis(histogram, 50), millis(histogram, 95), millis(histogram, 99), millis(histogram, 99.9),
+                        histogram.getMaxValue() / 1000.0, errors.get(entry.getKey()).sum());
+                System.out.print(line);
+                summary.print(line);
+                try (PrintStream distribution = new PrintStream(output.resolve(entry.getKey() + ".hgrm").toFile())) {
+                    histogram.outputPercentileDistribution(distribution, 1000.0);
+                }
+            }
+            String total = String.format("Total: %d requests, %.1f req/s%n", requests, requests / (double) seconds);
+            System.out.print(total);
+            summary.print(total);
+        }
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * @return Tableau d'opérations où chacune apparaît autant de fois que son poids
+     */
+    private Operation[] weightedSchedule() {
+        List<Operation> schedule = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(operation);
+            }
+        });
+        if (schedule.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no operation with a positive weight.");
+        }
+        return schedule.toArray(Operation[]::new);
+    }
+
+    /**
+     * @param mix Poids "operation:poids" séparés par des virgules, ou null pour les poids par défaut
+     * @return Les opérations et leurs poids
+     */
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        if (mix == null || mix.isBlank()) {
+            for (Operation operation : Operation.values()) {
+                weights.put(operation, operation.defaultWeight());
+            }
+            return weights;
+        }
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight, got '" + entry + "'.");
+            }
+            weights.put(Operation.fromLabel(parts[0]), Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+
+    private static void sleepNanos(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.tsp.load;
+
+import com.tsp.enums.TaskStatus;
+
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Requêtes du mélange de charge, chacune avec son poids par défaut (proportion des requêtes tirées).
+ * Le nom sert d'étiquette aux histogrammes et à l'option "mix".
+ */
+enum Operation {
+
+    TASKS_GET("tasks.get", 30) {
+        @Override
+        HttpResponse<String> execute(LoadClient client, LoadClient.Session session) {
+            return client.send("GET", "/api/tasks/" + client.randomTaskId(), session.manager(), null);
+        }
+    },
+    TASKS_LIST("tasks.list", 2) {
+        @Override
+        HttpResponse<String> execute(LoadClient client, LoadClient.Session session) {
+            return client.send("GET", "/api/tasks", session.manager(), null);
+        }
+    },
+    TASKS_SEARCH("tasks.search", 20) {
+        @Override
+        HttpResponse<String> execute(LoadClient client, LoadClient.Session session) {
+            Map<String, Object> filters = Map.of("status", randomStatus().name(), "userId", client.randomUserId());
+            return client.send("POST", "/api/tasks/search", session.manager(),
+                    Map.of("filters", filters, "size", 20, "withCount", false));
+        }
+    },
+    TASKS_SEARCH_TEXT("tasks.search.text", 10) {
+        @Override
+        HttpResponse<String> execute(LoadClient client, LoadClient.Session session) {
+            return client.send("POST", "/api/tasks/search", session.manager(), Map.of(
+                    "searchTerm", randomWord(),
+                    "searchableFields", List.of("title", "description"),
+                    "size", 20));
+        }
+    },
+    TASKS_CREATE("tasks.create", 10) {
+        @Override
+        HttpResponse<String> execute(LoadClient client, LoadClient.Session session) {
+            return client.send("POST", "/api/tasks", session.manager(), task(client.randomUserId()));
+        }
+    },
+    /**
+     * Lecture de la version puis PATCH : mesurés ensemble, comme la modification vue par un client.
+     * Un 409 (modification concurrente de la même tâche) compte comme une erreur.
+     */
+    TASKS_PATCH("tasks.patch", 10) {
+        @Override
+        HttpResponse<String> execute(LoadClient client, LoadClient.Session session) {
+            long id = client.randomTaskId();
+            HttpResponse<String> current = client.send("GET", "/api/tasks/" + id, session.manager(), null);
+            if (current.statusCode() != 200) {
+                return current;
+            }
+            Map<String, Object> changes = new HashMap<>();
+            changes.put("version", client.json(current).get("version").asLong());
+            changes.put("status", randomStatus().name());
+            return client.send("PATCH", "/api/tasks/" + id, session.manager(), changes);
+        }
+    },
+    USERS_LIST("users.list", 5) {
+        @Override
+        HttpResponse<String> execute(LoadClient client, LoadClient.Session session) {
+            return client.send("GET", "/api/users", session.admin(), null);
+        }
+    },
+    USERS_GET("users.get", 8) {
+        @Override
+        HttpResponse<String> execute(LoadClient client, LoadClient.Session session) {
+            return client.send("GET", "/api/users/" + client.randomUserId(), session.admin(), null);
+        }
+    };
+
+    /**
+     * Vocabulaire des titres et descriptions générés, repris par les recherches plein texte.
+     */
+    static final List<String> WORDS = List.of("report", "meeting", "release", "invoice", "review",
+            "budget", "roadmap", "migration", "audit", "training", "customer", "deployment");
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final String label;
+    private final int defaultWeight;
+
+    Operation(String label, int defaultWeight) {
+        this.label = label;
+        this.defaultWeight = defaultWeight;
+    }
+
+    /**
+     * Exécute la requête de manière synchrone.
+     *
+     * @param client  Client HTTP
+     * @param session Tokens du worker
+     * @return La réponse (la dernière, pour une opération en plusieurs requêtes)
+     */
+    abstract HttpResponse<String> execute(LoadClient client, LoadClient.Session session);
+
+    String label() {
+        return label;
+    }
+
+    int defaultWeight() {
+        return defaultWeight;
+    }
+
+    /**
+     * @param label Étiquette de l'opération
+     * @return L'opération
+     * @throws IllegalArgumentException Si l'étiquette est inconnue
+     */
+    static Operation fromLabel(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equals(label)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + label + "'.");
+    }
+
+    /**
+     * Corps d'une tâche aléatoire, au format de TaskInputDTO.
+     *
+     * @param userId Utilisateur de la tâche
+     * @return Les champs de la tâche
+     */
+    static Map<String, Object> task(long userId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, Object> task = new HashMap<>();
+        task.put("title", randomWord() + " " + randomWord() + " " + random.nextInt(1000));
+        task.put("description", "Load test " + randomWord() + " about the " + randomWord());
+        task.put("color", random.nextBoolean() ? "blue" : "red");
+        task.put("dueDate", LocalDateTime.now().plusDays(random.nextInt(-30, 60)).withNano(0));
+        task.put("status", randomStatus().name());
+        task.put("userId", userId);
+        return task;
+    }
+
+    static String randomWord() {
+        return WORDS.get(ThreadLocalRandom.current().nextInt(WORDS.size()));
+    }
+
+    static TaskStatus randomStatus() {
+        return STATUSES[ThreadLocalRandom.current().nextInt(STATUSES.length)];
+    }
+}
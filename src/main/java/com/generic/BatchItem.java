@@ -0,0 +1,11 @@
+package com.generic;
+
+/**
+ * Élément d'une mise à jour par lot : l'ID de l'entité à modifier et ses nouvelles données.
+ *
+ * @param id   Identifiant de l'entité
+ * @param data DTO contenant les nouvelles données
+ * @param <T>  Type du DTO d'entrée
+ */
+public record BatchItem<T>(Long id, T data) {
+}
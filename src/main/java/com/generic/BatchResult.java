@@ -0,0 +1,20 @@
+package com.generic;
+
+/**
+ * Résultat d'un élément d'une opération par lot : soit le DTO de sortie, soit un message d'erreur.
+ *
+ * @param index  Position de l'élément dans le lot reçu
+ * @param result DTO de sortie si l'élément a été traité
+ * @param error  Message d'erreur si l'élément a été rejeté
+ * @param <T>    Type du DTO de sortie
+ */
+public record BatchResult<T>(int index, T result, String error) {
+
+    public static <T> BatchResult<T> success(int index, T result) {
+        return new BatchResult<>(index, result, null);
+    }
+
+    public static <T> BatchResult<T> failure(int index, String error) {
+        return new BatchResult<>(index, null, error);
+    }
+}
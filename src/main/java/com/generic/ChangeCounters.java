@@ -0,0 +1,123 @@
+package com.generic;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compteur de modifications par table (entité), incrémenté après chaque écriture validée.
+ * Sert d'ETag aux listes et aux recherches : tant que le compteur n'a pas bougé, aucun résultat n'a pu changer.
+ * <p>
+ * Les écritures Hibernate (insertion, mise à jour, suppression) sont comptées par des écouteurs post-commit ;
+ * les requêtes UPDATE/DELETE directes, invisibles pour ces écouteurs, doivent appeler {@link #incrementAfterCommit}.
+ * Le compteur est incrémenté après la validation : une lecture qui lit le compteur avant sa requête ne peut pas
+ * associer des données anciennes à une valeur récente.
+ * <p>
+ * Les compteurs sont locaux à l'instance, comme le cache de second niveau. La date de démarrage fait partie
+ * de l'ETag pour qu'un redémarrage (compteurs remis à zéro) ne réutilise pas une valeur déjà distribuée.
+ * Déclaré comme bean dans la configuration de l'application (com.generic n'est pas scanné).
+ */
+public class ChangeCounters implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Class<?>, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ChangeCounters(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Enregistre les écouteurs auprès de Hibernate.
+     */
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * @param entityClass Classe de l'entité
+     * @return L'ETag courant de la table, sans guillemets
+     */
+    public String tag(Class<?> entityClass) {
+        return epoch + "." + counter(entityClass).get();
+    }
+
+    /**
+     * Incrémente le compteur d'une table après la validation de la transaction en cours
+     * (immédiatement hors transaction). À appeler après une requête UPDATE/DELETE directe.
+     *
+     * @param entityClass Classe de l'entité modifiée
+     */
+    public void incrementAfterCommit(Class<?> entityClass) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter(entityClass).incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counter(entityClass).incrementAndGet();
+            }
+        });
+    }
+
+    private AtomicLong counter(Class<?> entityClass) {
+        return counters.computeIfAbsent(entityClass, key -> new AtomicLong());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        counter(event.getPersister().getMappedClass()).incrementAndGet();
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        counter(event.getPersister().getMappedClass()).incrementAndGet();
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        counter(event.getPersister().getMappedClass()).incrementAndGet();
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Transaction annulée : rien n'a changé
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Transaction annulée : rien n'a changé
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Transaction annulée : rien n'a changé
+    }
+}
@@ -0,0 +1,11 @@
+package com.generic;
+
+/**
+ * Représentation d'une entité accompagnée de son ETag.
+ *
+ * @param eTag ETag fort, sans guillemets (version de l'entité, ou date de dernière modification)
+ * @param body DTO de sortie
+ * @param <T>  Type du DTO
+ */
+public record ETagged<T>(String eTag, T body) {
+}
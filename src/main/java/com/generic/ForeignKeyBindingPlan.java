@@ -0,0 +1,157 @@
+package com.generic;
+
+import com.utils.CleEtrangere;
+import jakarta.persistence.EntityManager;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plan de liaison des clés étrangères d'une classe d'entité, compilé une seule fois à partir des
+ * champs annotés {@link CleEtrangere}.
+ * Chaque champ d'ID (ex : "userId") est associé à son champ de relation (ex : "user") via des
+ * {@link VarHandle} mis en cache : aucune réflexion n'est faite lors des écritures, et l'entité liée
+ * est attachée par une référence (proxy) sans requête SELECT.
+ */
+final class ForeignKeyBindingPlan {
+
+    /**
+     * Liaison d'un champ de clé étrangère vers son champ de relation.
+     *
+     * @param foreignKey   Accès au champ d'ID (ex : userId)
+     * @param relation     Accès au champ de relation (ex : user)
+     * @param targetEntity Classe de l'entité liée
+     * @param fieldName    Nom du champ d'ID, pour les messages d'erreur
+     */
+    private record Binding(VarHandle foreignKey, VarHandle relation, Class<?> targetEntity, String fieldName) {
+    }
+
+    /**
+     * Nombre maximal d'IDs par clause IN (SQL Server limite une requête à 2100 paramètres).
+     */
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    private final List<Binding> bindings;
+
+    private ForeignKeyBindingPlan(List<Binding> bindings) {
+        this.bindings = bindings;
+    }
+
+    /**
+     * Compile le plan de liaison d'une classe d'entité.
+     * Par convention, le champ de relation porte le nom du champ d'ID sans le suffixe "Id".
+     *
+     * @param entityClass La classe de l'entité
+     * @return Le plan de liaison (éventuellement vide)
+     * @throws IllegalStateException Si un champ annoté n'a pas de champ de relation correspondant
+     */
+    static ForeignKeyBindingPlan compile(Class<?> entityClass) {
+        List<Binding> bindings = new ArrayList<>();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(entityClass, MethodHandles.lookup());
+            for (Field field : entityClass.getDeclaredFields()) {
+                CleEtrangere annotation = field.getAnnotation(CleEtrangere.class);
+                if (annotation == null) {
+                    continue;
+                }
+                String relationName = getRelatedFieldName(field.getName());
+                Field relationField = entityClass.getDeclaredField(relationName);
+                bindings.add(new Binding(
+                        lookup.unreflectVarHandle(field),
+                        lookup.unreflectVarHandle(relationField),
+                        annotation.targetEntity(),
+                        field.getName()
+                ));
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to compile foreign key bindings for: " + entityClass.getName(), e);
+        }
+        return new ForeignKeyBindingPlan(List.copyOf(bindings));
+    }
+
+    /**
+     * Associe à l'entité les entités liées correspondant à ses IDs de clés étrangères.
+     * Les entités liées sont des références JPA : aucune requête n'est exécutée pour les charger.
+     *
+     * @param entity        L'entité à traiter
+     * @param entityManager EntityManager fournissant les références
+     */
+    void bind(Object entity, EntityManager entityManager) {
+        for (Binding binding : bindings) {
+            Object foreignKeyValue = binding.foreignKey().get(entity);
+            if (foreignKeyValue != null) {
+                binding.relation().set(entity, entityManager.getReference(binding.targetEntity(), foreignKeyValue));
+            }
+        }
+    }
+
+    /**
+     * Vérifie en une requête IN par entité cible quels IDs de clés étrangères référencés par un lot existent.
+     *
+     * @param entities      Les entités du lot
+     * @param entityManager EntityManager utilisé pour les requêtes
+     * @return Pour chaque classe d'entité cible, l'ensemble des IDs existants
+     */
+    Map<Class<?>, Set<Object>> loadExistingKeys(List<?> entities, EntityManager entityManager) {
+        Map<Class<?>, Set<Object>> requested = new HashMap<>();
+        for (Object entity : entities) {
+            for (Binding binding : bindings) {
+                Object foreignKeyValue = binding.foreignKey().get(entity);
+                if (foreignKeyValue != null) {
+                    requested.computeIfAbsent(binding.targetEntity(), k -> new HashSet<>()).add(foreignKeyValue);
+                }
+            }
+        }
+
+        Map<Class<?>, Set<Object>> existing = new HashMap<>();
+        requested.forEach((targetEntity, ids) -> {
+            String jpql = "select e.id from " + entityManager.getMetamodel().entity(targetEntity).getName() + " e where e.id in :ids";
+            List<Object> idList = new ArrayList<>(ids);
+            Set<Object> found = new HashSet<>();
+            for (int from = 0; from < idList.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+                List<Object> chunk = idList.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, idList.size()));
+                found.addAll(entityManager.createQuery(jpql, Object.class).setParameter("ids", chunk).getResultList());
+            }
+            existing.put(targetEntity, found);
+        });
+        return existing;
+    }
+
+    /**
+     * Recherche la première clé étrangère de l'entité qui ne correspond à aucune entité existante.
+     *
+     * @param entity   L'entité à vérifier
+     * @param existing IDs existants, tels que renvoyés par {@link #loadExistingKeys}
+     * @return Un message d'erreur, ou null si toutes les clés étrangères existent
+     */
+    String findMissingKey(Object entity, Map<Class<?>, Set<Object>> existing) {
+        for (Binding binding : bindings) {
+            Object foreignKeyValue = binding.foreignKey().get(entity);
+            if (foreignKeyValue != null && !existing.getOrDefault(binding.targetEntity(), Set.of()).contains(foreignKeyValue)) {
+                return binding.targetEntity().getSimpleName() + " with ID " + foreignKeyValue + " not found.";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Détermine le nom du champ de relation à partir du nom du champ de clé étrangère.
+     * Exemple : "userId" -> "user"
+     *
+     * @param foreignKeyFieldName Le nom du champ de clé étrangère
+     * @return Le nom du champ de relation correspondant
+     */
+    private static String getRelatedFieldName(String foreignKeyFieldName) {
+        if (foreignKeyFieldName.endsWith("Id")) {
+            return foreignKeyFieldName.substring(0, foreignKeyFieldName.length() - 2);
+        }
+        throw new IllegalArgumentException("Cannot determine related field name for: " + foreignKeyFieldName);
+    }
+}
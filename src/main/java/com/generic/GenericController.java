@@ -1,14 +1,32 @@
 package com.generic;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.utils.SearchRequest;
 
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -20,8 +38,16 @@ import java.util.Optional;
  */
 public abstract class GenericController<Entity, InputDTO, OutputDTO> {
 
+    /**
+     * Type de contenu du mode flux : un objet JSON par ligne.
+     */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     private final GenericService<Entity, InputDTO, OutputDTO> service;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Constructeur pour initialiser le service.
      *
@@ -43,27 +69,119 @@ public abstract class GenericController<Entity, InputDTO, OutputDTO> {
         return ResponseEntity.ok(output);
     }
 
+    /**
+     * API pour créer un lot d'entités en une seule transaction, avec insertions par lots JDBC.
+     *
+     * @param dtos DTOs contenant les données des entités
+     * @return Un résultat (DTO de sortie ou erreur) par élément, dans l'ordre reçu
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchResult<OutputDTO>>> createAll(@RequestBody List<InputDTO> dtos) {
+        return ResponseEntity.ok(service.createAll(dtos));
+    }
+
+    /**
+     * API pour mettre à jour un lot d'entités en une seule transaction, avec mises à jour par lots JDBC.
+     *
+     * @param items Paires (ID, DTO) des entités à mettre à jour
+     * @return Un résultat (DTO de sortie ou erreur) par élément, dans l'ordre reçu
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<List<BatchResult<OutputDTO>>> updateAll(@RequestBody List<BatchItem<InputDTO>> items) {
+        return ResponseEntity.ok(service.updateAll(items));
+    }
+
+    /**
+     * API pour mettre à jour partiellement une entité en une seule requête UPDATE.
+     * Le corps contient uniquement les champs à modifier, et la version attendue ("version") si l'entité est versionnée.
+     *
+     * @param id      Identifiant de l'entité
+     * @param changes Champs à modifier
+     * @return La nouvelle version, 404 si l'entité n'existe pas, 409 si elle a été modifiée entre-temps
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<PatchResult> patch(@PathVariable Long id, @RequestBody Map<String, Object> changes) {
+        return service.patch(id, changes).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * API pour récupérer une entité par ID.
+     * La réponse porte un ETag fort (version de l'entité, ou date de dernière modification si elle n'est pas versionnée).
+     * Si le client renvoie cet ETag dans {@code If-None-Match}, seule la version est lue en base :
+     * la réponse est 304 sans charger l'entité ni la sérialiser tant qu'elle n'a pas changé.
      *
-     * @param id Identifiant de l'entité
-     * @return DTO de sortie si l'entité est trouvée
+     * @param id          Identifiant de l'entité
+     * @param ifNoneMatch ETags déjà connus du client
+     * @return DTO de sortie si l'entité est trouvée, 304 si elle n'a pas changé
      */
     @GetMapping("/{id}")
-    public ResponseEntity<OutputDTO> getById(@PathVariable Long id) {
-        Optional<OutputDTO> output = service.getById(id);
-        return output.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<OutputDTO> getById(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> eTag = service.currentETag(id);
+            if (eTag.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (matches(ifNoneMatch, eTag.get())) {
+                return notModified(eTag.get());
+            }
+        }
+        return service.getByIdWithETag(id)
+                .map(output -> ResponseEntity.ok().eTag(output.eTag()).body(output.body()))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
      * API pour récupérer toutes les entités.
+     * L'ETag est le compteur de modifications de la table : 304 sans requête tant qu'aucune écriture n'a été validée.
      *
-     * @return Iterable de DTOs de sortie
+     * @param ifNoneMatch ETags déjà connus du client
+     * @return Iterable de DTOs de sortie, 304 si la table n'a pas changé
      */
     @GetMapping
-    public ResponseEntity<Iterable<OutputDTO>> getAll() {
+    public ResponseEntity<Iterable<OutputDTO>> getAll(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = service.collectionETag(); // Lu avant la requête : une écriture concurrente changera l'ETag suivant
+        if (matches(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
         Iterable<OutputDTO> outputs = service.getAll();
-        return ResponseEntity.ok(outputs);
+        return ResponseEntity.ok().eTag(eTag).body(outputs);
+    }
+
+    /**
+     * API pour récupérer toutes les entités en flux NDJSON (un DTO par ligne).
+     * Sélectionnée lorsque le client envoie {@code Accept: application/x-ndjson}.
+     * Les lignes sont écrites au fil de la lecture : le premier octet part avant la fin de la requête
+     * et la mémoire reste constante quelle que soit la taille de la table.
+     *
+     * @return Corps de réponse écrit en flux
+     */
+    @GetMapping(produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> getAllAsStream() {
+        StreamingResponseBody body = outputStream -> {
+            try {
+                service.streamAll(output -> writeLine(outputStream, output));
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // Client déconnecté : on interrompt la lecture
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON)).body(body);
+    }
+
+    /**
+     * Écrit un DTO sérialisé suivi d'un saut de ligne.
+     * Le tampon de la réponse est vidé vers le client à chaque remplissage.
+     *
+     * @param outputStream Flux de la réponse HTTP
+     * @param output       DTO à écrire
+     */
+    private void writeLine(OutputStream outputStream, OutputDTO output) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(output));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -93,12 +211,28 @@ public abstract class GenericController<Entity, InputDTO, OutputDTO> {
 
     /**
      * API pour rechercher, filtrer et paginer des entités.
+     * Si un terme global porte sur des champs couverts par un index plein texte (ex : titre et description
+     * des tâches), les résultats sont classés par pertinence via cet index.
+     * Sinon, trois modes de pagination sont possibles :
+     * - par curseur (keyset) si {@code sortField} ou {@code cursor} est fourni : latence constante, sans total ;
+     * - par OFFSET sans total si {@code withCount} vaut false ;
+     * - par OFFSET avec total (comportement par défaut).
+     * L'ETag combine le compteur de modifications de la table et les critères : une recherche répétée avec
+     * {@code If-None-Match} reçoit 304 sans requête tant qu'aucune écriture n'a été validée.
+     * (Un POST conditionnel n'est pas mis en cache par HTTP : c'est au client de conserver le dernier résultat.)
      *
      * @param searchRequest Objet contenant les critères de recherche, filtres et pagination
-     * @return Une page contenant les DTOs de sortie correspondant aux résultats de la recherche
+     * @param ifNoneMatch   ETags déjà connus du client
+     * @return Une page ou une tranche contenant les DTOs de sortie correspondant aux résultats de la recherche
      */
     @PostMapping("/search")
-    public ResponseEntity<Page<OutputDTO>> search(@RequestBody SearchRequest searchRequest) {
+    public ResponseEntity<Slice<OutputDTO>> search(@RequestBody SearchRequest searchRequest,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = service.collectionETag() + "-" + fingerprint(searchRequest);
+        if (matches(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+
         // Récupérer les champs recherchables depuis la requête
         List<String> searchableFields = searchRequest.searchableFields();
 
@@ -109,13 +243,118 @@ public abstract class GenericController<Entity, InputDTO, OutputDTO> {
                 searchRequest.filters()
         );
 
+        // Recherche plein texte : candidats classés par pertinence via l'index inversé, si l'entité en a un
+        if (!searchRequest.isKeyset() && service.canUseFullTextIndex(searchRequest.searchTerm(), searchableFields)) {
+            return ResponseEntity.ok().eTag(eTag).body(service.searchFullText(
+                    searchRequest.searchTerm(),
+                    searchableFields,
+                    searchRequest.filters(),
+                    PageRequest.of(searchRequest.page(), searchRequest.size())
+            ));
+        }
+
+        // Pagination par curseur : pas d'OFFSET ni de COUNT(*)
+        if (searchRequest.isKeyset()) {
+            return ResponseEntity.ok().eTag(eTag).body(service.searchKeyset(
+                    searchSpec,
+                    searchRequest.sortField(),
+                    searchRequest.sortDirection(),
+                    searchRequest.cursor(),
+                    searchRequest.size()
+            ));
+        }
+
         // Appliquer la pagination et exécuter la recherche
-        Page<OutputDTO> resultPage = service.search(
-                searchSpec,
-                PageRequest.of(searchRequest.page(), searchRequest.size())
-        );
+        PageRequest pageRequest = PageRequest.of(searchRequest.page(), searchRequest.size());
+        Slice<OutputDTO> result = searchRequest.withCount()
+                ? service.search(searchSpec, pageRequest)
+                : service.searchSlice(searchSpec, pageRequest);
 
         // Retourner les résultats paginés
-        return ResponseEntity.ok(resultPage);
+        return ResponseEntity.ok().eTag(eTag).body(result);
+    }
+
+    /**
+     * Empreinte des critères d'une recherche pour son ETag : SHA-256 de leur sérialisation JSON canonique
+     * (clés triées à tous les niveaux, y compris dans les filtres), encodée en Base64 URL.
+     * Deux recherches différentes ne partagent donc pas d'ETag, contrairement à une empreinte par hashCode.
+     *
+     * @param searchRequest Critères de recherche
+     * @return L'empreinte
+     */
+    private String fingerprint(SearchRequest searchRequest) {
+        try {
+            byte[] canonical = objectMapper.writer()
+                    .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                    .writeValueAsBytes(searchRequest.canonicalForm());
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(MessageDigest.getInstance("SHA-256").digest(canonical));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Search criteria cannot be serialized: " + e.getOriginalMessage(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Compare l'en-tête {@code If-None-Match} à l'ETag courant (comparaison faible, comme le veut If-None-Match).
+     *
+     * @param ifNoneMatch Valeur de l'en-tête (liste d'ETags, ou *), peut être null
+     * @param eTag        ETag courant, sans guillemets
+     * @return true si le client possède déjà la représentation courante
+     */
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String quoted = "\"" + eTag + "\"";
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(quoted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+
+    /**
+     * Convertit une requête invalide (champ de recherche inconnu, valeur de filtre ou curseur invalide...)
+     * en réponse HTTP 400.
+     *
+     * @param e L'exception levée par le service
+     * @return Une réponse 400 contenant le message d'erreur
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+    }
+
+    /**
+     * Convertit un conflit de version (entité modifiée depuis la version fournie) en réponse HTTP 409.
+     *
+     * @param e L'exception levée par le service
+     * @return Une réponse 409 contenant le message d'erreur
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleVersionConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", String.valueOf(e.getMessage())));
+    }
+
+    /**
+     * Convertit une valeur déjà prise par une autre entité (nom d'utilisateur...) en réponse HTTP 409.
+     *
+     * @param e L'exception levée par le service
+     * @return Une réponse 409 contenant le message d'erreur
+     */
+    @ExceptionHandler(DuplicateKeyException.class)
+    public ResponseEntity<Map<String, String>> handleDuplicateKey(DuplicateKeyException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", String.valueOf(e.getMessage())));
     }
 }
@@ -1,14 +1,19 @@
 package com.generic;
 
 import jakarta.persistence.*;
+import org.hibernate.type.NumericBooleanConverter;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @MappedSuperclass
 public class GenericEntity {
 
+    // Séquence propre à chaque entité (ex : task_seq), allouée par blocs de 50 IDs :
+    // les IDs sont connus avant l'INSERT, ce qui permet à Hibernate de regrouper les insertions en lots JDBC.
+    // L'optimiseur (pooled ou pooled-lo) se choisit via hibernate.id.optimizer.pooled.preferred.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     @Column(nullable = false, updatable = false)
@@ -19,6 +24,9 @@ public class GenericEntity {
 
     private LocalDateTime deletedAt;
 
+    // Stocké en 0/1 sur toutes les bases (bit sous SQL Server) : les restrictions SQL des entités
+    // (deleted = 0) et la purge s'écrivent de la même façon quel que soit le dialecte
+    @Convert(converter = NumericBooleanConverter.class)
     private boolean deleted = false;
 
     // Getters and Setters
@@ -67,13 +75,23 @@ public class GenericEntity {
     // Méthodes de gestion automatique des dates
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        createdAt = now();
         updatedAt = createdAt;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = now();
+    }
+
+    /**
+     * Date courante tronquée à la microseconde, la précision stockée en base : la valeur gardée en mémoire
+     * (cache de second niveau) est identique à celle relue, ce qui permet de s'en servir comme ETag.
+     *
+     * @return La date courante
+     */
+    public static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     // Méthode de suppression logique
@@ -1,11 +1,53 @@
 package com.generic;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
 @Repository
 public interface GenericRepository<T> extends JpaRepository<T, Long>, JpaSpecificationExecutor<T> {
     // Ce repository hérite de JpaRepository pour toutes les opérations CRUD
     // et de JpaSpecificationExecutor pour le filtrage et la recherche dynamique
-}
\ No newline at end of file
+
+    /**
+     * Nombre de lignes lues par aller-retour JDBC lors d'un parcours en flux.
+     */
+    int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Parcourt toutes les entités sous forme de flux, sans matérialiser la liste complète.
+     * Doit être appelé dans une transaction et le flux doit être fermé après usage.
+     *
+     * @return Flux des entités, lu par blocs de {@link #STREAM_FETCH_SIZE} lignes
+     */
+    @Query("select e from #{#entityName} e order by e.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<T> streamAll();
+
+    /**
+     * Suppression logique en une seule requête UPDATE, sans charger l'entité.
+     * Les lectures excluent ensuite la ligne (restriction deleted = 0 des entités) ;
+     * elle est supprimée physiquement plus tard par la purge.
+     *
+     * @param id  Identifiant de l'entité
+     * @param now Date de suppression
+     * @return Nombre de lignes marquées (0 si l'entité n'existe pas ou est déjà supprimée)
+     */
+    @Modifying
+    @Query("update #{#entityName} e set e.deleted = true, e.deletedAt = :now, e.updatedAt = :now"
+            + " where e.id = :id and e.deleted = false")
+    int softDeleteById(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
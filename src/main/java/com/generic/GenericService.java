@@ -1,17 +1,61 @@
 package com.generic;
 
+import com.utils.InvertedIndex;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.criteria.JpaOrder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service générique pour gérer les opérations CRUD avec support des DTOs.
@@ -24,10 +68,40 @@ public abstract class GenericService<Entity, InputDTO, OutputDTO> {
 
     private final GenericRepository<Entity> repository;
     private final EntityMapper<Entity, InputDTO, OutputDTO> mapper;
+    protected final Class<Entity> entityClass;
+    private final ForeignKeyBindingPlan foreignKeyBindingPlan;
 
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ChangeCounters changeCounters;
+
+    /**
+     * Nombre d'IDs candidats de l'index plein texte filtrés en base par requête.
+     */
+    private static final int FULL_TEXT_FILTER_CHUNK = 1000;
+
+    // Taille des lots JDBC : le contexte de persistance est vidé à ce rythme lors des opérations par lot
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    // Champs copiés lors d'une mise à jour par lot (hors ID, version et colonnes techniques de GenericEntity)
+    private volatile List<Field> updatableFields;
+
+    // Attributs modifiables par PATCH, par nom de champ (les associations aussi sous "<nom>Id"), et attribut de version
+    private Map<String, SingularAttribute<? super Entity, ?>> patchableAttributes;
+    private SingularAttribute<? super Entity, ?> versionAttribute;
+
+    // Compilateur des recherches, construit une fois à partir du métamodèle JPA
+    private SearchSpecificationCompiler<Entity> searchCompiler;
+
     /**
      * Constructeur pour initialiser le repository.
      *
@@ -37,6 +111,52 @@ public abstract class GenericService<Entity, InputDTO, OutputDTO> {
     public GenericService(GenericRepository<Entity> repository, EntityMapper<Entity, InputDTO, OutputDTO> mapper) {
         this.repository = repository;
         this.mapper = mapper;
+        this.entityClass = resolveEntityClass();
+        this.foreignKeyBindingPlan = ForeignKeyBindingPlan.compile(entityClass);
+    }
+
+    /**
+     * Initialise le compilateur de recherche une fois l'EntityManager injecté.
+     */
+    @PostConstruct
+    public void initSearchCompiler() {
+        this.searchCompiler = new SearchSpecificationCompiler<>(entityManager.getMetamodel(), entityClass);
+
+        Map<String, SingularAttribute<? super Entity, ?>> patchable = new HashMap<>();
+        for (SingularAttribute<? super Entity, ?> attribute : entityManager.getMetamodel().entity(entityClass).getSingularAttributes()) {
+            if (attribute.isVersion()) {
+                versionAttribute = attribute;
+            }
+            if (attribute.isId() || attribute.isVersion()
+                    || attribute.getDeclaringType().getJavaType().equals(GenericEntity.class)) {
+                continue;
+            }
+            switch (attribute.getPersistentAttributeType()) {
+                case BASIC -> patchable.put(attribute.getName(), attribute);
+                case MANY_TO_ONE, ONE_TO_ONE -> {
+                    patchable.put(attribute.getName(), attribute);
+                    patchable.putIfAbsent(attribute.getName() + "Id", attribute);
+                }
+                default -> {
+                    // Collections et attributs embarqués : non modifiables par PATCH
+                }
+            }
+        }
+        this.patchableAttributes = Map.copyOf(patchable);
+    }
+
+    /**
+     * Détermine la classe de l'entité à partir des paramètres génériques de la sous-classe concrète.
+     *
+     * @return La classe de l'entité gérée par ce service
+     */
+    @SuppressWarnings("unchecked")
+    private Class<Entity> resolveEntityClass() {
+        Class<?>[] typeArguments = GenericTypeResolver.resolveTypeArguments(getClass(), GenericService.class);
+        if (typeArguments == null || typeArguments[0] == null) {
+            throw new IllegalStateException("Cannot resolve entity class for service: " + getClass().getName());
+        }
+        return (Class<Entity>) typeArguments[0];
     }
 
     /**
@@ -52,96 +172,69 @@ public abstract class GenericService<Entity, InputDTO, OutputDTO> {
         processForeignKeys(entity);
 
         Entity savedEntity = repository.save(entity); // Sauvegarde en base de données
+        afterSave(savedEntity);
         return mapper.toOutputDTO(savedEntity); // Conversion de l'entité sauvegardée en DTO de sortie
     }
 
     /**
-     * Gère automatiquement les clés étrangères d'une entité en les associant à partir de leurs IDs.
+     * Gère automatiquement les clés étrangères d'une entité en les associant à partir de leurs IDs,
+     * selon le plan de liaison compilé au démarrage.
      *
      * @param entity L'entité à traiter
      */
     private void processForeignKeys(Entity entity) {
-        for (Field field : entity.getClass().getDeclaredFields()) {
-            field.setAccessible(true);
-
-            // Vérifie si le champ est une clé étrangère (par convention : type Long et nom se terminant par "Id")
-            if (isForeignKeyField(field)) {
-                try {
-                    Object foreignKeyValue = field.get(entity); // Récupère la valeur de l'ID (ex: userId -> 1)
-                    if (foreignKeyValue != null) {
-                        // Détermine l'entité cible (ex: userId -> User.class)
-                        Class<?> targetEntity = getTargetEntityFromField(field);
-
-                        // Charge l'entité cible correspondante
-                        Object relatedEntity = findRelatedEntityById(targetEntity, (Long) foreignKeyValue, targetEntity.getSimpleName());
-
-                        // Associe l'entité cible à l'entité principale (ex: "setUser" pour "user")
-                        String relatedFieldName = getRelatedFieldName(field.getName());
-                        Field relatedField = entity.getClass().getDeclaredField(relatedFieldName);
-                        relatedField.setAccessible(true);
-                        relatedField.set(entity, relatedEntity);
-                    }
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to process foreign key for field: " + field.getName(), e);
-                }
-            }
-        }
+        foreignKeyBindingPlan.bind(entity, entityManager);
     }
 
-    /**
-     * Vérifie si un champ représente une clé étrangère.
-     * Par convention, une clé étrangère est un champ de type Long dont le nom se termine par "Id".
-     *
-     * @param field Le champ à vérifier
-     * @return true si c'est une clé étrangère, sinon false
-     */
-    private boolean isForeignKeyField(Field field) {
-        return field.getType().equals(Long.class) && field.getName().endsWith("Id");
+    // Méthodes existantes...
+    public Optional<OutputDTO> getById(Long id) {
+        return repository.findById(id).map(mapper::toOutputDTO);
     }
 
     /**
-     * Détermine la classe de l'entité cible à partir du nom du champ.
-     * Exemple : "userId" -> User.class
+     * Lit une entité et calcule son ETag à partir de l'entité chargée, sans requête supplémentaire.
      *
-     * @param field Le champ représentant la clé étrangère
-     * @return La classe de l'entité cible
+     * @param id Identifiant de l'entité
+     * @return Le DTO de sortie et son ETag, ou vide si l'entité n'existe pas
      */
-    private Class<?> getTargetEntityFromField(Field field) {
-        String entityName = field.getName().substring(0, field.getName().length() - 2); // Supprime "Id"
-        try {
-            return Class.forName("com.tsp.models." + capitalize(entityName)); // Adaptez le package si nécessaire
-        } catch (ClassNotFoundException e) {
-            throw new IllegalArgumentException("Target entity class not found for field: " + field.getName(), e);
-        }
+    public Optional<ETagged<OutputDTO>> getByIdWithETag(Long id) {
+        return repository.findById(id).map(entity -> new ETagged<>(eTagOf(versionAttribute != null
+                ? ReflectionUtils.getField((Field) versionAttribute.getJavaMember(), entity)
+                : ((GenericEntity) entity).getUpdatedAt()), mapper.toOutputDTO(entity)));
     }
 
     /**
-     * Détermine le nom du champ de relation à partir du nom du champ de clé étrangère.
-     * Exemple : "userId" -> "user"
+     * ETag courant d'une entité, lu par une requête qui ne sélectionne que la version
+     * (ou la date de modification si l'entité n'est pas versionnée) : ni chargement de l'entité, ni conversion en DTO.
      *
-     * @param foreignKeyFieldName Le nom du champ de clé étrangère
-     * @return Le nom du champ de relation correspondant
+     * @param id Identifiant de l'entité
+     * @return L'ETag sans guillemets, ou vide si l'entité n'existe pas
      */
-    private String getRelatedFieldName(String foreignKeyFieldName) {
-        if (foreignKeyFieldName.endsWith("Id")) {
-            return foreignKeyFieldName.substring(0, foreignKeyFieldName.length() - 2);
-        }
-        throw new IllegalArgumentException("Cannot determine related field name for: " + foreignKeyFieldName);
+    @Transactional(readOnly = true)
+    public Optional<String> currentETag(Long id) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = criteriaBuilder.createQuery(Object.class);
+        Root<Entity> root = query.from(entityClass);
+        query.select(root.get(versionAttribute != null ? versionAttribute.getName() : "updatedAt"))
+                .where(criteriaBuilder.equal(root.get("id"), id));
+        return entityManager.createQuery(query).getResultList().stream().findFirst().map(this::eTagOf);
     }
 
     /**
-     * Capitalise une chaîne (ex : "user" -> "User").
+     * ETag des listes et recherches : compteur de modifications de la table, lu avant la requête.
      *
-     * @param str La chaîne à capitaliser
-     * @return La chaîne capitalisée
+     * @return L'ETag sans guillemets
      */
-    private String capitalize(String str) {
-        return str.substring(0, 1).toUpperCase() + str.substring(1);
+    public String collectionETag() {
+        return changeCounters.tag(entityClass);
     }
 
-    // Méthodes existantes...
-    public Optional<OutputDTO> getById(Long id) {
-        return repository.findById(id).map(mapper::toOutputDTO);
+    /**
+     * @param value Version, ou date de dernière modification (voir {@link GenericEntity#now()})
+     * @return L'ETag correspondant
+     */
+    private String eTagOf(Object value) {
+        return String.valueOf(value);
     }
 
     public Iterable<OutputDTO> getAll() {
@@ -150,6 +243,37 @@ public abstract class GenericService<Entity, InputDTO, OutputDTO> {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Parcourt toutes les entités en flux et transmet chaque DTO de sortie au consommateur.
+     * Le contexte de persistance est vidé tous les {@link GenericRepository#STREAM_FETCH_SIZE} éléments
+     * afin que la mémoire reste constante quelle que soit la taille de la table.
+     *
+     * @param consumer Consommateur recevant chaque DTO de sortie dans l'ordre des IDs
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<OutputDTO> consumer) {
+        try (Stream<Entity> entities = repository.streamAll()) {
+            int count = 0;
+            for (Entity entity : (Iterable<Entity>) entities::iterator) {
+                consumer.accept(mapper.toOutputDTO(entity));
+                if (++count % GenericRepository.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear(); // Détache le bloc déjà écrit
+                }
+            }
+        }
+    }
+
+    /**
+     * Met à jour une entité existante à partir d'un DTO d'entrée.
+     * Les valeurs sont appliquées à l'entité chargée (et non à une nouvelle instance) afin que
+     * Hibernate émette un UPDATE et invalide l'entrée correspondante du cache de second niveau.
+     * Les valeurs nulles du DTO sont ignorées.
+     *
+     * @param id  Identifiant de l'entité
+     * @param dto DTO contenant les nouvelles données
+     * @return DTO de sortie correspondant à l'entité mise à jour
+     */
+    @Transactional
     public OutputDTO update(Long id, InputDTO dto) {
         Optional<Entity> existingEntity = repository.findById(id);
         if (existingEntity.isEmpty()) {
@@ -158,18 +282,720 @@ public abstract class GenericService<Entity, InputDTO, OutputDTO> {
 
         Entity updatedEntity = mapper.toEntity(dto);
         processForeignKeys(updatedEntity); // Gère aussi les clés étrangères en mise à jour
-        repository.save(updatedEntity);
-        return mapper.toOutputDTO(updatedEntity);
+        Entity entity = existingEntity.get();
+        copyState(updatedEntity, entity);
+        Entity savedEntity = repository.saveAndFlush(entity); // Flush pour renvoyer la version à jour
+        afterSave(savedEntity);
+        return mapper.toOutputDTO(savedEntity);
+    }
+
+    /**
+     * Met à jour partiellement une entité en une seule requête
+     * {@code UPDATE ... SET <champs fournis> WHERE id = ? AND version = ?}, sans la charger.
+     * Les valeurs sont converties vers le type de chaque attribut et validées (Bean Validation) avant l'envoi ;
+     * une association se modifie par l'ID de l'entité liée (ex : "userId"), dont l'existence est vérifiée
+     * par une requête sur l'ID.
+     * Pour une entité versionnée, la version attendue est obligatoire (clé "version") et la nouvelle version
+     * est calculée sans relire la ligne.
+     *
+     * @param id      Identifiant de l'entité
+     * @param changes Champs à modifier et leur nouvelle valeur, plus la version attendue
+     * @return La nouvelle version, ou vide si l'entité n'existe pas
+     * @throws IllegalArgumentException          Si un champ est inconnu ou non modifiable, une valeur invalide
+     *                                           ou une entité liée inexistante
+     * @throws OptimisticLockingFailureException Si l'entité a été modifiée depuis la version attendue
+     */
+    @Transactional
+    public Optional<PatchResult> patch(Long id, Map<String, Object> changes) {
+        Map<String, Object> values = new LinkedHashMap<>(changes);
+        Long expectedVersion = null;
+        if (versionAttribute != null) {
+            Object version = values.remove(versionAttribute.getName());
+            if (version == null) {
+                throw new IllegalArgumentException("Field '" + versionAttribute.getName() + "' is required to update "
+                        + entityClass.getSimpleName() + ".");
+            }
+            expectedVersion = ((Number) searchCompiler.coerce(versionAttribute.getName(), version)).longValue();
+        }
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("No field to update.");
+        }
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Entity> update = criteriaBuilder.createCriteriaUpdate(entityClass);
+        Root<Entity> root = update.from(entityClass);
+        Map<String, Object> applied = new LinkedHashMap<>();
+        values.forEach((field, rawValue) -> {
+            SingularAttribute<? super Entity, ?> attribute = patchableAttributes.get(field);
+            if (attribute == null) {
+                throw new IllegalArgumentException("Field '" + field + "' of " + entityClass.getSimpleName() + " cannot be updated.");
+            }
+            Object value = searchCompiler.coerce(field, rawValue);
+            if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+                Set<? extends ConstraintViolation<Entity>> violations = validator.validateValue(entityClass, attribute.getName(), value);
+                if (!violations.isEmpty()) {
+                    throw new IllegalArgumentException("Invalid value for field '" + field + "': " + violations.iterator().next().getMessage());
+                }
+            } else if (value != null) {
+                // Vérifiée ici : une référence vers une entité absente ne serait rejetée qu'à la validation (erreur 500)
+                if (!exists(attribute.getJavaType(), value)) {
+                    throw new IllegalArgumentException(attribute.getJavaType().getSimpleName() + " with ID " + value + " not found.");
+                }
+                value = entityManager.getReference(attribute.getJavaType(), value); // Référence : aucune requête
+            }
+            update.set(root.get(attribute.getName()), value);
+            applied.put(attribute.getName(), value);
+        });
+        update.set(root.<LocalDateTime>get("updatedAt"), GenericEntity.now());
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(criteriaBuilder.equal(root.get("id"), id));
+        predicates.add(criteriaBuilder.isFalse(root.<Boolean>get("deleted")));
+        if (versionAttribute != null) {
+            Path<Long> version = root.get(versionAttribute.getName());
+            predicates.add(criteriaBuilder.equal(version, expectedVersion));
+            update.set(version, criteriaBuilder.sum(version, 1L));
+        }
+        update.where(predicates.toArray(Predicate[]::new));
+
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            // Échec uniquement : une seconde requête distingue l'entité absente du conflit de version
+            if (!repository.existsById(id)) {
+                return Optional.empty();
+            }
+            throw new OptimisticLockingFailureException(entityClass.getSimpleName() + " " + id
+                    + " was modified since version " + expectedVersion + ".");
+        }
+        Long newVersion = expectedVersion != null ? expectedVersion + 1 : null;
+        changeCounters.incrementAfterCommit(entityClass);
+        afterPatch(id, applied, expectedVersion, newVersion);
+        return Optional.of(new PatchResult(id, newVersion));
+    }
+
+    /**
+     * Crée un lot d'entités dans une seule transaction.
+     * Les clés étrangères de tout le lot sont vérifiées en une requête IN par entité cible,
+     * puis les insertions sont envoyées par lots JDBC.
+     * Un élément invalide (mapping impossible, contrainte de validation non respectée, clé étrangère inexistante)
+     * est rejeté sans bloquer les autres ; une erreur de la base lors de l'écriture annule tout le lot.
+     *
+     * @param dtos DTOs des entités à créer
+     * @return Un résultat par élément, dans l'ordre reçu
+     */
+    @Transactional
+    public List<BatchResult<OutputDTO>> createAll(List<InputDTO> dtos) {
+        List<BatchResult<OutputDTO>> results = new ArrayList<>(Collections.nCopies(dtos.size(), null));
+        Map<Integer, Entity> entities = mapBatch(dtos, results);
+        Map<Class<?>, Set<Object>> existingKeys = foreignKeyBindingPlan.loadExistingKeys(new ArrayList<>(entities.values()), entityManager);
+
+        Map<Integer, Entity> pending = new HashMap<>();
+        entities.forEach((index, entity) -> {
+            String error = validationError(entity, false);
+            if (error == null) {
+                error = foreignKeyBindingPlan.findMissingKey(entity, existingKeys);
+            }
+            if (error != null) {
+                results.set(index, BatchResult.failure(index, error));
+                return;
+            }
+            processForeignKeys(entity);
+            entityManager.persist(entity);
+            pending.put(index, entity);
+            if (pending.size() >= batchSize) {
+                flushBatch(pending, results);
+            }
+        });
+        flushBatch(pending, results);
+        return results;
+    }
+
+    /**
+     * Met à jour un lot d'entités dans une seule transaction.
+     * Les clés étrangères du lot et les entités existantes de chaque bloc sont chargées en requêtes IN,
+     * puis les mises à jour sont envoyées par lots JDBC.
+     * Les valeurs nulles du DTO sont ignorées : les champs correspondants gardent leur valeur actuelle.
+     * Les valeurs fournies sont validées avant d'être copiées ; un élément invalide est rejeté sans bloquer les autres.
+     *
+     * @param items Paires (ID, DTO) des entités à mettre à jour
+     * @return Un résultat par élément, dans l'ordre reçu
+     */
+    @Transactional
+    public List<BatchResult<OutputDTO>> updateAll(List<BatchItem<InputDTO>> items) {
+        List<BatchResult<OutputDTO>> results = new ArrayList<>(Collections.nCopies(items.size(), null));
+        Map<Integer, Entity> entities = mapBatch(items.stream().map(BatchItem::data).toList(), results);
+        Map<Class<?>, Set<Object>> existingKeys = foreignKeyBindingPlan.loadExistingKeys(new ArrayList<>(entities.values()), entityManager);
+
+        // Traitement par blocs : le contexte de persistance étant vidé après chaque bloc,
+        // les entités à modifier sont chargées bloc par bloc (une requête IN par bloc)
+        List<Integer> indexes = new ArrayList<>(entities.keySet());
+        Map<Integer, Entity> pending = new HashMap<>();
+        for (int from = 0; from < indexes.size(); from += batchSize) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + batchSize, indexes.size()));
+            Map<Long, Entity> managedById = loadAllById(chunk.stream().map(index -> items.get(index).id()).toList());
+            for (Integer index : chunk) {
+                Entity entity = entities.get(index);
+                Long id = items.get(index).id();
+                Entity managed = id != null ? managedById.get(id) : null;
+                String error = managed == null
+                        ? "Entity with ID " + id + " not found."
+                        : validationError(entity, true);
+                if (error == null) {
+                    error = foreignKeyBindingPlan.findMissingKey(entity, existingKeys);
+                }
+                if (error != null) {
+                    results.set(index, BatchResult.failure(index, error));
+                    continue;
+                }
+                processForeignKeys(entity);
+                copyState(entity, managed);
+                pending.put(index, managed);
+            }
+            flushBatch(pending, results);
+        }
+        return results;
+    }
+
+    /**
+     * Convertit les DTOs d'un lot en entités ; les éléments non convertibles sont marqués en erreur.
+     *
+     * @param dtos    DTOs reçus
+     * @param results Résultats du lot, complétés pour les éléments en erreur
+     * @return Les entités converties, indexées par leur position dans le lot
+     */
+    private Map<Integer, Entity> mapBatch(List<InputDTO> dtos, List<BatchResult<OutputDTO>> results) {
+        Map<Integer, Entity> entities = new LinkedHashMap<>();
+        for (int index = 0; index < dtos.size(); index++) {
+            try {
+                entities.put(index, mapper.toEntity(dtos.get(index)));
+            } catch (RuntimeException e) {
+                results.set(index, BatchResult.failure(index, e.getMessage()));
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Valide un élément de lot avant son écriture : une violation détectée seulement par Hibernate au flush
+     * annulerait tout le lot.
+     *
+     * @param entity  Entité construite à partir du DTO
+     * @param partial true pour une mise à jour : seules les valeurs non nulles, qui seront copiées, sont validées
+     * @return Le message de la première violation, ou null si l'entité est valide
+     */
+    private String validationError(Entity entity, boolean partial) {
+        Set<? extends ConstraintViolation<Entity>> violations;
+        if (partial) {
+            Set<ConstraintViolation<Entity>> found = new HashSet<>();
+            for (Field field : getUpdatableFields()) {
+                Object value = ReflectionUtils.getField(field, entity);
+                if (value != null) {
+                    found.addAll(validator.validateValue(entityClass, field.getName(), value));
+                }
+            }
+            violations = found;
+        } else {
+            violations = validator.validate(entity);
+        }
+        if (violations.isEmpty()) {
+            return null;
+        }
+        ConstraintViolation<Entity> violation = violations.stream()
+                .min(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                .orElseThrow();
+        return "Invalid value for field '" + violation.getPropertyPath() + "': " + violation.getMessage();
+    }
+
+    /**
+     * Envoie les écritures en attente par lots JDBC, convertit les entités écrites en DTOs de sortie
+     * (avec leur version à jour) puis vide le contexte de persistance.
+     *
+     * @param pending Entités en attente, indexées par leur position dans le lot
+     * @param results Résultats du lot à compléter
+     */
+    private void flushBatch(Map<Integer, Entity> pending, List<BatchResult<OutputDTO>> results) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        pending.forEach((index, entity) -> {
+            afterSave(entity);
+            results.set(index, BatchResult.success(index, mapper.toOutputDTO(entity)));
+        });
+        entityManager.clear();
+        pending.clear();
+    }
+
+    /**
+     * Charge des entités par leurs IDs en une requête IN.
+     *
+     * @param ids IDs à charger (au plus la taille d'un lot)
+     * @return Les entités trouvées, indexées par ID
+     */
+    private Map<Long, Entity> loadAllById(List<Long> ids) {
+        Map<Long, Entity> byId = new HashMap<>();
+        for (Entity entity : repository.findAllById(ids.stream().filter(Objects::nonNull).distinct().toList())) {
+            byId.put(idOf(entity), entity);
+        }
+        return byId;
+    }
+
+    /**
+     * Copie les valeurs non nulles des attributs persistants d'une entité vers une entité existante,
+     * hors ID, version et colonnes techniques de {@link GenericEntity}.
+     *
+     * @param source Entité construite à partir du DTO
+     * @param target Entité gérée à mettre à jour
+     */
+    private void copyState(Entity source, Entity target) {
+        for (Field field : getUpdatableFields()) {
+            Object value = ReflectionUtils.getField(field, source);
+            if (value != null) {
+                ReflectionUtils.setField(field, target, value);
+            }
+        }
+    }
+
+    /**
+     * @return Les champs modifiables par une mise à jour, calculés une fois depuis le métamodèle JPA
+     */
+    private List<Field> getUpdatableFields() {
+        List<Field> fields = updatableFields;
+        if (fields == null) {
+            fields = new ArrayList<>();
+            for (SingularAttribute<? super Entity, ?> attribute : entityManager.getMetamodel().entity(entityClass).getSingularAttributes()) {
+                if (attribute.isId() || attribute.isVersion()
+                        || attribute.getDeclaringType().getJavaType().equals(GenericEntity.class)
+                        || !(attribute.getJavaMember() instanceof Field field)) {
+                    continue;
+                }
+                ReflectionUtils.makeAccessible(field);
+                fields.add(field);
+            }
+            updatableFields = fields = List.copyOf(fields);
+        }
+        return fields;
     }
 
+    /**
+     * Supprime logiquement une entité (une seule requête UPDATE).
+     * L'entité disparaît de toutes les lectures ; la ligne est supprimée physiquement par la purge.
+     *
+     * @param id Identifiant de l'entité
+     */
+    @Transactional
     public void delete(Long id) {
-        repository.deleteById(id);
+        repository.softDeleteById(id, GenericEntity.now());
+        changeCounters.incrementAfterCommit(entityClass);
+        afterDelete(id);
+    }
+
+    /**
+     * Appelée après chaque écriture (création, mise à jour, lot) d'une entité.
+     * Met à jour l'index plein texte de l'entité s'il existe, après la validation de la transaction ;
+     * une sous-classe qui la redéfinit doit appeler super.
+     *
+     * @param entity L'entité écrite
+     */
+    protected void afterSave(Entity entity) {
+        InvertedIndex index = fullTextIndex();
+        if (index != null) {
+            Long id = idOf(entity);
+            Map<String, String> document = fullTextDocument(entity); // Lu maintenant, appliqué après la validation
+            indexAfterCommit(() -> index.put(id, document));
+        }
+    }
+
+    /**
+     * Appelée après une mise à jour partielle ({@link #patch}), qui ne passe pas par les événements Hibernate.
+     * Met à jour l'index plein texte si un champ indexé a changé, après la validation de la transaction ;
+     * l'entité n'est relue que si le PATCH ne fournit pas tous les champs indexés.
+     * Une sous-classe qui la redéfinit doit appeler super.
+     *
+     * @param id         Identifiant de l'entité
+     * @param values     Valeurs appliquées, par nom d'attribut
+     * @param oldVersion Version avant la mise à jour (null si l'entité n'est pas versionnée)
+     * @param newVersion Version après la mise à jour
+     */
+    protected void afterPatch(Long id, Map<String, Object> values, Long oldVersion, Long newVersion) {
+        InvertedIndex index = fullTextIndex();
+        if (index == null || Collections.disjoint(index.fields(), values.keySet())) {
+            return;
+        }
+        if (values.keySet().containsAll(index.fields())) {
+            Map<String, String> document = new HashMap<>();
+            index.fields().forEach(field -> document.put(field, Objects.toString(values.get(field), null)));
+            indexAfterCommit(() -> index.put(id, document));
+        } else {
+            repository.findById(id).map(this::fullTextDocument)
+                    .ifPresent(document -> indexAfterCommit(() -> index.put(id, document)));
+        }
+    }
+
+    /**
+     * Appelée après la suppression d'une entité.
+     * Retire l'entité de l'index plein texte s'il existe, après la validation de la transaction ;
+     * une sous-classe qui la redéfinit doit appeler super.
+     *
+     * @param id Identifiant de l'entité supprimée
+     */
+    protected void afterDelete(Long id) {
+        InvertedIndex index = fullTextIndex();
+        if (index != null) {
+            indexAfterCommit(() -> index.remove(id));
+        }
+    }
+
+    /**
+     * Retire de l'index plein texte, après la validation de la transaction, des entités supprimées
+     * par une requête faite hors de ce service (ex : les tâches d'un utilisateur supprimé).
+     *
+     * @param ids Identifiants des entités supprimées
+     */
+    public void removeFromFullTextIndexAfterCommit(Collection<Long> ids) {
+        InvertedIndex index = fullTextIndex();
+        if (index != null && !ids.isEmpty()) {
+            indexAfterCommit(() -> ids.forEach(index::remove));
+        }
+    }
+
+    /**
+     * Applique une modification de l'index plein texte après la validation de la transaction en cours
+     * (immédiatement hors transaction) : une transaction annulée ne laisse pas l'index en avance sur la base.
+     *
+     * @param change Modification de l'index
+     */
+    private void indexAfterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    /**
+     * Index plein texte de l'entité. Par défaut aucun : la recherche globale utilise LIKE.
+     *
+     * @return L'index, ou null si l'entité n'est pas indexée
+     */
+    protected InvertedIndex fullTextIndex() {
+        return null;
+    }
+
+    /**
+     * Texte à indexer pour une entité, par champ (doit couvrir les champs de {@link #fullTextIndex()}).
+     *
+     * @param entity L'entité
+     * @return Le texte de chaque champ indexé
+     */
+    protected Map<String, String> fullTextDocument(Entity entity) {
+        return Map.of();
+    }
+
+    /**
+     * Reconstruit l'index plein texte en arrière-plan au démarrage de l'application.
+     * Tant que la reconstruction n'est pas terminée, la recherche globale utilise LIKE.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFullTextIndexOnStartup() {
+        if (fullTextIndex() != null) {
+            Thread thread = new Thread(this::rebuildFullTextIndex, entityClass.getSimpleName().toLowerCase() + "-index-rebuild");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Reconstruit l'index plein texte à partir de la base, en lisant les entités en flux.
+     */
+    public void rebuildFullTextIndex() {
+        InvertedIndex index = fullTextIndex();
+        if (index == null) {
+            return;
+        }
+        index.clear();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<Entity> entities = repository.streamAll()) {
+                int count = 0;
+                for (Entity entity : (Iterable<Entity>) entities::iterator) {
+                    index.put(idOf(entity), fullTextDocument(entity));
+                    if (++count % GenericRepository.STREAM_FETCH_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+        });
+        index.setReady(true);
+    }
+
+    /**
+     * Indique si une recherche globale peut être servie par l'index plein texte :
+     * l'index existe, est prêt, et couvre tous les champs recherchés.
+     *
+     * @param searchTerm       Terme global de recherche
+     * @param searchableFields Champs de la recherche globale
+     * @return true si l'index peut être utilisé
+     */
+    public boolean canUseFullTextIndex(String searchTerm, List<String> searchableFields) {
+        InvertedIndex index = fullTextIndex();
+        return index != null && index.isReady()
+                && searchTerm != null && !searchTerm.isBlank()
+                && searchableFields != null && !searchableFields.isEmpty()
+                && index.fields().containsAll(searchableFields);
+    }
+
+    /**
+     * Recherche plein texte classée par pertinence : l'index fournit tous les IDs correspondants triés,
+     * puis seule la page demandée est chargée. Sans filtre, la base n'est interrogée que pour cette page
+     * et le total est le nombre de correspondances de l'index.
+     * Avec des filtres, la base les applique par lots d'IDs dans l'ordre de pertinence (requêtes sur les IDs uniquement),
+     * jusqu'à trouver une ligne de plus que la fin de la page : le total est alors une borne inférieure
+     * (fin de page + 1, de sorte qu'une page suivante est annoncée), exact si tous les candidats ont été filtrés.
+     * Chaque mot du terme est recherché comme préfixe dans les seuls champs demandés ; tous les mots doivent être présents.
+     *
+     * @param searchTerm       Terme global de recherche
+     * @param searchableFields Champs de la recherche globale (tous les champs indexés si null)
+     * @param filters          Filtres spécifiques
+     * @param pageable         Page demandée
+     * @return Une page de DTOs de sortie, triée par pertinence
+     */
+    @Transactional(readOnly = true)
+    public Page<OutputDTO> searchFullText(String searchTerm, List<String> searchableFields, Map<String, Object> filters, Pageable pageable) {
+        InvertedIndex index = fullTextIndex();
+        List<Long> ranked = index.search(searchTerm, searchableFields != null ? searchableFields : index.fields(), Integer.MAX_VALUE);
+        if (ranked.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        List<Long> ordered = filters == null || filters.isEmpty()
+                ? ranked // L'index suit les écritures validées : aucune vérification en base
+                : filterRanked(ranked, filters, pageable.getOffset() + pageable.getPageSize() + 1);
+
+        int from = (int) Math.min(pageable.getOffset(), ordered.size());
+        List<Long> pageIds = ordered.subList(from, Math.min(from + pageable.getPageSize(), ordered.size()));
+        Map<Long, Entity> byId = loadAllById(pageIds);
+        List<OutputDTO> content = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(mapper::toOutputDTO)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ordered.size());
+    }
+
+    /**
+     * Applique les filtres en base aux IDs classés, par lots, en s'arrêtant dès que {@code needed} IDs sont retenus.
+     *
+     * @param ranked  IDs classés par pertinence
+     * @param filters Filtres spécifiques
+     * @param needed  Nombre d'IDs retenus au-delà duquel les candidats suivants ne sont pas filtrés
+     * @return Les IDs retenus, dans l'ordre de pertinence
+     */
+    private List<Long> filterRanked(List<Long> ranked, Map<String, Object> filters, long needed) {
+        Specification<Entity> filterSpec = buildSearchSpecification(null, null, filters);
+        List<Long> ordered = new ArrayList<>();
+        for (int start = 0; start < ranked.size() && ordered.size() < needed; start += FULL_TEXT_FILTER_CHUNK) {
+            List<Long> chunk = ranked.subList(start, Math.min(start + FULL_TEXT_FILTER_CHUNK, ranked.size()));
+            Specification<Entity> spec = filterSpec.and((root, query, criteriaBuilder) -> root.get("id").in(chunk));
+            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Long> idQuery = criteriaBuilder.createQuery(Long.class);
+            Root<Entity> root = idQuery.from(entityClass);
+            idQuery.select(root.get("id")).where(spec.toPredicate(root, idQuery, criteriaBuilder));
+            Set<Long> matching = new HashSet<>(entityManager.createQuery(idQuery).getResultList());
+            chunk.stream().filter(matching::contains).forEach(ordered::add); // Ordre de pertinence conservé
+        }
+        return ordered.size() > needed ? ordered.subList(0, (int) needed) : ordered;
+    }
+
+    /**
+     * Vérifie l'existence d'une entité par une requête sur son ID (les entités supprimées logiquement sont exclues).
+     *
+     * @param entityType Type de l'entité
+     * @param id         Identifiant recherché
+     * @return true si l'entité existe
+     */
+    private boolean exists(Class<?> entityType, Object id) {
+        String jpql = "select count(e) from " + entityManager.getMetamodel().entity(entityType).getName() + " e where e.id = :id";
+        return entityManager.createQuery(jpql, Long.class).setParameter("id", id).getSingleResult() > 0;
+    }
+
+    /**
+     * @param entity Une entité
+     * @return Son identifiant
+     */
+    private Long idOf(Entity entity) {
+        return (Long) entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
     }
 
     public Page<OutputDTO> search(Specification<Entity> spec, Pageable pageable) {
         return repository.findAll(spec, pageable).map(mapper::toOutputDTO);
     }
 
+    /**
+     * Recherche paginée par OFFSET sans requête COUNT(*) : une ligne de plus que la taille de page
+     * est lue pour savoir s'il existe une page suivante.
+     *
+     * @param spec     Spécification de recherche
+     * @param pageable Page demandée
+     * @return Une tranche de DTOs de sortie, sans total
+     */
+    @Transactional(readOnly = true)
+    public Slice<OutputDTO> searchSlice(Specification<Entity> spec, Pageable pageable) {
+        List<Entity> rows = fetchWindow(spec, pageable.getSort(), (int) pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<OutputDTO> content = rows.stream()
+                .limit(pageable.getPageSize())
+                .map(mapper::toOutputDTO)
+                .collect(Collectors.toList());
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * Recherche paginée par curseur (keyset) : au lieu d'un OFFSET, un prédicat de positionnement
+     * {@code (champ, id) > (dernière valeur, dernier id)} est ajouté, ce qui garde une latence constante
+     * quelle que soit la profondeur de la page. Aucun COUNT(*) n'est exécuté.
+     * <p>
+     * Le champ de tri peut être facultatif (ex : "dueDate") : les valeurs nulles sont placées en tête d'un tri ascendant
+     * et en fin d'un tri descendant.
+     *
+     * @param spec          Spécification de recherche
+     * @param sortField     Champ de tri (ignoré si un curseur est fourni, "id" par défaut)
+     * @param sortDirection Sens du tri, "ASC" ou "DESC" (ignoré si un curseur est fourni)
+     * @param cursor        Jeton renvoyé par la tranche précédente, ou null pour la première tranche
+     * @param size          Nombre d'éléments par tranche
+     * @return Une tranche de DTOs de sortie avec le curseur de la tranche suivante
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<OutputDTO> searchKeyset(Specification<Entity> spec, String sortField, String sortDirection, String cursor, int size) {
+        KeysetCursor position = cursor != null ? KeysetCursor.decode(cursor) : null;
+        String field = position != null ? position.sortField() : (sortField != null ? sortField : "id");
+        Sort.Direction direction = position != null ? position.direction() : Sort.Direction.fromString(sortDirection);
+        searchCompiler.typeOf(field); // Rejette un champ de tri inconnu avant la requête
+
+        Sort sort = Sort.by(direction, field);
+        if (!"id".equals(field)) {
+            sort = sort.and(Sort.by(direction, "id")); // L'ID départage les valeurs égales
+        }
+
+        Specification<Entity> effectiveSpec = position != null ? spec.and(seekSpecification(position)) : spec;
+        List<Entity> rows = fetchWindow(effectiveSpec, sort, 0, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<Entity> page = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Entity last = page.get(page.size() - 1);
+            Object value = readAttribute(last, field);
+            nextCursor = new KeysetCursor(field, direction, idOf(last), value != null ? String.valueOf(value) : null).encode();
+        }
+
+        List<OutputDTO> content = page.stream().map(mapper::toOutputDTO).collect(Collectors.toList());
+        return new KeysetSlice<>(content, PageRequest.of(0, size, sort), hasNext, nextCursor);
+    }
+
+    /**
+     * Construit le prédicat de positionnement d'un curseur :
+     * {@code champ >= valeur AND (champ > valeur OR id > dernierId)} (inversé pour un tri descendant).
+     * Équivalent à {@code champ > valeur OR (champ = valeur AND id > dernierId)}, mais la borne {@code champ >= valeur}
+     * en tête permet à la base de démarrer la lecture dans l'index du champ au lieu de le parcourir depuis le début.
+     * <p>
+     * Les valeurs nulles d'un champ facultatif sont les plus petites (voir {@link #fetchWindow}) : en tête d'un tri
+     * ascendant, en fin d'un tri descendant. Un curseur arrêté sur une valeur nulle reprend donc par
+     * {@code champ IS NULL AND id > dernierId}, suivi des valeurs non nulles en ordre ascendant ;
+     * en ordre descendant, les valeurs nulles suivent toute valeur non nulle.
+     *
+     * @param position Curseur décodé
+     * @return Spécification de positionnement
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Specification<Entity> seekSpecification(KeysetCursor position) {
+        return (root, query, criteriaBuilder) -> {
+            boolean ascending = position.direction().isAscending();
+            Path<Long> idPath = root.get("id");
+            Predicate afterId = ascending
+                    ? criteriaBuilder.greaterThan(idPath, position.id())
+                    : criteriaBuilder.lessThan(idPath, position.id());
+            if ("id".equals(position.sortField())) {
+                return afterId;
+            }
+
+            Path<Comparable> sortPath = root.get(position.sortField());
+            if (position.value() == null) {
+                Predicate afterNull = criteriaBuilder.and(criteriaBuilder.isNull(sortPath), afterId);
+                return ascending ? criteriaBuilder.or(afterNull, criteriaBuilder.isNotNull(sortPath)) : afterNull;
+            }
+            Comparable value = (Comparable) searchCompiler.coerce(position.sortField(), position.value());
+            Predicate fromValue = ascending
+                    ? criteriaBuilder.greaterThanOrEqualTo(sortPath, value)
+                    : criteriaBuilder.lessThanOrEqualTo(sortPath, value);
+            Predicate afterValue = ascending
+                    ? criteriaBuilder.greaterThan(sortPath, value)
+                    : criteriaBuilder.lessThan(sortPath, value);
+            Predicate seek = criteriaBuilder.and(fromValue, criteriaBuilder.or(afterValue, afterId));
+            if (!ascending && isOptional(position.sortField())) {
+                return criteriaBuilder.or(seek, criteriaBuilder.isNull(sortPath)); // Valeurs nulles en fin de tri
+            }
+            return seek;
+        };
+    }
+
+    /**
+     * @param attribute Nom d'un attribut de l'entité
+     * @return true si l'attribut peut être nul
+     */
+    private boolean isOptional(String attribute) {
+        return entityManager.getMetamodel().entity(entityClass).getSingularAttribute(attribute).isOptional();
+    }
+
+    /**
+     * Exécute une spécification en lisant une fenêtre de lignes, sans requête COUNT(*).
+     * Les valeurs nulles sont triées comme les plus petites (en tête d'un tri ascendant, en fin d'un tri descendant),
+     * ordre natif de SQL Server et de H2 : la position des lignes à valeur nulle ne dépend pas de la base.
+     *
+     * @param spec   Spécification de recherche
+     * @param sort   Tri à appliquer
+     * @param offset Nombre de lignes à ignorer
+     * @param limit  Nombre maximal de lignes à lire
+     * @return Les entités de la fenêtre
+     */
+    private List<Entity> fetchWindow(Specification<Entity> spec, Sort sort, int offset, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Entity> query = criteriaBuilder.createQuery(entityClass);
+        Root<Entity> root = query.from(entityClass);
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder).stream()
+                .<Order>map(order -> ((JpaOrder) order).nullPrecedence(order.isAscending() ? NullPrecedence.FIRST : NullPrecedence.LAST))
+                .collect(Collectors.toList()));
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Lit la valeur d'un attribut persistant d'une entité via le métamodèle JPA.
+     *
+     * @param entity    L'entité
+     * @param attribute Nom de l'attribut
+     * @return La valeur de l'attribut
+     */
+    private Object readAttribute(Entity entity, String attribute) {
+        Member member = entityManager.getMetamodel().entity(entityClass).getAttribute(attribute).getJavaMember();
+        if (!(member instanceof Field field)) {
+            throw new IllegalArgumentException("Unsupported attribute access for: " + attribute);
+        }
+        ReflectionUtils.makeAccessible(field);
+        return ReflectionUtils.getField(field, entity);
+    }
+
     protected <R> R findRelatedEntityById(Class<R> entityType, Long id, String entityName) {
         if (id == null) {
             throw new IllegalArgumentException(entityName + " ID cannot be null.");
@@ -179,48 +1005,16 @@ public abstract class GenericService<Entity, InputDTO, OutputDTO> {
 
     /**
      * Construit une spécification de recherche basée sur un terme global, des champs spécifiques et des filtres.
+     * Les champs sont validés et les valeurs converties immédiatement : une recherche invalide est rejetée
+     * avant toute requête.
      *
      * @param searchTerm       Terme global de recherche
      * @param searchableFields Champs dans lesquels effectuer la recherche globale
      * @param filters          Map de filtres spécifiques
      * @return Spécification combinant recherche globale et filtres
+     * @throws IllegalArgumentException Si un champ est inconnu ou une valeur de filtre invalide
      */
     public Specification<Entity> buildSearchSpecification(String searchTerm, List<String> searchableFields, Map<String, Object> filters) {
-        return (root, query, criteriaBuilder) -> {
-            // Recherche globale : crée un prédicat de type OR
-            Predicate globalSearchPredicate = criteriaBuilder.conjunction();
-            if (searchTerm != null && !searchTerm.trim().isEmpty() && searchableFields != null && !searchableFields.isEmpty()) {
-                globalSearchPredicate = criteriaBuilder.or(
-                        searchableFields.stream()
-                                .map(field -> criteriaBuilder.like(
-                                        criteriaBuilder.lower(root.get(field)), // Champ recherché (en minuscules)
-                                        "%" + searchTerm.toLowerCase() + "%" // Terme recherché entouré de wildcards
-                                ))
-                                .toArray(Predicate[]::new)
-                );
-            }
-
-            // Filtres spécifiques : crée un prédicat de type AND
-            Predicate filterPredicate = criteriaBuilder.conjunction();
-            if (filters != null && !filters.isEmpty()) {
-                filterPredicate = criteriaBuilder.and(
-                        filters.entrySet().stream()
-                                .filter(entry -> {
-                                    // Vérifie si l'attribut existe dans l'entité pour éviter les erreurs
-                                    try {
-                                        root.get(entry.getKey());
-                                        return true;
-                                    } catch (IllegalArgumentException e) {
-                                        return false; // Attribut inexistant
-                                    }
-                                })
-                                .map(entry -> criteriaBuilder.equal(root.get(entry.getKey()), entry.getValue())) // Condition exacte
-                                .toArray(Predicate[]::new)
-                );
-            }
-
-            // Combine les prédicats de recherche globale et de filtres
-            return criteriaBuilder.and(globalSearchPredicate, filterPredicate);
-        };
+        return searchCompiler.compile(searchTerm, searchableFields, filters);
     }
 }
@@ -0,0 +1,50 @@
+package com.generic;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position de lecture d'une pagination par curseur : dernière valeur vue du champ de tri et dernier ID vu.
+ * Encodée en Base64 URL pour être transmise au client comme un jeton opaque.
+ *
+ * @param sortField Champ de tri
+ * @param direction Sens du tri
+ * @param id        ID de la dernière entité renvoyée (départage les valeurs égales)
+ * @param value     Valeur du champ de tri de la dernière entité renvoyée, sous forme textuelle (null si elle est nulle)
+ */
+public record KeysetCursor(String sortField, Sort.Direction direction, Long id, String value) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * @return Le jeton opaque représentant ce curseur
+     */
+    public String encode() {
+        String raw = sortField + SEPARATOR + direction.name() + SEPARATOR + id;
+        if (value != null) {
+            raw += SEPARATOR + value; // Valeur nulle : champ absent, distinct de la chaîne "null"
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un jeton produit par {@link #encode()}.
+     *
+     * @param token Jeton opaque reçu du client
+     * @return Le curseur correspondant
+     * @throws IllegalArgumentException Si le jeton est invalide
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // La valeur est en dernière position : elle peut elle-même contenir le séparateur
+            String[] parts = raw.split("\\|", 4);
+            return new KeysetCursor(parts[0], Sort.Direction.valueOf(parts[1]), Long.valueOf(parts[2]),
+                    parts.length > 3 ? parts[3] : null);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
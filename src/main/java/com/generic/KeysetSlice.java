@@ -0,0 +1,30 @@
+package com.generic;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * Tranche de résultats obtenue par pagination par curseur (keyset).
+ * Ne contient pas de total : seul le jeton {@code nextCursor} permet de demander la tranche suivante.
+ *
+ * @param <T> Type des éléments
+ */
+public class KeysetSlice<T> extends SliceImpl<T> {
+
+    private final String nextCursor;
+
+    public KeysetSlice(List<T> content, Pageable pageable, boolean hasNext, String nextCursor) {
+        super(content, pageable, hasNext);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return Jeton opaque à renvoyer dans {@code SearchRequest.cursor} pour obtenir la tranche suivante,
+     * ou null s'il n'y a plus de résultats
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
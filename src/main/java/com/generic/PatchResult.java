@@ -0,0 +1,10 @@
+package com.generic;
+
+/**
+ * Résultat d'une mise à jour partielle : la nouvelle version est calculée sans relire la ligne.
+ *
+ * @param id      Identifiant de l'entité modifiée
+ * @param version Nouvelle version, ou null si l'entité n'est pas versionnée
+ */
+public record PatchResult(Long id, Long version) {
+}
@@ -0,0 +1,245 @@
+package com.generic;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.IdentifiableType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compilateur des spécifications de recherche d'une entité.
+ * Les noms de champs sont résolus une seule fois à partir du métamodèle JPA : un champ inconnu est rejeté
+ * avant l'exécution de la requête, et chaque valeur de filtre est convertie vers le type de l'attribut
+ * (énumérations, dates, nombres...).
+ * La forme compilée d'une recherche (champs recherchés et filtrés) est mise en cache : deux recherches de
+ * même forme produisent la même requête paramétrée, dont Hibernate réutilise le plan.
+ *
+ * @param <Entity> Type de l'entité
+ */
+final class SearchSpecificationCompiler<Entity> {
+
+    /**
+     * Nombre maximal de formes de recherche conservées en cache.
+     */
+    private static final int MAX_CACHED_SHAPES = 1024;
+
+    /**
+     * Chemin résolu d'un champ recherchable ou filtrable.
+     *
+     * @param name     Nom de l'attribut dans l'entité
+     * @param idName   Nom de l'ID de l'entité liée pour une association (ex : user -> id), sinon null
+     * @param javaType Type Java attendu pour les valeurs
+     */
+    private record ResolvedPath(String name, String idName, Class<?> javaType) {
+
+        @SuppressWarnings("unchecked")
+        <T> Path<T> from(Root<?> root) {
+            Path<Object> path = root.get(name);
+            return (Path<T>) (idName != null ? path.get(idName) : path);
+        }
+    }
+
+    /**
+     * Clé d'une forme de recherche normalisée (ordre des champs indifférent).
+     */
+    private record ShapeKey(boolean globalSearch, List<String> searchableFields, List<String> filterKeys) {
+    }
+
+    /**
+     * Forme de recherche compilée : chemins résolus des champs recherchés et filtrés.
+     */
+    private record CompiledShape(List<ResolvedPath> searchPaths, Map<String, ResolvedPath> filterPaths) {
+    }
+
+    private final Class<Entity> entityClass;
+    private final Map<String, ResolvedPath> paths;
+    private final Map<ShapeKey, CompiledShape> shapes = new ConcurrentHashMap<>();
+
+    SearchSpecificationCompiler(Metamodel metamodel, Class<Entity> entityClass) {
+        this.entityClass = entityClass;
+        this.paths = resolvePaths(metamodel.entity(entityClass));
+    }
+
+    /**
+     * Résout les chemins filtrables d'une entité : attributs simples, et associations vers une entité
+     * (filtrées par l'ID de l'entité liée, sous leur nom ou avec le suffixe "Id", ex : "user" ou "userId").
+     *
+     * @param entityType Type de l'entité dans le métamodèle
+     * @return Les chemins résolus, indexés par nom de champ
+     */
+    private static Map<String, ResolvedPath> resolvePaths(EntityType<?> entityType) {
+        Map<String, ResolvedPath> resolved = new HashMap<>();
+        for (SingularAttribute<?, ?> attribute : entityType.getSingularAttributes()) {
+            switch (attribute.getPersistentAttributeType()) {
+                case BASIC -> resolved.put(attribute.getName(),
+                        new ResolvedPath(attribute.getName(), null, attribute.getJavaType()));
+                case MANY_TO_ONE, ONE_TO_ONE -> {
+                    if (attribute.getType() instanceof IdentifiableType<?> target && target.hasSingleIdAttribute()) {
+                        SingularAttribute<?, ?> id = target.getId(target.getIdType().getJavaType());
+                        ResolvedPath path = new ResolvedPath(attribute.getName(), id.getName(), id.getJavaType());
+                        resolved.put(attribute.getName(), path);
+                        resolved.putIfAbsent(attribute.getName() + "Id", path);
+                    }
+                }
+                default -> {
+                    // Attributs embarqués : non filtrables
+                }
+            }
+        }
+        return Map.copyOf(resolved);
+    }
+
+    /**
+     * Compile une recherche en spécification.
+     *
+     * @param searchTerm       Terme global de recherche
+     * @param searchableFields Champs texte dans lesquels effectuer la recherche globale
+     * @param filters          Filtres d'égalité par champ
+     * @return Spécification combinant recherche globale (OR) et filtres (AND)
+     * @throws IllegalArgumentException Si un champ est inconnu, non textuel pour la recherche globale,
+     *                                  ou si une valeur de filtre n'est pas convertible
+     */
+    Specification<Entity> compile(String searchTerm, List<String> searchableFields, Map<String, Object> filters) {
+        boolean globalSearch = searchTerm != null && !searchTerm.trim().isEmpty()
+                && searchableFields != null && !searchableFields.isEmpty();
+        CompiledShape shape = shapeFor(globalSearch, globalSearch ? searchableFields : List.of(),
+                filters != null ? filters.keySet() : List.of());
+
+        // Les valeurs sont converties ici, avant l'exécution, pour rejeter immédiatement une valeur invalide
+        Map<String, Object> values = new TreeMap<>();
+        if (filters != null) {
+            filters.forEach((key, value) -> values.put(key, coerce(key, value)));
+        }
+        String pattern = globalSearch ? "%" + searchTerm.toLowerCase(Locale.ROOT) + "%" : null;
+
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (pattern != null) {
+                predicates.add(criteriaBuilder.or(shape.searchPaths().stream()
+                        .map(path -> criteriaBuilder.like(criteriaBuilder.lower(path.<String>from(root)), pattern))
+                        .toArray(Predicate[]::new)));
+            }
+            shape.filterPaths().forEach((key, path) -> predicates.add(equal(criteriaBuilder, path.from(root), values.get(key))));
+            return criteriaBuilder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Renvoie le type Java attendu pour les valeurs d'un champ.
+     *
+     * @param field Nom du champ
+     * @return Le type Java du champ
+     * @throws IllegalArgumentException Si le champ est inconnu
+     */
+    Class<?> typeOf(String field) {
+        return resolve(field).javaType();
+    }
+
+    /**
+     * Convertit une valeur (issue du JSON ou d'un curseur) vers le type d'un champ.
+     *
+     * @param field Nom du champ
+     * @param value Valeur brute
+     * @return La valeur convertie, ou null
+     * @throws IllegalArgumentException Si le champ est inconnu ou la valeur non convertible
+     */
+    Object coerce(String field, Object value) {
+        Class<?> type = typeOf(field);
+        if (value == null || type.isInstance(value)) {
+            return value;
+        }
+        try {
+            if (type.isEnum()) {
+                return toEnum(type, String.valueOf(value));
+            }
+            if (type.equals(LocalDateTime.class)) {
+                return LocalDateTime.parse(String.valueOf(value));
+            }
+            if (type.equals(LocalDate.class)) {
+                return LocalDate.parse(String.valueOf(value));
+            }
+            Object converted = DefaultConversionService.getSharedInstance().convert(value, type);
+            if (converted == null) {
+                throw new IllegalArgumentException("no conversion to " + type.getSimpleName());
+            }
+            return converted;
+        } catch (IllegalArgumentException | DateTimeParseException | ConversionException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for field '" + field + "' of "
+                    + entityClass.getSimpleName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Renvoie (en la compilant au besoin) la forme compilée correspondant aux champs d'une recherche.
+     *
+     * @param globalSearch     Présence d'une recherche globale
+     * @param searchableFields Champs de la recherche globale
+     * @param filterKeys       Champs filtrés
+     * @return La forme compilée
+     */
+    private CompiledShape shapeFor(boolean globalSearch, List<String> searchableFields, Collection<String> filterKeys) {
+        ShapeKey key = new ShapeKey(globalSearch,
+                searchableFields.stream().sorted().distinct().toList(),
+                filterKeys.stream().sorted().toList());
+        CompiledShape shape = shapes.get(key);
+        if (shape == null) {
+            shape = compileShape(key);
+            if (shapes.size() < MAX_CACHED_SHAPES) {
+                shapes.putIfAbsent(key, shape);
+            }
+        }
+        return shape;
+    }
+
+    private CompiledShape compileShape(ShapeKey key) {
+        List<ResolvedPath> searchPaths = new ArrayList<>();
+        for (String field : key.searchableFields()) {
+            ResolvedPath path = resolve(field);
+            if (!String.class.equals(path.javaType()) || path.idName() != null) {
+                throw new IllegalArgumentException("Field '" + field + "' of " + entityClass.getSimpleName() + " is not a text field.");
+            }
+            searchPaths.add(path);
+        }
+        Map<String, ResolvedPath> filterPaths = new TreeMap<>();
+        for (String field : key.filterKeys()) {
+            filterPaths.put(field, resolve(field));
+        }
+        return new CompiledShape(List.copyOf(searchPaths), filterPaths);
+    }
+
+    private ResolvedPath resolve(String field) {
+        ResolvedPath path = paths.get(field);
+        if (path == null) {
+            throw new IllegalArgumentException("Unknown field '" + field + "' for " + entityClass.getSimpleName() + ".");
+        }
+        return path;
+    }
+
+    private static Predicate equal(CriteriaBuilder criteriaBuilder, Path<?> path, Object value) {
+        return value == null ? criteriaBuilder.isNull(path) : criteriaBuilder.equal(path, value);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object toEnum(Class<?> type, String value) {
+        return Enum.valueOf((Class<? extends Enum>) type, value.trim().toUpperCase(Locale.ROOT));
+    }
+}
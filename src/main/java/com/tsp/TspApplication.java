@@ -2,8 +2,10 @@ package com.tsp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // Purge des suppressions logiques (SoftDeletePurgeJob)
 public class TspApplication {
     public static void main(String[] args) {
         SpringApplication.run(TspApplication.class, args);
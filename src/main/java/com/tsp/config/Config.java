@@ -1,7 +1,11 @@
 package com.tsp.config;
 
+import com.generic.ChangeCounters;
 import com.utils.JwtAuthenticationFilter;
+import com.utils.VerifiedTokenCache;
 import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -44,23 +48,51 @@ public class Config {
      * @throws Exception En cas d'erreur lors de la configuration.
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, VerifiedTokenCache verifiedTokenCache) throws Exception {
         // Configuration de la sécurité HTTP
         http.csrf(AbstractHttpConfigurer::disable) // Désactive la protection CSRF (utile pour les API REST, mais à activer si nécessaire)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource())) // Configure les règles de CORS
-                .authorizeHttpRequests(auth -> auth.requestMatchers("/auth/**").permitAll() // Permet l'accès sans authentification à toutes les routes sous /auth/
+                .authorizeHttpRequests(auth -> auth
+                        // Fin d'une réponse asynchrone (NDJSON, SSE, attente longue) ou page d'erreur : la requête initiale
+                        // a déjà été autorisée, et le filtre JWT ne s'exécute pas à nouveau sur ces dispatchs
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                        .requestMatchers("/auth/**").permitAll() // Permet l'accès sans authentification à toutes les routes sous /auth/
                         .requestMatchers("/api/users/**").hasAuthority("SUPERADMIN") // Restreint l'accès aux routes superadmin aux utilisateurs avec le rôle SUPERADMIN
                         .requestMatchers("/api/tasks/**").hasAuthority("MANAGER").requestMatchers("/api/logs/**").hasAuthority("MANAGER")// Restreint l'accès aux routes manager aux utilisateurs avec le rôle MANAGER
                         .anyRequest().authenticated() // Toutes les autres routes nécessitent une authentification
                 )
 
                 // Ajoute le filtre JWT avant le UsernamePasswordAuthenticationFilter de Spring Security
-                .addFilterBefore(new JwtAuthenticationFilter(SECRET_KEY), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(new JwtAuthenticationFilter(SECRET_KEY, verifiedTokenCache), UsernamePasswordAuthenticationFilter.class);
 
 
         return http.build(); // Génère la chaîne de filtres avec la configuration définie
     }
 
+    /**
+     * Définit le cache des tokens JWT déjà vérifiés, utilisé par {@link JwtAuthenticationFilter}.
+     * Ses compteurs sont publiés dans les métriques (jwt.cache.requests, jwt.cache.size).
+     *
+     * @param maxSize Nombre maximal de tokens conservés
+     * @return Une instance de {@link VerifiedTokenCache}
+     */
+    @Bean
+    public VerifiedTokenCache verifiedTokenCache(@Value("${jwt.cache.max-size:10000}") int maxSize) {
+        return new VerifiedTokenCache(maxSize);
+    }
+
+    /**
+     * Définit les compteurs de modifications par table, qui servent d'ETag aux listes et aux recherches
+     * de {@link com.generic.GenericController}.
+     *
+     * @param entityManagerFactory Fabrique JPA, dont les événements Hibernate alimentent les compteurs
+     * @return Une instance de {@link ChangeCounters}
+     */
+    @Bean
+    public ChangeCounters changeCounters(EntityManagerFactory entityManagerFactory) {
+        return new ChangeCounters(entityManagerFactory);
+    }
+
     /**
      * Configure les règles CORS (Cross-Origin Resource Sharing) pour permettre
      * les requêtes provenant de clients externes.
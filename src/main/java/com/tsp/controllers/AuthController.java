@@ -6,6 +6,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Contrôleur pour gérer l'authentification des utilisateurs.
@@ -30,21 +33,31 @@ public class AuthController {
      * API de connexion.
      * Permet aux utilisateurs de s'authentifier en envoyant leurs informations
      * d'identification dans le body de la requête et de recevoir un token JWT s'ils sont valides.
+     * La vérification du mot de passe s'exécute sur un pool dédié : le thread de la requête est libéré
+     * pendant le calcul BCrypt, et une réponse 503 est renvoyée si le pool est saturé.
      *
      * @param loginRequest Objet contenant le nom d'utilisateur et le mot de passe
      * @return Un token JWT en cas de succès ou une erreur en cas d'échec
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequestDTO loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequestDTO loginRequest) {
         try {
-            // Appelle le service pour effectuer l'authentification et générer un token
-            String token = authService.login(loginRequest.username(), loginRequest.password());
-
-            // Retourne une réponse HTTP avec le token
-            return ResponseEntity.ok(Map.of("token", token));
-        } catch (IllegalArgumentException e) {
-            // Retourne une réponse HTTP 401 Unauthorized en cas d'erreur
-            return ResponseEntity.status(401).body(Map.of("error", e.getMessage()));
+            // Appelle le service pour effectuer l'authentification et générer un token sur le pool dédié
+            return authService.loginAsync(loginRequest.username(), loginRequest.password())
+                    // Retourne une réponse HTTP avec le token
+                    .<ResponseEntity<?>>thenApply(token -> ResponseEntity.ok(Map.of("token", token)))
+                    .exceptionally(e -> {
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        if (cause instanceof IllegalArgumentException) {
+                            // Retourne une réponse HTTP 401 Unauthorized en cas d'erreur
+                            return ResponseEntity.status(401).body(Map.of("error", cause.getMessage()));
+                        }
+                        throw new CompletionException(cause);
+                    });
+        } catch (RejectedExecutionException e) {
+            // Pool de connexion saturé : réponse 503 immédiate plutôt qu'une attente
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(503).body(Map.of("error", "Service de connexion saturé, réessayez plus tard.")));
         }
     }
 }
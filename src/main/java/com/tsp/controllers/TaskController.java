@@ -4,16 +4,124 @@ import com.generic.GenericController;
 import com.tsp.dtos.TaskInputDTO;
 import com.tsp.dtos.TaskOutputDTO;
 import com.tsp.mappers.TaskMapper;
+import com.tsp.services.TaskChangeFeed;
 import com.tsp.services.TaskService;
+import com.tsp.services.TaskStatistics;
 import com.tsp.services.UserService;
 import com.tsp.models.Task;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController  extends GenericController<Task, TaskInputDTO, TaskOutputDTO> {
-    public TaskController(TaskService taskService) {
+
+    // Durée maximale d'une connexion SSE : le client se reconnecte ensuite avec Last-Event-ID
+    @Value("${changes.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    private final TaskService taskService;
+    private final TaskChangeFeed changeFeed;
+    private final TaskStatistics statistics;
+
+    public TaskController(TaskService taskService, TaskChangeFeed changeFeed, TaskStatistics statistics) {
         super(taskService);
+        this.taskService = taskService;
+        this.changeFeed = changeFeed;
+        this.statistics = statistics;
+    }
+
+    /**
+     * API des statistiques des tâches (par statut, par utilisateur, par pays, en retard), servies depuis la mémoire.
+     *
+     * @return Les statistiques, ou 503 tant qu'elles ne sont pas chargées (démarrage de l'application)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStatistics.Stats> stats() {
+        return statistics.stats().map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    /**
+     * API de flux des modifications de tâches (Server-Sent Events), à la place du rafraîchissement périodique.
+     * Chaque événement porte le type de modification (created, updated, deleted), le curseur comme ID d'événement
+     * et la tâche en JSON. À la reconnexion, le navigateur renvoie le dernier ID reçu (Last-Event-ID) :
+     * les modifications manquées sont transmises avant le direct.
+     * Un client trop lent pour suivre le flux est déconnecté ; il reprend depuis son dernier curseur.
+     *
+     * @param since       Curseur de reprise, ou rien pour ne recevoir que les prochaines modifications
+     * @param lastEventId Dernier ID d'événement reçu (reconnexion automatique), prioritaire sur {@code since}
+     * @return Le flux d'événements
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestParam(required = false) String since,
+                              @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        TaskChangeFeed.Subscription subscription = changeFeed.subscription(changes -> {
+            try {
+                for (TaskChangeFeed.TaskChange change : changes) {
+                    emitter.send(SseEmitter.event().id(change.cursor()).name(change.type())
+                            .data(change.task(), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // Client déconnecté : l'abonnement est annulé
+            }
+        }, emitter::complete);
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+        subscription.start(lastEventId != null ? lastEventId : since);
+        return emitter;
+    }
+
+    /**
+     * API de flux des modifications en attente longue, pour les clients sans SSE.
+     * Répond dès qu'une modification postérieure au curseur est disponible, ou après
+     * changes.long-poll-timeout-ms avec une liste vide ; le client rappelle avec le curseur renvoyé.
+     *
+     * @param since Curseur renvoyé par l'appel précédent, ou rien pour attendre les prochaines modifications
+     * @return Les modifications et le curseur suivant
+     */
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<TaskChangeFeed.ChangeBatch> pollChanges(@RequestParam(required = false) String since) {
+        return changeFeed.poll(since);
+    }
+
+    /**
+     * API pour lire l'état d'une tâche à une version ou à une date passée.
+     * Exactement un des deux paramètres doit être fourni.
+     *
+     * @param id      Identifiant de la tâche
+     * @param version Version cible
+     * @param at      Date cible (ISO-8601, ex : 2025-01-31T12:00:00)
+     * @return L'état de la tâche, ou 404 si cette version ou cette date n'est pas dans l'historique
+     */
+    @GetMapping("/{id}/history")
+    public ResponseEntity<TaskOutputDTO> history(@PathVariable Long id,
+                                                 @RequestParam(required = false) Long version,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        if ((version == null) == (at == null)) {
+            throw new IllegalArgumentException("Exactly one of 'version' or 'at' is required");
+        }
+        Optional<TaskOutputDTO> output = version != null
+                ? taskService.historyAtVersion(id, version)
+                : taskService.historyAt(id, at);
+        return output.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 }
\ No newline at end of file
@@ -5,15 +5,34 @@ import com.tsp.dtos.UserInputDTO;
 import com.tsp.dtos.UserOutputDTO;
 import com.tsp.mappers.UserMapper;
 import com.tsp.models.User;
+import com.tsp.services.SoftDeletePurgeJob;
 import com.tsp.services.UserService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController extends GenericController<User, UserInputDTO, UserOutputDTO> {
+
+    private final UserService userService;
+
     public UserController(UserService userService) {
         super(userService);
+        this.userService = userService;
     }
-}
 
+    /**
+     * API pour supprimer physiquement un utilisateur et toutes ses tâches, sans attendre la purge planifiée.
+     * L'avancement est journalisé après chaque lot ; en cas d'interruption, un nouvel appel reprend la suppression.
+     *
+     * @param id Identifiant de l'utilisateur
+     * @return L'avancement final, ou 404 si l'utilisateur n'existe pas (ou a déjà été purgé)
+     */
+    @DeleteMapping("/{id}/purge")
+    public ResponseEntity<SoftDeletePurgeJob.UserPurgeProgress> purge(@PathVariable Long id) {
+        return userService.purge(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -4,6 +4,11 @@ import com.tsp.enums.TaskStatus;
 
 import java.time.LocalDateTime;
 
+/**
+ * Ligne du journal d'audit d'une tâche.
+ * Pour une modification partielle (PATCH), seuls les nouveaux champs modifiés et les versions sont renseignés :
+ * les anciennes valeurs sont nulles (voir l'historique de la tâche à oldVersion).
+ */
 public record LogOutputDTO(
         Long id,
         Long taskId,
@@ -22,7 +22,7 @@ public class LogMapper {
         );
     }
 
-    // Map Log Entity to LogOutputDTO
+    // Map Log Entity to LogOutputDTO (les descriptions sont décompressées et reconstruites à cette lecture)
     public static LogOutputDTO toOutputDTO(Log log) {
         return new LogOutputDTO(
                 log.getId(),
@@ -2,14 +2,20 @@ package com.tsp.models;
 
 import com.generic.GenericEntity;
 import com.tsp.enums.TaskStatus;
+import com.utils.TextDelta;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "ix_log_task_version", columnList = "task_id, new_version"), // Historique par version
+        @Index(name = "ix_log_task_timestamp", columnList = "task_id, timestamp") // Historique par date
+})
 public class Log extends GenericEntity {
 
-    @ManyToOne
+    // Chargement paresseux : seul l'ID de la tâche est exposé dans les DTOs
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "task_id", nullable = false)
     private Task task;
 
@@ -17,11 +23,26 @@ public class Log extends GenericEntity {
 
     private LocalDateTime timestamp;
 
-    // Informations supplémentaires concernant la modification
+    // Informations supplémentaires concernant la modification.
+    // Une modification partielle (PATCH) ne renseigne que les nouvelles valeurs des champs modifiés :
+    // les anciennes valeurs restent nulles, l'état précédent se lit dans l'historique à oldVersion
     private String oldTitle;
     private String newTitle;
 
+    // Description : la nouvelle version est stockée compressée, l'ancienne sous forme de différence avec la nouvelle
+    // (voir TextDelta). Les textes complets ne sont reconstruits qu'à la première lecture.
+    @Lob
+    @Column(name = "new_description_data")
+    private byte[] newDescriptionData;
+
+    @Lob
+    @Column(name = "old_description_delta")
+    private byte[] oldDescriptionDelta;
+
+    @Transient
     private String oldDescription;
+
+    @Transient
     private String newDescription;
 
     private TaskStatus oldStatus;
@@ -42,6 +63,7 @@ public class Log extends GenericEntity {
         this.newTitle = newTitle;
         this.oldDescription = oldDescription;
         this.newDescription = newDescription;
+        encodeDescriptions();
         this.oldStatus = oldStatus;
         this.newStatus = newStatus;
         this.oldVersion = oldVersion;
@@ -98,23 +120,41 @@ public class Log extends GenericEntity {
     }
 
     public String oldDescription() {
+        if (oldDescription == null && oldDescriptionDelta != null) {
+            oldDescription = TextDelta.apply(newDescription(), oldDescriptionDelta);
+        }
         return oldDescription;
     }
 
     public Log setOldDescription(String oldDescription) {
+        newDescription(); // Décodée avant réencodage de la différence
         this.oldDescription = oldDescription;
+        encodeDescriptions();
         return this;
     }
 
     public String newDescription() {
+        if (newDescription == null && newDescriptionData != null) {
+            newDescription = TextDelta.decompress(newDescriptionData);
+        }
         return newDescription;
     }
 
     public Log setNewDescription(String newDescription) {
+        oldDescription(); // Reconstruite à partir de l'ancienne référence avant qu'elle ne change
         this.newDescription = newDescription;
+        encodeDescriptions();
         return this;
     }
 
+    /**
+     * Met à jour les colonnes persistées à partir des descriptions complètes.
+     */
+    private void encodeDescriptions() {
+        this.newDescriptionData = TextDelta.compress(newDescription);
+        this.oldDescriptionDelta = TextDelta.diff(oldDescription, newDescription);
+    }
+
     public TaskStatus oldStatus() {
         return oldStatus;
     }
@@ -6,10 +6,26 @@ import com.utils.CleEtrangere;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Invalidé automatiquement à chaque écriture Hibernate
+// Les tâches supprimées logiquement sont exclues de toutes les lectures
+@SQLRestriction("deleted = 0")
+@Table(indexes = {
+        // Sélection de la purge. Pas d'index en tête sur deleted : la colonne ne distingue que deux valeurs
+        // et attirerait toutes les lectures (deleted = 0) au détriment des index de leurs filtres
+        @Index(name = "ix_task_deleted_at", columnList = "deleted_at"),
+        @Index(name = "ix_task_updated", columnList = "updated_at, id"), // Reprise du flux des modifications depuis un curseur
+        @Index(name = "ix_task_user_status", columnList = "user_id, status"), // Tâches d'un utilisateur (filtre userId, suppression, purge)
+        @Index(name = "ix_task_status_due_date", columnList = "status, due_date"), // Filtre par statut (et échéance)
+        @Index(name = "ix_task_due_date", columnList = "due_date") // Filtre et tri par échéance
+})
 public class Task extends GenericEntity {
 
     @NotBlank
@@ -28,7 +44,8 @@ public class Task extends GenericEntity {
     @Enumerated(EnumType.STRING)
     private TaskStatus status = TaskStatus.IN_PROGRESS; // Valeur par défaut
 
-    @ManyToOne
+    // Chargement paresseux : les listes n'ont besoin que de l'ID de l'utilisateur, lu sur le proxy sans requête
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
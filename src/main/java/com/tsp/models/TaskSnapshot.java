@@ -0,0 +1,124 @@
+package com.tsp.models;
+
+import com.generic.GenericEntity;
+import com.tsp.enums.TaskStatus;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * État complet d'une tâche à une version donnée, écrit avec le journal d'audit toutes les K versions et à chaque
+ * modification d'un champ que {@link Log} ne contient pas (couleur, échéance, utilisateur).
+ * La lecture de l'historique part du snapshot le plus proche puis rejoue au plus K - 1 lignes de {@link Log}.
+ */
+@Entity
+@Table(name = "task_snapshot", indexes = {
+        @Index(name = "ix_task_snapshot_task_version", columnList = "task_id, version"), // Historique par version
+        @Index(name = "ix_task_snapshot_task_taken_at", columnList = "task_id, taken_at") // Historique par date
+})
+public class TaskSnapshot extends GenericEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "task_id", nullable = false)
+    private Task task;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+
+    private String title;
+
+    private String description;
+
+    private String color;
+
+    private LocalDateTime dueDate;
+
+    @Enumerated(EnumType.STRING)
+    private TaskStatus status;
+
+    private Long userId;
+
+    public Task task() {
+        return task;
+    }
+
+    public TaskSnapshot setTask(Task task) {
+        this.task = task;
+        return this;
+    }
+
+    public Long version() {
+        return version;
+    }
+
+    public TaskSnapshot setVersion(Long version) {
+        this.version = version;
+        return this;
+    }
+
+    public LocalDateTime takenAt() {
+        return takenAt;
+    }
+
+    public TaskSnapshot setTakenAt(LocalDateTime takenAt) {
+        this.takenAt = takenAt;
+        return this;
+    }
+
+    public String title() {
+        return title;
+    }
+
+    public TaskSnapshot setTitle(String title) {
+        this.title = title;
+        return this;
+    }
+
+    public String description() {
+        return description;
+    }
+
+    public TaskSnapshot setDescription(String description) {
+        this.description = description;
+        return this;
+    }
+
+    public String color() {
+        return color;
+    }
+
+    public TaskSnapshot setColor(String color) {
+        this.color = color;
+        return this;
+    }
+
+    public LocalDateTime dueDate() {
+        return dueDate;
+    }
+
+    public TaskSnapshot setDueDate(LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+        return this;
+    }
+
+    public TaskStatus status() {
+        return status;
+    }
+
+    public TaskSnapshot setStatus(TaskStatus status) {
+        this.status = status;
+        return this;
+    }
+
+    public Long userId() {
+        return userId;
+    }
+
+    public TaskSnapshot setUserId(Long userId) {
+        this.userId = userId;
+        return this;
+    }
+}
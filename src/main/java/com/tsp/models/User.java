@@ -6,12 +6,26 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 
 
 import java.util.List;
 
 @Entity
-@Table(name = "app_user")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Invalidé automatiquement à chaque écriture Hibernate
+// Les utilisateurs supprimés logiquement sont exclus de toutes les lectures
+@SQLRestriction("deleted = 0")
+@Table(name = "app_user", indexes = {
+        // Recherche par nom d'utilisateur à la connexion. Non unique ici : un utilisateur supprimé logiquement garde
+        // son nom jusqu'à la purge, et ce nom doit pouvoir être réutilisé. L'unicité parmi les utilisateurs non
+        // supprimés est vérifiée par UserService (409) et garantie en base par l'index filtré
+        // (WHERE deleted = 0) du même nom, créé par db/task-user-indexes.sql
+        @Index(name = "ux_app_user_username", columnList = "username"),
+        @Index(name = "ix_app_user_deleted_at", columnList = "deleted_at") // Sélection de la purge (voir Task)
+})
 public class User extends GenericEntity {
 
     @NotBlank
@@ -2,8 +2,31 @@ package com.tsp.repositories;
 
 import com.generic.GenericRepository;
 import com.tsp.models.Log;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface LogRepository  extends GenericRepository<Log> {
-}
\ No newline at end of file
+
+    /**
+     * Modifications d'une tâche postérieures à une version, jusqu'à une version cible incluse,
+     * dans l'ordre où elles doivent être rejouées (index task_id, new_version).
+     */
+    @Query("select l from Log l where l.task.id = :taskId and l.newVersion > :fromVersion"
+            + " and l.newVersion <= :toVersion order by l.newVersion")
+    List<Log> findVersionsBetween(@Param("taskId") Long taskId, @Param("fromVersion") Long fromVersion,
+                                  @Param("toVersion") Long toVersion);
+
+    /**
+     * Modifications d'une tâche postérieures à une version, jusqu'à une date incluse,
+     * dans l'ordre où elles doivent être rejouées.
+     */
+    @Query("select l from Log l where l.task.id = :taskId and l.newVersion > :fromVersion"
+            + " and l.timestamp <= :at order by l.newVersion")
+    List<Log> findVersionsUntil(@Param("taskId") Long taskId, @Param("fromVersion") Long fromVersion,
+                                @Param("at") LocalDateTime at);
+}
@@ -1,9 +1,112 @@
 package com.tsp.repositories;
 
 import com.generic.GenericRepository;
+import com.tsp.enums.TaskStatus;
 import com.tsp.models.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface TaskRepository  extends GenericRepository<Task> {
-}
\ No newline at end of file
+
+    /**
+     * Supprime logiquement, en une seule requête, toutes les tâches d'un utilisateur.
+     *
+     * @param userId Identifiant de l'utilisateur
+     * @param now    Date de suppression
+     * @return Nombre de tâches marquées
+     */
+    @Modifying
+    @Query("update Task t set t.deleted = true, t.deletedAt = :now, t.updatedAt = :now"
+            + " where t.user.id = :userId and t.deleted = false")
+    int softDeleteByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Identifiants des tâches non supprimées d'un utilisateur (index user_id), pour journaliser leur suppression.
+     *
+     * @param userId Identifiant de l'utilisateur
+     * @return Les identifiants
+     */
+    @Query("select t.id from Task t where t.user.id = :userId and t.deleted = false")
+    List<Long> findLiveIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Fait passer au statut cible, en une seule requête, les tâches échues d'un lot (version incrémentée).
+     * Les conditions sont vérifiées par la base : une tâche dont l'échéance a été repoussée, le statut changé
+     * ou qui a été supprimée entre-temps n'est pas modifiée.
+     *
+     * @param ids    Identifiants des tâches
+     * @param from   Statuts qui peuvent passer au statut cible
+     * @param target Statut cible
+     * @param now    Date du passage, aussi écrite comme date de modification
+     * @return Nombre de tâches modifiées
+     */
+    @Modifying
+    @Query("update Task t set t.status = :target, t.version = t.version + 1, t.updatedAt = :now"
+            + " where t.id in :ids and t.status in :from and t.dueDate <= :now and t.deleted = false")
+    int transitionOverdue(@Param("ids") Collection<Long> ids, @Param("from") Collection<TaskStatus> from,
+                          @Param("target") TaskStatus target, @Param("now") LocalDateTime now);
+
+    /**
+     * Relit une tâche en base, sans le cache de second niveau : après une requête UPDATE directe de la transaction
+     * en cours, celui-ci peut encore contenir l'état précédent.
+     *
+     * @param id Identifiant de la tâche
+     * @return La tâche à jour, ou vide si elle n'existe pas
+     */
+    @Query("select t from Task t where t.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    Optional<Task> findCurrent(@Param("id") Long id);
+
+    /**
+     * Relit, dans la transaction de {@link #transitionOverdue}, les tâches qu'elle a modifiées et leur nouvelle version.
+     *
+     * @param ids    Identifiants du lot
+     * @param target Statut cible
+     * @param now    Date du passage
+     * @return Paires (ID, version)
+     */
+    @Query("select t.id, t.version from Task t where t.id in :ids and t.status = :target and t.updatedAt = :now")
+    List<Object[]> findTransitioned(@Param("ids") Collection<Long> ids, @Param("target") TaskStatus target,
+                                    @Param("now") LocalDateTime now);
+
+    /**
+     * Tâches échues qui n'ont pas encore changé de statut (index (status, due_date)).
+     *
+     * @param from  Statuts qui peuvent passer au statut cible
+     * @param now   Date courante
+     * @param limit Taille du lot
+     * @return Identifiants des tâches, par échéance croissante
+     */
+    @Query("select t.id from Task t where t.status in :from and t.dueDate <= :now order by t.dueDate")
+    List<Long> findOverdueIds(@Param("from") Collection<TaskStatus> from, @Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * Parcourt les échéances d'un intervalle, pour les charger dans le planificateur.
+     * Doit être appelé dans une transaction et le flux doit être fermé après usage.
+     *
+     * @param from  Statuts qui peuvent passer au statut cible
+     * @param start Début de l'intervalle (inclus)
+     * @param end   Fin de l'intervalle (exclue)
+     * @return Paires (ID, échéance)
+     */
+    @Query("select t.id, t.dueDate from Task t where t.status in :from and t.dueDate >= :start and t.dueDate < :end")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamDueBetween(@Param("from") Collection<TaskStatus> from, @Param("start") LocalDateTime start,
+                                      @Param("end") LocalDateTime end);
+}
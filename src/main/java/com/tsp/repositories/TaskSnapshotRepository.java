@@ -0,0 +1,22 @@
+package com.tsp.repositories;
+
+import com.generic.GenericRepository;
+import com.tsp.models.TaskSnapshot;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface TaskSnapshotRepository extends GenericRepository<TaskSnapshot> {
+
+    /**
+     * Snapshot le plus récent d'une tâche à une version donnée ou avant (index task_id, version).
+     */
+    Optional<TaskSnapshot> findFirstByTaskIdAndVersionLessThanEqualOrderByVersionDesc(Long taskId, Long version);
+
+    /**
+     * Snapshot le plus récent d'une tâche à une date donnée ou avant (index task_id, taken_at).
+     */
+    Optional<TaskSnapshot> findFirstByTaskIdAndTakenAtLessThanEqualOrderByTakenAtDesc(Long taskId, LocalDateTime at);
+}
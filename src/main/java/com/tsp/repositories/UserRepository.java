@@ -4,6 +4,33 @@ import com.generic.GenericRepository;
 import com.tsp.models.User;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends GenericRepository<User> {
+
+    /**
+     * Recherche un utilisateur par son nom d'utilisateur (colonne indexée, unique parmi les utilisateurs non supprimés).
+     *
+     * @param username Nom d'utilisateur
+     * @return L'utilisateur s'il existe
+     */
+    Optional<User> findByUsername(String username);
+
+    /**
+     * Indique si un autre utilisateur non supprimé porte déjà ce nom d'utilisateur.
+     *
+     * @param username Nom d'utilisateur
+     * @param id       Identifiant de l'utilisateur à ignorer (celui qui est modifié)
+     * @return true si le nom est déjà pris
+     */
+    boolean existsByUsernameAndIdNot(String username, Long id);
+
+    /**
+     * Indique si un utilisateur non supprimé porte déjà ce nom d'utilisateur.
+     *
+     * @param username Nom d'utilisateur
+     * @return true si le nom est déjà pris
+     */
+    boolean existsByUsername(String username);
 }
\ No newline at end of file
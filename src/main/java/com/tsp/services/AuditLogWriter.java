@@ -0,0 +1,272 @@
+package com.tsp.services;
+
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.Log;
+import com.tsp.models.Task;
+import com.tsp.models.TaskSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Écrivain asynchrone du journal d'audit des tâches.
+ * Les modifications capturées par {@link TaskAuditListener} sont déposées dans une file bornée,
+ * puis un thread dédié les insère par lots : la transaction métier ne paie pas l'écriture du journal.
+ * Lorsque la file est pleine, le producteur attend (contre-pression) jusqu'à un délai maximal,
+ * au-delà duquel l'entrée est abandonnée et comptée. La file est vidée à l'arrêt de l'application.
+ * Les snapshots périodiques ({@link TaskSnapshot}) sont écrits dans la même transaction que leur ligne de journal.
+ */
+@Service
+public class AuditLogWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    /**
+     * Modification d'une tâche en attente d'écriture.
+     *
+     * @param snapshot   Champs non journalisés, présents lorsque la nouvelle version doit donner lieu à un snapshot
+     * @param capturedAt Instant de capture ({@link System#nanoTime()}), pour mesurer le retard d'écriture
+     */
+    public record Entry(Long taskId, String action, LocalDateTime timestamp,
+                        String oldTitle, String newTitle,
+                        String oldDescription, String newDescription,
+                        TaskStatus oldStatus, TaskStatus newStatus,
+                        Long oldVersion, Long newVersion,
+                        Snapshot snapshot,
+                        long capturedAt) {
+    }
+
+    /**
+     * Champs de la tâche absents du journal, conservés dans {@link TaskSnapshot}.
+     */
+    public record Snapshot(String color, LocalDateTime dueDate, Long userId) {
+    }
+
+    @Value("${audit.log.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${audit.log.batch-size:200}")
+    private int batchSize;
+
+    @Value("${audit.log.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${audit.log.offer-timeout-ms:500}")
+    private long offerTimeoutMs;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Timer lagTimer;
+
+    private BlockingQueue<Entry> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    // Entrées acceptées dans la file, et entrées traitées (écrites ou abandonnées) : barrière de flush()
+    private final AtomicLong accepted = new AtomicLong();
+    private long processed; // Protégé par le verrou de l'instance, comme les écritures
+
+    /**
+     * @param entityManager      EntityManager partagé, utilisé par le thread d'écriture
+     * @param transactionManager Gestionnaire des transactions d'écriture des lots
+     * @param meterRegistry      Registre des métriques de la file
+     */
+    public AuditLogWriter(EntityManager entityManager, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.writtenCounter = Counter.builder("audit.log.entries").tag("result", "written")
+                .description("Entrées du journal d'audit écrites").register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.log.entries").tag("result", "dropped")
+                .description("Entrées du journal d'audit abandonnées (file pleine ou écriture en échec)").register(meterRegistry);
+        this.lagTimer = Timer.builder("audit.log.lag")
+                .description("Délai entre la capture d'une modification et son écriture dans le journal")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Crée la file et démarre le thread d'écriture.
+     */
+    @PostConstruct
+    public void start() {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("audit.log.queue", queue, BlockingQueue::size)
+                .description("Entrées du journal d'audit en attente d'écriture")
+                .register(meterRegistry);
+
+        this.running = true;
+        this.writerThread = new Thread(this::runWriter, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Arrête le thread d'écriture puis écrit les entrées restantes, avant la fermeture de la base.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false; // Le thread termine son lot en cours puis sort de la boucle
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        flush();
+    }
+
+    /**
+     * Dépose une modification dans la file d'écriture.
+     * Si la file est pleine, attend au plus audit.log.offer-timeout-ms avant d'abandonner l'entrée.
+     *
+     * @param entry Modification à journaliser
+     */
+    public void enqueue(Entry entry) {
+        try {
+            if (!queue.offer(entry, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                droppedCounter.increment();
+                LOGGER.warn("Audit log queue full, dropping entry for task {}", entry.taskId());
+                return;
+            }
+            accepted.incrementAndGet();
+            if (!running) {
+                flush(); // Application en cours d'arrêt : plus de thread pour vider la file
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Écrit immédiatement toutes les entrées en attente, puis attend celles que le thread d'écriture a déjà retirées
+     * de la file : au retour, toute entrée déposée avant l'appel est écrite (ou abandonnée après un échec).
+     */
+    public synchronized void flush() {
+        long target = accepted.get();
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+        // wait() libère le verrou dont le thread d'écriture a besoin pour écrire son lot
+        while (processed < target && writerThread.isAlive() && Thread.currentThread() != writerThread) {
+            try {
+                wait(flushIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Boucle du thread d'écriture : attend une première entrée, puis écrit tout ce qui est disponible par lots.
+     */
+    private void runWriter() {
+        while (running) {
+            try {
+                Entry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                synchronized (this) {
+                    List<Entry> batch = new ArrayList<>(batchSize);
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    write(batch);
+                }
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.error("Audit log writer failure", e);
+            }
+        }
+    }
+
+    /**
+     * Insère un lot d'entrées dans une seule transaction (INSERT regroupés par Hibernate).
+     * En cas d'échec (ex : tâche supprimée entre-temps), chaque entrée est réessayée seule
+     * afin de n'abandonner que les entrées fautives. Appelée sous le verrou de l'instance.
+     *
+     * @param batch Entrées à écrire
+     */
+    private void write(List<Entry> batch) {
+        try {
+            writeOrDrop(batch);
+        } finally {
+            processed += batch.size();
+            notifyAll(); // Réveille les appels à flush() en attente
+        }
+    }
+
+    private void writeOrDrop(List<Entry> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(batch));
+            recordWritten(batch);
+        } catch (RuntimeException batchFailure) {
+            for (Entry entry : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(List.of(entry)));
+                    recordWritten(List.of(entry));
+                } catch (RuntimeException e) {
+                    droppedCounter.increment();
+                    LOGGER.warn("Could not write audit log entry for task {}: {}", entry.taskId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void persist(List<Entry> entries) {
+        for (Entry entry : entries) {
+            Log log = new Log(entityManager.getReference(Task.class, entry.taskId()), entry.action(),
+                    entry.oldTitle(), entry.newTitle(),
+                    entry.oldDescription(), entry.newDescription(),
+                    entry.oldStatus(), entry.newStatus(),
+                    entry.oldVersion(), entry.newVersion())
+                    .setTimestamp(entry.timestamp());
+            entityManager.persist(log);
+            if (entry.snapshot() != null) {
+                entityManager.persist(new TaskSnapshot().setTask(log.task())
+                        .setVersion(entry.newVersion())
+                        .setTakenAt(entry.timestamp())
+                        .setTitle(entry.newTitle())
+                        .setDescription(entry.newDescription())
+                        .setStatus(entry.newStatus())
+                        .setColor(entry.snapshot().color())
+                        .setDueDate(entry.snapshot().dueDate())
+                        .setUserId(entry.snapshot().userId()));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void recordWritten(List<Entry> entries) {
+        long now = System.nanoTime();
+        for (Entry entry : entries) {
+            lagTimer.record(now - entry.capturedAt(), TimeUnit.NANOSECONDS);
+        }
+        writtenCounter.increment(entries.size());
+    }
+}
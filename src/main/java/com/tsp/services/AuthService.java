@@ -2,17 +2,29 @@ package com.tsp.services;
 
 import com.tsp.models.User;
 import com.tsp.repositories.UserRepository;
+import com.utils.JwtAuthenticationFilter;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service responsable de l'authentification et de la gestion des tokens JWT.
@@ -25,18 +37,82 @@ public class AuthService {
     @Value("${jwt.secret}")
     private String SECRET_KEY;
 
+    // Clé de signature construite une seule fois à partir du secret
+    private Key signingKey;
+
+    // Taille du pool et de la file d'attente dédiés aux connexions
+    @Value("${auth.login.threads:4}")
+    private int loginThreads;
+
+    @Value("${auth.login.queue-capacity:200}")
+    private int loginQueueCapacity;
+
+    // Pool dédié à la vérification BCrypt, distinct des threads de Tomcat
+    private ThreadPoolExecutor loginExecutor;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    // Durée de chaque étape de la connexion : recherche de l'utilisateur, vérification du hash, signature du token
+    private final Timer lookupTimer;
+    private final Timer hashTimer;
+    private final Timer tokenTimer;
 
     /**
      * Constructeur pour injecter les dépendances nécessaires.
      *
      * @param userRepository Repository des utilisateurs pour accéder aux données
      * @param passwordEncoder Encodeur de mot de passe pour vérifier les mots de passe hashés
+     * @param meterRegistry Registre des métriques de latence des connexions
      */
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.meterRegistry = meterRegistry;
+        this.lookupTimer = stageTimer("lookup");
+        this.hashTimer = stageTimer("hash");
+        this.tokenTimer = stageTimer("token");
+    }
+
+    /**
+     * Décode la clé secrète et démarre le pool de connexion une fois les propriétés injectées.
+     * Le pool est borné : lorsque sa file est pleine, les connexions sont rejetées immédiatement.
+     */
+    @PostConstruct
+    public void init() {
+        this.signingKey = JwtAuthenticationFilter.signingKey(SECRET_KEY);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.loginExecutor = new ThreadPoolExecutor(
+                loginThreads, loginThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(loginQueueCapacity),
+                runnable -> new Thread(runnable, "login-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        Gauge.builder("auth.login.queue", loginExecutor, executor -> executor.getQueue().size())
+                .description("Connexions en attente d'un thread de vérification")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Arrête le pool de connexion à l'arrêt de l'application.
+     */
+    @PreDestroy
+    public void shutdown() {
+        loginExecutor.shutdown();
+    }
+
+    /**
+     * Lance la connexion sur le pool dédié, libérant le thread de la requête HTTP.
+     *
+     * @param username Nom d'utilisateur fourni
+     * @param password Mot de passe fourni
+     * @return Le token JWT, ou une erreur {@link IllegalArgumentException} si les informations sont invalides
+     * @throws RejectedExecutionException Si le pool est saturé
+     */
+    public CompletableFuture<String> loginAsync(String username, String password) {
+        return CompletableFuture.supplyAsync(() -> login(username, password), loginExecutor);
     }
 
     /**
@@ -50,8 +126,7 @@ public class AuthService {
      */
     public String login(String username, String password) {
         // Recherche l'utilisateur par nom d'utilisateur
-        Optional<User> optionalUser = userRepository.findOne((root, query, criteriaBuilder) ->
-                criteriaBuilder.equal(root.get("username"), username));
+        Optional<User> optionalUser = lookupTimer.record(() -> userRepository.findByUsername(username));
 
         // Vérifie si l'utilisateur existe
         if (optionalUser.isEmpty()) {
@@ -61,7 +136,7 @@ public class AuthService {
         User user = optionalUser.get();
 
         // Vérifie si le mot de passe est correct
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!hashTimer.record(() -> passwordEncoder.matches(password, user.getPassword()))) {
             throw new IllegalArgumentException("Mot de passe incorrect.");
         }
 
@@ -69,7 +144,21 @@ public class AuthService {
         String role = username.equals("superadmin") ? "SUPERADMIN" : "MANAGER";
 
         // Génère et retourne un token JWT
-        return generateToken(user.getUsername(), role);
+        return tokenTimer.record(() -> generateToken(user.getUsername(), role));
+    }
+
+    /**
+     * Crée le timer d'une étape de la connexion.
+     *
+     * @param stage Nom de l'étape
+     * @return Le timer enregistré
+     */
+    private Timer stageTimer(String stage) {
+        return Timer.builder("auth.login.stage")
+                .tag("stage", stage)
+                .description("Durée des étapes de la connexion")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
     }
 
     /**
@@ -88,7 +177,7 @@ public class AuthService {
                 .setSubject(username) // Définit le "subject" (nom d'utilisateur)
                 .setIssuedAt(new Date()) // Définit la date de création du token
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // Expiration : 10 heures
-                .signWith(SignatureAlgorithm.HS256, SECRET_KEY) // Signe le token avec une clé secrète
+                .signWith(signingKey, SignatureAlgorithm.HS256) // Signe le token avec la clé secrète
                 .compact(); // Génère le token
     }
 }
@@ -0,0 +1,362 @@
+package com.tsp.services;
+
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.Task;
+import com.tsp.repositories.TaskRepository;
+import com.utils.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Planificateur des échéances de tâches : lorsqu'une échéance passe, la tâche change de statut (due.overdue-status)
+ * si elle est encore ouverte, à la place d'une tâche externe qui parcourait toutes les tâches.
+ * <p>
+ * Les échéances des prochaines due.horizon-ms sont chargées dans une {@link TimingWheel} (planification et annulation
+ * en O(1)) et tenues à jour à chaque écriture : écouteurs post-commit Hibernate, et {@link TaskService} pour les
+ * requêtes UPDATE directes. Les échéances plus lointaines sont chargées au fil de l'eau, la mémoire ne dépend
+ * donc que du nombre d'échéances de l'horizon. À chaque tick (due.tick-ms), les tâches échues passent au statut cible
+ * par lots de due.batch-size, en une requête UPDATE par lot (voir {@link TaskService#transitionOverdue}).
+ * <p>
+ * La roue n'est qu'une accélération : la requête vérifie l'échéance et le statut en base, une entrée périmée est donc
+ * sans effet. Au démarrage, puis toutes les due.sweep-interval-ms, un rattrapage fait passer les tâches échues
+ * que la roue n'a pas vues (arrêt de l'application, écriture d'une autre instance, lot en échec).
+ */
+@Component
+public class DueDateScheduler implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DueDateScheduler.class);
+
+    @Value("${due.enabled:true}")
+    private boolean enabled;
+
+    // Précision de la roue
+    @Value("${due.tick-ms:1000}")
+    private long tickMs;
+
+    // Échéances chargées en mémoire à l'avance
+    @Value("${due.horizon-ms:86400000}")
+    private long horizonMs;
+
+    @Value("${due.overdue-status:ON_HOLD}")
+    private TaskStatus overdueStatus;
+
+    // Tâches modifiées par requête UPDATE
+    @Value("${due.batch-size:500}")
+    private int batchSize;
+
+    @Value("${due.sweep-interval-ms:600000}")
+    private long sweepIntervalMs;
+
+    private final TaskRepository taskRepository;
+    private final TaskService taskService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Counter transitionCounter;
+    private Set<TaskStatus> openStatuses;
+    private TimingWheel wheel; // Accès synchronisés sur la roue
+    private volatile long loadedUntil; // Échéances antérieures chargées dans la roue
+    private long nextSweep;
+    private ScheduledExecutorService ticker;
+
+    public DueDateScheduler(TaskRepository taskRepository, @Lazy TaskService taskService,
+                            EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.taskService = taskService; // Proxy : TaskService dépend aussi du planificateur
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.transitionCounter = Counter.builder("task.due.transitions")
+                .description("Tâches passées au statut des tâches en retard")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Crée la roue et enregistre l'écouteur auprès de Hibernate.
+     */
+    @PostConstruct
+    public void register() {
+        openStatuses = EnumSet.complementOf(EnumSet.of(overdueStatus, TaskStatus.COMPLETED, TaskStatus.CANCELLED));
+        wheel = new TimingWheel(tickMs, System.currentTimeMillis());
+        loadedUntil = Long.MIN_VALUE; // Rien n'est planifié avant le premier chargement
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("task.due.pending", this, DueDateScheduler::pending)
+                .description("Échéances planifiées dans la roue")
+                .register(meterRegistry);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * Rattrape les échéances passées pendant l'arrêt, charge celles de l'horizon puis démarre les ticks.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "due-date-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.execute(() -> {
+            long now = System.currentTimeMillis();
+            loadedUntil = now; // Les écritures concurrentes sont planifiées dès maintenant
+            refill(now);
+            sweep(toDateTime(now));
+            nextSweep = now + sweepIntervalMs;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Arrête les ticks à l'arrêt de l'application. Les échéances sont rechargées depuis la base au redémarrage.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * @return Le nombre d'échéances planifiées dans la roue
+     */
+    public int pending() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * Fait passer au statut cible, par lots, toutes les tâches ouvertes dont l'échéance est passée
+     * (index (status, due_date)).
+     *
+     * @param now Date courante
+     * @return Nombre de tâches modifiées
+     */
+    public int sweep(LocalDateTime now) {
+        int total = 0;
+        while (true) {
+            List<Long> ids = taskRepository.findOverdueIds(openStatuses, now, Limit.of(batchSize));
+            int transitioned = transition(ids);
+            total += transitioned;
+            if (ids.size() < batchSize || transitioned == 0) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Replanifie une tâche modifiée par une mise à jour partielle (PATCH), après la validation de la transaction
+     * en cours. Un PATCH qui ne fournit que le statut ne donne pas l'échéance : si la tâche redevient ouverte,
+     * elle est reprise par le rattrapage.
+     *
+     * @param id     Identifiant de la tâche
+     * @param values Valeurs appliquées, par nom d'attribut
+     */
+    public void rescheduleAfterCommit(Long id, Map<String, Object> values) {
+        TaskStatus status = (TaskStatus) values.get("status");
+        if (values.containsKey("dueDate")) {
+            LocalDateTime dueDate = (LocalDateTime) values.get("dueDate");
+            afterCommit(() -> schedule(id, status == null || openStatuses.contains(status) ? dueDate : null));
+        } else if (status != null && !openStatuses.contains(status)) {
+            afterCommit(() -> schedule(id, null));
+        }
+    }
+
+    /**
+     * Retire une tâche supprimée par une requête directe, après la validation de la transaction en cours.
+     *
+     * @param id Identifiant de la tâche
+     */
+    public void cancelAfterCommit(Long id) {
+        afterCommit(() -> schedule(id, null));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    /**
+     * Planifie l'échéance d'une tâche si elle tombe dans l'horizon chargé ; sinon, l'annule
+     * (une échéance plus lointaine sera chargée avec son intervalle).
+     *
+     * @param id      Identifiant de la tâche
+     * @param dueDate Échéance, ou null pour annuler
+     */
+    private void schedule(Long id, LocalDateTime dueDate) {
+        long deadline = dueDate == null ? Long.MAX_VALUE : toMillis(dueDate);
+        synchronized (wheel) {
+            if (deadline < loadedUntil) {
+                wheel.schedule(id, deadline);
+            } else {
+                wheel.cancel(id);
+            }
+        }
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            List<Long> due;
+            synchronized (wheel) {
+                due = wheel.advance(now);
+            }
+            for (int i = 0; i < due.size(); i += batchSize) {
+                transition(due.subList(i, Math.min(due.size(), i + batchSize)));
+            }
+            if (now + horizonMs / 2 >= loadedUntil) {
+                refill(now);
+            }
+            if (now >= nextSweep) {
+                nextSweep = now + sweepIntervalMs;
+                sweep(toDateTime(now));
+            }
+        } catch (RuntimeException e) {
+            // Les échéances perdues par ce tick sont reprises par le rattrapage
+            LOGGER.warn("Due date tick failed", e);
+        }
+    }
+
+    private int transition(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int transitioned = taskService.transitionOverdue(ids, openStatuses, overdueStatus).size();
+        transitionCounter.increment(transitioned);
+        return transitioned;
+    }
+
+    /**
+     * Charge dans la roue les échéances comprises entre la fin de l'horizon chargé et now + due.horizon-ms.
+     */
+    private void refill(long now) {
+        long start = loadedUntil;
+        long end = now + horizonMs;
+        synchronized (wheel) {
+            loadedUntil = end; // Les écritures concurrentes de l'intervalle sont planifiées directement
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = taskRepository.streamDueBetween(openStatuses, toDateTime(start), toDateTime(end))) {
+                rows.forEach(row -> {
+                    long deadline = toMillis((LocalDateTime) row[1]);
+                    synchronized (wheel) {
+                        wheel.schedule((Long) row[0], deadline);
+                    }
+                });
+            }
+        });
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Task.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        onWrite(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onWrite(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Task task) {
+            schedule(task.getId(), null);
+        }
+    }
+
+    private void onWrite(Object entity) {
+        if (entity instanceof Task task) {
+            boolean open = !task.isDeleted() && openStatuses.contains(task.status());
+            schedule(task.getId(), open ? task.dueDate() : null);
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Transaction annulée : rien à planifier
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Transaction annulée : rien à planifier
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Transaction annulée : rien à planifier
+    }
+}
@@ -0,0 +1,79 @@
+package com.tsp.services;
+
+import com.utils.TextDelta;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Migration des lignes du journal écrites avant l'encodage compact des descriptions.
+ * Les anciennes colonnes old_description / new_description (conservées par ddl-auto: update) sont converties
+ * vers new_description_data / old_description_delta par lots, chacun dans sa propre transaction, puis vidées :
+ * la migration peut être interrompue et relancée sans retraiter les lignes déjà converties.
+ * <p>
+ * Activée par audit.log.migrate-descriptions=true ; une fois terminée, les anciennes colonnes peuvent être
+ * supprimées avec db/log-description-delta.sql.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.log.migrate-descriptions", havingValue = "true")
+public class LogDescriptionMigration implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogDescriptionMigration.class);
+
+    @Value("${audit.log.migration-batch-size:500}")
+    private int batchSize;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public LogDescriptionMigration(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long migrated = 0;
+        int count;
+        do {
+            count = transactionTemplate.execute(status -> migrateBatch());
+            migrated += count;
+        } while (count == batchSize);
+        LOGGER.info("Migrated descriptions of {} log rows", migrated);
+    }
+
+    /**
+     * Convertit un lot de lignes non encore migrées.
+     *
+     * @return Nombre de lignes converties
+     */
+    @SuppressWarnings("unchecked")
+    private int migrateBatch() {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "select id, old_description, new_description from log"
+                                + " where old_description is not null or new_description is not null order by id")
+                .setMaxResults(batchSize)
+                .getResultList();
+        for (Object[] row : rows) {
+            String oldDescription = (String) row[1];
+            String newDescription = (String) row[2];
+            entityManager.createNativeQuery(
+                            "update log set new_description_data = :data, old_description_delta = :delta,"
+                                    + " old_description = null, new_description = null where id = :id")
+                    .setParameter("data", TextDelta.compress(newDescription))
+                    .setParameter("delta", TextDelta.diff(oldDescription, newDescription))
+                    .setParameter("id", ((Number) row[0]).longValue())
+                    .executeUpdate();
+        }
+        return rows.size();
+    }
+}
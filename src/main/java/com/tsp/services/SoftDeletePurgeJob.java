@@ -0,0 +1,218 @@
+package com.tsp.services;
+
+import com.generic.ChangeCounters;
+import com.tsp.models.Log;
+import com.tsp.models.Task;
+import com.tsp.models.TaskSnapshot;
+import com.tsp.models.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Purge périodique des lignes supprimées logiquement depuis plus de purge.retention-days jours.
+ * Les lignes sont supprimées physiquement par petits lots, chacun validé dans sa propre transaction,
+ * afin de ne jamais verrouiller de grandes plages de la table : d'abord les tâches (avec leur journal et
+ * leurs snapshots), puis les utilisateurs qui n'ont plus de tâche.
+ * <p>
+ * Les requêtes sont natives car les entités excluent les lignes supprimées de toutes les lectures JPA.
+ * <p>
+ * {@link #purgeUser} applique la même suppression ensembliste à un utilisateur précis, sans attendre le délai de rétention.
+ */
+@Component
+public class SoftDeletePurgeJob {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SoftDeletePurgeJob.class);
+
+    /**
+     * Avancement de la suppression physique d'un utilisateur.
+     *
+     * @param userId         Identifiant de l'utilisateur
+     * @param tasksPurged    Tâches supprimées jusqu'ici
+     * @param tasksRemaining Tâches restant à supprimer
+     * @param userPurged     Vrai lorsque l'utilisateur lui-même a été supprimé par cet appel (opération terminée) ;
+     *                       faux dans le résultat final si un appel concurrent l'a supprimé avant
+     */
+    public record UserPurgeProgress(Long userId, long tasksPurged, long tasksRemaining, boolean userPurged) {
+    }
+
+    @Value("${purge.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${purge.batch-size:500}")
+    private int batchSize;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeCounters changeCounters;
+
+    public SoftDeletePurgeJob(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                              ChangeCounters changeCounters) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.changeCounters = changeCounters;
+    }
+
+    /**
+     * Lance une purge complète des lignes éligibles.
+     */
+    @Scheduled(fixedDelayString = "${purge.interval-ms:3600000}", initialDelayString = "${purge.interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long tasks = purgeInBatches(() -> purgeTaskBatch(cutoff));
+        long users = purgeInBatches(() -> purgeUserBatch(cutoff));
+        if (tasks > 0 || users > 0) {
+            LOGGER.info("Purged {} soft-deleted tasks and {} soft-deleted users", tasks, users);
+        }
+    }
+
+    /**
+     * Répète un lot, chacun dans sa transaction, jusqu'à ce qu'un lot soit incomplet.
+     *
+     * @param batch Lot à exécuter, qui retourne le nombre de lignes supprimées
+     * @return Nombre total de lignes supprimées
+     */
+    private long purgeInBatches(IntSupplier batch) {
+        long total = 0;
+        int count;
+        do {
+            count = transactionTemplate.execute(status -> batch.getAsInt());
+            total += count;
+        } while (count == batchSize);
+        return total;
+    }
+
+    /**
+     * Supprime un lot de tâches éligibles.
+     */
+    private int purgeTaskBatch(LocalDateTime cutoff) {
+        List<Long> ids = selectIds("select id from task where deleted_at < :cutoff and deleted = 1 order by id", "cutoff", cutoff);
+        deleteTasks(ids);
+        return ids.size();
+    }
+
+    /**
+     * Supprime un lot d'utilisateurs éligibles dont toutes les tâches ont déjà été purgées.
+     */
+    private int purgeUserBatch(LocalDateTime cutoff) {
+        List<Long> ids = selectIds("select u.id from app_user u where u.deleted_at < :cutoff and u.deleted = 1"
+                + " and not exists (select 1 from task t where t.user_id = u.id) order by u.id", "cutoff", cutoff);
+        if (!ids.isEmpty()) {
+            delete("delete from app_user where id in (:ids)", ids, User.class);
+        }
+        return ids.size();
+    }
+
+    /**
+     * Supprime physiquement un utilisateur et toutes ses tâches avec des requêtes ensemblistes, sans les charger.
+     * L'utilisateur et ses tâches sont d'abord supprimés logiquement (invisibles immédiatement), puis les tâches
+     * sont supprimées par lots de purge.batch-size, chacun avec son journal et ses snapshots, dans sa propre
+     * transaction. En cas d'interruption, un nouvel appel reprend là où le précédent s'est arrêté.
+     *
+     * @param userId   Identifiant de l'utilisateur
+     * @param progress Notifié après chaque lot
+     * @return L'avancement final, ou vide si l'utilisateur n'existe pas (supprimé logiquement ou non)
+     */
+    public Optional<UserPurgeProgress> purgeUser(Long userId, Consumer<UserPurgeProgress> progress) {
+        Long found = transactionTemplate.execute(status -> {
+            if (count("select count(*) from app_user where id = :id", userId) == 0) {
+                return null;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            update("update task set deleted = 1, deleted_at = :now, updated_at = :now where user_id = :id and deleted = 0",
+                    userId, now, Task.class);
+            update("update app_user set deleted = 1, deleted_at = :now, updated_at = :now where id = :id and deleted = 0",
+                    userId, now, User.class);
+            return count("select count(*) from task where user_id = :id", userId);
+        });
+        if (found == null) {
+            return Optional.empty();
+        }
+
+        long remaining = found;
+        long purged = 0;
+        int count;
+        do {
+            count = transactionTemplate.execute(status -> {
+                List<Long> ids = selectIds("select id from task where user_id = :id order by id", "id", userId);
+                deleteTasks(ids);
+                return ids.size();
+            });
+            purged += count;
+            remaining = Math.max(0, remaining - count);
+            progress.accept(new UserPurgeProgress(userId, purged, remaining, false));
+            LOGGER.info("Purging user {}: {} tasks deleted, {} remaining", userId, purged, remaining);
+        } while (count == batchSize);
+
+        int users = transactionTemplate.execute(status ->
+                delete("delete from app_user where id in (:ids)", List.of(userId), User.class));
+        UserPurgeProgress done = new UserPurgeProgress(userId, purged, 0, users > 0);
+        progress.accept(done);
+        return Optional.of(done);
+    }
+
+    private long count(String sql, Long id) {
+        return ((Number) entityManager.createNativeQuery(sql)
+                .setParameter("id", id)
+                .getSingleResult()).longValue();
+    }
+
+    /**
+     * Supprime des tâches, après leur journal et leurs snapshots qui les référencent.
+     *
+     * @param ids Identifiants des tâches
+     */
+    private void deleteTasks(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            delete("delete from log where task_id in (:ids)", ids, Log.class);
+            delete("delete from task_snapshot where task_id in (:ids)", ids, TaskSnapshot.class);
+            delete("delete from task where id in (:ids)", ids, Task.class);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> selectIds(String sql, String parameter, Object value) {
+        List<Number> ids = entityManager.createNativeQuery(sql)
+                .setParameter(parameter, value)
+                .setMaxResults(batchSize)
+                .getResultList();
+        return ids.stream().map(Number::longValue).toList();
+    }
+
+    private void update(String sql, Long id, LocalDateTime now, Class<?> entityClass) {
+        entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(entityClass)
+                .setParameter("id", id)
+                .setParameter("now", now)
+                .executeUpdate();
+        changeCounters.incrementAfterCommit(entityClass);
+    }
+
+    /**
+     * Exécute une suppression native en déclarant l'entité touchée :
+     * Hibernate n'invalide alors que la région de cache de cette entité, pas tout le cache de second niveau,
+     * et seul le compteur de modifications de cette entité change.
+     */
+    private int delete(String sql, List<Long> ids, Class<?> entityClass) {
+        int deleted = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(entityClass)
+                .setParameterList("ids", ids)
+                .executeUpdate();
+        changeCounters.incrementAfterCommit(entityClass);
+        return deleted;
+    }
+}
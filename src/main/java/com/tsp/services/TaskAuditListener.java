@@ -0,0 +1,232 @@
+package com.tsp.services;
+
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.Task;
+import com.tsp.models.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Capture les créations et modifications de tâches pour le journal d'audit.
+ * Enregistré auprès de Hibernate comme écouteur post-commit : seules les modifications effectivement validées
+ * sont journalisées, et l'ancien état est lu depuis le snapshot de la session, sans requête supplémentaire.
+ * L'écriture elle-même est déléguée à {@link AuditLogWriter}.
+ * <p>
+ * Les mises à jour partielles (PATCH) s'exécutent en une seule requête UPDATE, sans lire la ligne : leur entrée
+ * ({@link #capturePatch}) ne contient que les nouvelles valeurs des champs modifiés, les anciennes valeurs
+ * (titre, description, statut) restent nulles. Seules les versions sont renseignées ; l'état précédent se lit
+ * dans l'historique ({@link TaskService#historyAtVersion} à l'ancienne version).
+ * Toutes les audit.snapshot.interval versions (dont la création, version 0), ainsi qu'à chaque version qui change
+ * un champ absent du journal (couleur, échéance, utilisateur), l'état complet est joint à l'entrée pour écrire un snapshot.
+ */
+@Component
+public class TaskAuditListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener {
+
+    // Champs de Task absents du journal : leur modification impose un snapshot
+    private static final Set<String> SNAPSHOT_ONLY_FIELDS = Set.of("color", "dueDate", "user");
+
+    // Nombre de versions entre deux snapshots : borne le nombre de lignes rejouées pour lire l'historique
+    @Value("${audit.snapshot.interval:20}")
+    private long snapshotInterval;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditLogWriter auditLogWriter;
+
+    // Position des propriétés journalisées dans les tableaux d'état Hibernate
+    private int titleIndex;
+    private int descriptionIndex;
+    private int statusIndex;
+    private int versionIndex;
+    private int colorIndex;
+    private int dueDateIndex;
+    private int userIndex;
+
+    public TaskAuditListener(EntityManagerFactory entityManagerFactory, AuditLogWriter auditLogWriter) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditLogWriter = auditLogWriter;
+    }
+
+    /**
+     * Résout la position des propriétés de {@link Task} et enregistre l'écouteur auprès de Hibernate.
+     */
+    @PostConstruct
+    public void register() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(Task.class);
+        List<String> propertyNames = Arrays.asList(persister.getPropertyNames());
+        this.titleIndex = propertyNames.indexOf("title");
+        this.descriptionIndex = propertyNames.indexOf("description");
+        this.statusIndex = propertyNames.indexOf("status");
+        this.versionIndex = propertyNames.indexOf("version");
+        this.colorIndex = propertyNames.indexOf("color");
+        this.dueDateIndex = propertyNames.indexOf("dueDate");
+        this.userIndex = propertyNames.indexOf("user");
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Task.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!(event.getEntity() instanceof Task)) {
+            return;
+        }
+        Object[] state = event.getState();
+        auditLogWriter.enqueue(new AuditLogWriter.Entry((Long) event.getId(), "Création", LocalDateTime.now(),
+                null, (String) state[titleIndex],
+                null, (String) state[descriptionIndex],
+                null, (TaskStatus) state[statusIndex],
+                null, (Long) state[versionIndex],
+                snapshotOf(state, false),
+                System.nanoTime()));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Task)) {
+            return;
+        }
+        Object[] state = event.getState();
+        Object[] oldState = event.getOldState(); // Absent si l'entité n'a pas été chargée par la session
+        auditLogWriter.enqueue(new AuditLogWriter.Entry((Long) event.getId(), "Modification", LocalDateTime.now(),
+                oldState == null ? null : (String) oldState[titleIndex], (String) state[titleIndex],
+                oldState == null ? null : (String) oldState[descriptionIndex], (String) state[descriptionIndex],
+                oldState == null ? null : (TaskStatus) oldState[statusIndex], (TaskStatus) state[statusIndex],
+                oldState == null ? null : (Long) oldState[versionIndex], (Long) state[versionIndex],
+                snapshotOf(state, oldState == null || snapshotOnlyFieldsChanged(oldState, state)),
+                System.nanoTime()));
+    }
+
+    /**
+     * Capture une mise à jour partielle (PATCH), exécutée en requête UPDATE directe et donc invisible pour
+     * les écouteurs Hibernate. Seules les nouvelles valeurs des champs modifiés sont connues : les anciennes
+     * valeurs et les champs non modifiés restent vides dans le journal. La tâche n'est relue que lorsque
+     * la nouvelle version doit donner lieu à un snapshot (intervalle atteint, ou couleur, échéance ou utilisateur modifiés).
+     * L'entrée est déposée après la validation de la transaction en cours.
+     *
+     * @param taskId     Identifiant de la tâche
+     * @param values     Valeurs appliquées, par nom d'attribut
+     * @param oldVersion Version avant la mise à jour
+     * @param newVersion Version après la mise à jour
+     * @param loader     Lecture de la tâche à jour, utilisée pour les snapshots
+     */
+    public void capturePatch(Long taskId, Map<String, Object> values, Long oldVersion, Long newVersion, Supplier<Task> loader) {
+        String newTitle = (String) values.get("title");
+        String newDescription = (String) values.get("description");
+        TaskStatus newStatus = (TaskStatus) values.get("status");
+        AuditLogWriter.Snapshot snapshot = null;
+        if (newVersion != null && (newVersion % snapshotInterval == 0 || !Collections.disjoint(SNAPSHOT_ONLY_FIELDS, values.keySet()))) {
+            Task task = loader.get();
+            if (task != null) {
+                newTitle = task.title();
+                newDescription = task.description();
+                newStatus = task.status();
+                snapshot = new AuditLogWriter.Snapshot(task.color(), task.dueDate(), task.user().getId());
+            }
+        }
+        AuditLogWriter.Entry entry = new AuditLogWriter.Entry(taskId, "Modification", LocalDateTime.now(),
+                null, newTitle, null, newDescription, null, newStatus, oldVersion, newVersion,
+                snapshot, System.nanoTime());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                auditLogWriter.enqueue(entry);
+            }
+        });
+    }
+
+    /**
+     * Capture la suppression logique de tâches, exécutée en requête UPDATE directe et donc invisible pour
+     * les écouteurs Hibernate. La version n'étant pas incrémentée, l'entrée n'a pas de nouvelle version :
+     * elle n'est pas rejouée par la lecture de l'historique.
+     * Les entrées sont déposées après la validation de la transaction en cours.
+     *
+     * @param taskIds Identifiants des tâches supprimées
+     */
+    public void captureDelete(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(taskIds);
+        LocalDateTime timestamp = LocalDateTime.now();
+        long capturedAt = System.nanoTime();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (Long id : ids) {
+                    auditLogWriter.enqueue(new AuditLogWriter.Entry(id, "Suppression", timestamp,
+                            null, null, null, null, null, null, null, null, null, capturedAt));
+                }
+            }
+        });
+    }
+
+    /**
+     * Extrait les champs non journalisés si la nouvelle version est un multiple de l'intervalle des snapshots,
+     * ou si le snapshot est imposé.
+     *
+     * @param state État de la tâche après l'écriture
+     * @param force true si un champ non journalisé a (peut-être) changé
+     * @return Les champs du snapshot, ou null
+     */
+    private AuditLogWriter.Snapshot snapshotOf(Object[] state, boolean force) {
+        Long version = (Long) state[versionIndex];
+        if (version == null || (!force && version % snapshotInterval != 0)) {
+            return null;
+        }
+        User user = (User) state[userIndex]; // Proxy : l'ID est lu sans requête
+        return new AuditLogWriter.Snapshot((String) state[colorIndex], (LocalDateTime) state[dueDateIndex],
+                user == null ? null : user.getId());
+    }
+
+    /**
+     * @param oldState État de la tâche avant l'écriture
+     * @param state    État de la tâche après l'écriture
+     * @return true si la couleur, l'échéance ou l'utilisateur ont changé
+     */
+    private boolean snapshotOnlyFieldsChanged(Object[] oldState, Object[] state) {
+        User oldUser = (User) oldState[userIndex];
+        User user = (User) state[userIndex];
+        return !Objects.equals(oldState[colorIndex], state[colorIndex])
+                || !Objects.equals(oldState[dueDateIndex], state[dueDateIndex])
+                || !Objects.equals(oldUser == null ? null : oldUser.getId(), user == null ? null : user.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Transaction annulée : rien à journaliser
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Transaction annulée : rien à journaliser
+    }
+}
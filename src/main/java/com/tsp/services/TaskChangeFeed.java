@@ -0,0 +1,574 @@
+package com.tsp.services;
+
+import com.generic.GenericEntity;
+import com.generic.KeysetCursor;
+import com.tsp.dtos.TaskOutputDTO;
+import com.tsp.mappers.TaskMapper;
+import com.tsp.models.Task;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Flux des modifications de tâches (création, modification, suppression), diffusé aux clients abonnés
+ * à la place du rafraîchissement périodique des listes.
+ * <p>
+ * Les écritures Hibernate sont captées par des écouteurs post-commit ; les requêtes UPDATE directes
+ * (PATCH, suppression logique) sont publiées par {@link TaskService} et {@link UserService} via
+ * {@link #publishAfterCommit}. Seules les modifications validées sont diffusées.
+ * <p>
+ * Chaque abonné dispose d'une file bornée (changes.buffer-size) : la publication n'attend jamais un client,
+ * et un client dont la file déborde est déconnecté (il reprend ensuite depuis son dernier curseur).
+ * Les files sont vidées par un petit pool partagé (changes.threads), qui confie l'écriture vers le client
+ * à un pool d'écriture borné (changes.writer-threads, changes.writer-queue-capacity) : un client bloqué (TCP saturé)
+ * n'immobilise que son propre envoi, et il est déconnecté si l'écriture dépasse changes.write-timeout-ms.
+ * L'écriture bloquée ne peut pas être interrompue : son thread reste occupé jusqu'à l'échec de la socket.
+ * Lorsque tous les threads d'écriture sont ainsi occupés et la file d'attente pleine, l'abonné dont l'envoi
+ * est refusé est déconnecté au lieu de créer un thread de plus.
+ * <p>
+ * Chaque modification porte un curseur (date de modification, ID). Un abonné qui fournit un curseur reçoit
+ * d'abord les lignes modifiées depuis (lues dans la table, suppressions logiques comprises), puis le flux en direct.
+ * La date de modification étant fixée avant la validation, deux transactions concurrentes peuvent être validées
+ * dans le désordre : la reprise d'un flux SSE relit donc aussi changes.resume-overlap-ms avant le curseur.
+ * La livraison est « au moins une fois » ; le client ignore les doublons grâce à la version.
+ * L'attente longue ne relit pas cette fenêtre, déjà transmise : elle ne se termine que sur des modifications nouvelles.
+ */
+@Component
+public class TaskChangeFeed implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskChangeFeed.class);
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+
+    private static final String CURSOR_FIELD = "updatedAt";
+
+    /**
+     * Une modification de tâche.
+     *
+     * @param type   {@link #CREATED}, {@link #UPDATED} ou {@link #DELETED}
+     * @param cursor Position de la modification dans le flux, à renvoyer pour reprendre après elle
+     * @param task   État de la tâche. Pour un PATCH, seuls l'ID, la version et les champs modifiés sont renseignés ;
+     *               pour une suppression, seul l'ID (ou seul l'utilisateur, si toutes ses tâches sont supprimées)
+     */
+    public record TaskChange(String type, String cursor, TaskOutputDTO task) {
+    }
+
+    /**
+     * Réponse d'une attente longue (long-polling).
+     *
+     * @param changes Modifications reçues, vide si le délai a expiré
+     * @param cursor  Curseur à fournir à l'appel suivant
+     */
+    public record ChangeBatch(List<TaskChange> changes, String cursor) {
+    }
+
+    // Modifications en attente d'envoi par abonné, au-delà desquelles l'abonné est déconnecté
+    @Value("${changes.buffer-size:256}")
+    private int bufferSize;
+
+    // Threads partagés qui vident les files des abonnés
+    @Value("${changes.threads:2}")
+    private int threads;
+
+    // Lignes lues par requête lors d'une reprise
+    @Value("${changes.backfill-size:500}")
+    private int backfillSize;
+
+    @Value("${changes.resume-overlap-ms:2000}")
+    private long resumeOverlapMs;
+
+    @Value("${changes.long-poll-timeout-ms:25000}")
+    private long longPollTimeoutMs;
+
+    // Durée maximale d'un envoi vers un client, au-delà de laquelle il est déconnecté
+    @Value("${changes.write-timeout-ms:10000}")
+    private long writeTimeoutMs;
+
+    // Taille du pool et de la file d'attente des envois vers les clients
+    @Value("${changes.writer-threads:16}")
+    private int writerThreads;
+
+    @Value("${changes.writer-queue-capacity:10000}")
+    private int writerQueueCapacity;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final TaskMapper mapper = new TaskMapper();
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Counter disconnectedCounter;
+    private ExecutorService dispatcher;
+    private ThreadPoolExecutor writers;
+
+    public TaskChangeFeed(EntityManagerFactory entityManagerFactory, EntityManager entityManager,
+                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.disconnectedCounter = Counter.builder("task.changes.disconnected")
+                .description("Abonnés déconnectés car leur file était pleine")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Démarre le pool d'envoi et enregistre l'écouteur auprès de Hibernate.
+     */
+    @PostConstruct
+    public void register() {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "task-changes-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Au plus une écriture en cours ou en attente par abonné : la file suit le nombre d'abonnés,
+        // les threads restent bornés ; au-delà de la file, l'envoi est refusé
+        AtomicInteger writerCount = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(
+                writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(writerQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "task-changes-writer-" + writerCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        Gauge.builder("task.changes.subscribers", subscriptions, Set::size)
+                .description("Abonnés au flux des modifications de tâches")
+                .register(meterRegistry);
+        Gauge.builder("task.changes.writers.active", writers, ThreadPoolExecutor::getActiveCount)
+                .description("Envois en cours vers les abonnés (un envoi bloqué y reste jusqu'à l'échec de la socket)")
+                .register(meterRegistry);
+
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * Arrête le pool d'envoi à l'arrêt de l'application.
+     */
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    /**
+     * Crée un abonnement, inactif jusqu'à l'appel de {@link Subscription#start}.
+     *
+     * @param sink       Reçoit les modifications par lots, dans l'ordre, depuis un thread du pool d'envoi
+     * @param onOverflow Appelé (une fois) lorsque l'abonné est déconnecté parce qu'il ne suit pas ; ne doit pas bloquer
+     * @return L'abonnement
+     */
+    public Subscription subscription(Consumer<List<TaskChange>> sink, Runnable onOverflow) {
+        return new Subscription(sink, onOverflow);
+    }
+
+    /**
+     * Attente longue : se termine dès qu'au moins une modification nouvelle est disponible (lue après le curseur,
+     * ou validée pendant l'attente), ou après changes.long-poll-timeout-ms avec une liste vide.
+     * Les lignes antérieures ou égales au curseur ont été transmises par l'appel précédent : elles ne sont pas relues,
+     * sinon l'appel se terminerait aussitôt et le client bouclerait sans attendre.
+     *
+     * @param since Curseur renvoyé par l'appel précédent, ou null pour n'attendre que les prochaines modifications
+     * @return Les modifications et le curseur suivant
+     */
+    public CompletableFuture<ChangeBatch> poll(String since) {
+        String from = since != null ? since : currentCursor();
+        ChangeBatch empty = new ChangeBatch(List.of(), from);
+        CompletableFuture<ChangeBatch> future = new CompletableFuture<>();
+        Subscription subscription = subscription(
+                changes -> future.complete(new ChangeBatch(changes, latest(from, changes))),
+                () -> future.complete(empty));
+        future.whenComplete((batch, error) -> subscription.cancel());
+        subscription.start(since, false);
+        return future.completeOnTimeout(empty, longPollTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Une modification validée en retard peut précéder les autres dans l'ordre du flux :
+     * le curseur suivant est le plus avancé, jamais un curseur antérieur à celui de l'appel.
+     *
+     * @param from    Curseur de l'appel
+     * @param changes Modifications transmises
+     * @return Le curseur le plus avancé
+     */
+    private static String latest(String from, List<TaskChange> changes) {
+        String latest = from;
+        for (TaskChange change : changes) {
+            if (compare(change.cursor(), latest) > 0) {
+                latest = change.cursor();
+            }
+        }
+        return latest;
+    }
+
+    private static int compare(String cursor, String other) {
+        KeysetCursor position = decode(cursor);
+        KeysetCursor otherPosition = decode(other);
+        int byDate = LocalDateTime.parse(position.value()).compareTo(LocalDateTime.parse(otherPosition.value()));
+        return byDate != 0 ? byDate : Long.compare(position.id(), otherPosition.id());
+    }
+
+    /**
+     * @return Un curseur positionné maintenant
+     */
+    public String currentCursor() {
+        return cursor(GenericEntity.now(), 0L);
+    }
+
+    /**
+     * Publie une modification faite par une requête UPDATE directe, après la validation de la transaction en cours
+     * (immédiatement hors transaction).
+     *
+     * @param type      Type de modification
+     * @param task      État (partiel) de la tâche
+     * @param updatedAt Date de modification écrite en base
+     */
+    public void publishAfterCommit(String type, TaskOutputDTO task, LocalDateTime updatedAt) {
+        TaskChange change = new TaskChange(type, cursor(updatedAt, task.id() != null ? task.id() : 0L), task);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(change);
+            }
+        });
+    }
+
+    private void publish(TaskChange change) {
+        if (!subscriptions.isEmpty()) {
+            subscriptions.forEach(subscription -> subscription.offer(change));
+        }
+    }
+
+    /**
+     * Lit dans la table les modifications postérieures à un curseur, suppressions logiques comprises
+     * (requête native : les lectures JPA excluent les tâches supprimées).
+     *
+     * @param cursor  Curseur de départ
+     * @param overlap Vrai pour relire aussi changes.resume-overlap-ms avant le curseur
+     * @return Au plus changes.backfill-size modifications, dans l'ordre du flux
+     */
+    private List<TaskChange> changesSince(String cursor, boolean overlap) {
+        KeysetCursor position = decode(cursor);
+        LocalDateTime at = LocalDateTime.parse(position.value());
+        Long id = position.id();
+        if (overlap && resumeOverlapMs > 0) {
+            at = at.minusNanos(resumeOverlapMs * 1_000_000);
+            id = 0L;
+        }
+        LocalDateTime from = at;
+        Long fromId = id;
+        return transactionTemplate.execute(status -> {
+            @SuppressWarnings("unchecked")
+            // Borne updated_at >= :at en tête : lecture de l'index (updated_at, id) à partir du curseur
+            List<Task> tasks = entityManager.createNativeQuery("select * from task where updated_at >= :at"
+                            + " and (updated_at > :at or id > :id) order by updated_at, id", Task.class)
+                    .setParameter("at", from)
+                    .setParameter("id", fromId)
+                    .setMaxResults(backfillSize)
+                    .getResultList();
+            return tasks.stream().map(this::changeOf).toList();
+        });
+    }
+
+    private TaskChange changeOf(Task task) {
+        String cursor = cursor(task.getUpdatedAt(), task.getId());
+        if (task.isDeleted()) {
+            return new TaskChange(DELETED, cursor, deleted(task.getId(), null));
+        }
+        return new TaskChange(task.getCreatedAt().equals(task.getUpdatedAt()) ? CREATED : UPDATED, cursor,
+                mapper.toOutputDTO(task));
+    }
+
+    /**
+     * @param id     Identifiant de la tâche supprimée, ou null si toutes les tâches de l'utilisateur le sont
+     * @param userId Identifiant de l'utilisateur, ou null
+     * @return L'état transmis pour une suppression
+     */
+    public static TaskOutputDTO deleted(Long id, Long userId) {
+        return new TaskOutputDTO(id, null, null, null, null, null, userId, null);
+    }
+
+    private static String cursor(LocalDateTime updatedAt, Long id) {
+        return new KeysetCursor(CURSOR_FIELD, Sort.Direction.ASC, id, updatedAt.toString()).encode();
+    }
+
+    private static KeysetCursor decode(String cursor) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        if (!CURSOR_FIELD.equals(position.sortField())) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            LocalDateTime.parse(position.value());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        return position;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Task.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Task task) {
+            publish(new TaskChange(CREATED, cursor(task.getUpdatedAt(), task.getId()), mapper.toOutputDTO(task)));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Task task) {
+            publish(task.isDeleted()
+                    ? new TaskChange(DELETED, cursor(task.getUpdatedAt(), task.getId()), deleted(task.getId(), null))
+                    : new TaskChange(UPDATED, cursor(task.getUpdatedAt(), task.getId()), mapper.toOutputDTO(task)));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Task task) {
+            publish(new TaskChange(DELETED, cursor(GenericEntity.now(), task.getId()), deleted(task.getId(), null)));
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Transaction annulée : rien à diffuser
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Transaction annulée : rien à diffuser
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Transaction annulée : rien à diffuser
+    }
+
+    /**
+     * Abonnement au flux : file bornée vidée par le pool partagé, au plus une tâche d'envoi en cours par abonné.
+     */
+    public final class Subscription {
+
+        private final BlockingQueue<TaskChange> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final Consumer<List<TaskChange>> sink;
+        private final Runnable onOverflow;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean live; // Faux pendant la reprise : les modifications en direct attendent dans la file
+        private volatile boolean closed;
+
+        private Subscription(Consumer<List<TaskChange>> sink, Runnable onOverflow) {
+            this.sink = sink;
+            this.onOverflow = onOverflow;
+        }
+
+        /**
+         * Inscrit l'abonné puis, depuis le pool d'écriture, transmet les modifications postérieures au curseur
+         * avant de passer au direct. L'inscription précède la lecture : une modification validée pendant la reprise
+         * attend dans la file au lieu d'être perdue.
+         *
+         * @param since Curseur de reprise, ou null pour ne recevoir que les prochaines modifications
+         * @throws IllegalArgumentException Si le curseur est invalide
+         */
+        public void start(String since) {
+            start(since, true);
+        }
+
+        /**
+         * @param since   Curseur de reprise, ou null pour ne recevoir que les prochaines modifications
+         * @param overlap Vrai pour relire aussi changes.resume-overlap-ms avant le curseur
+         */
+        private void start(String since, boolean overlap) {
+            if (since != null) {
+                decode(since);
+            }
+            subscriptions.add(this);
+            if (since == null) {
+                goLive();
+            } else {
+                resume(since, overlap);
+            }
+        }
+
+        /**
+         * Lit et envoie une page de reprise sur un thread d'écriture, puis planifie la suivante à la fin de l'envoi :
+         * la reprise n'occupe qu'un thread à la fois.
+         *
+         * @param cursor  Curseur de la page
+         * @param overlap Vrai pour relire aussi changes.resume-overlap-ms avant le curseur
+         */
+        private void resume(String cursor, boolean overlap) {
+            write(() -> {
+                List<TaskChange> page = changesSince(cursor, overlap);
+                if (!page.isEmpty() && !closed) {
+                    sink.accept(page);
+                }
+                return page.size() == backfillSize ? page.get(page.size() - 1).cursor() : null;
+            }, next -> {
+                if (next != null) {
+                    resume(next, false);
+                } else {
+                    goLive();
+                }
+            });
+        }
+
+        private void goLive() {
+            live = true;
+            schedule();
+        }
+
+        /**
+         * Exécute un envoi sur le pool d'écriture, puis {@code then} s'il aboutit dans changes.write-timeout-ms.
+         * L'abonné est déconnecté si l'envoi est refusé (pool saturé) ou trop long, désinscrit s'il échoue.
+         *
+         * @param send Envoi vers le client
+         * @param then Suite, appelée avec le résultat de l'envoi
+         */
+        private <T> void write(Supplier<T> send, Consumer<T> then) {
+            if (closed) {
+                return;
+            }
+            CompletableFuture<T> future;
+            try {
+                future = CompletableFuture.supplyAsync(send, writers);
+            } catch (RejectedExecutionException e) {
+                disconnect(); // Tous les threads d'écriture sont occupés par des clients bloqués
+                return;
+            }
+            future.orTimeout(writeTimeoutMs, TimeUnit.MILLISECONDS)
+                    .whenComplete((result, error) -> {
+                        if (error instanceof TimeoutException) {
+                            disconnect(); // Client bloqué : l'écriture en cours est abandonnée
+                        } else if (error != null) {
+                            LOGGER.debug("Task change subscriber closed", error); // Client déconnecté
+                            cancel();
+                        } else {
+                            then.accept(result);
+                        }
+                    });
+        }
+
+        /**
+         * Désinscrit l'abonné. Sans effet s'il l'est déjà.
+         */
+        public void cancel() {
+            closed = true;
+            subscriptions.remove(this);
+            buffer.clear();
+        }
+
+        private void offer(TaskChange change) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(change)) {
+                disconnect();
+                return;
+            }
+            schedule();
+        }
+
+        /**
+         * Déconnecte un abonné qui ne suit pas (file pleine, écriture trop longue ou refusée).
+         * onOverflow est appelé sur le thread courant, sans passer par le pool d'écriture qui peut être saturé :
+         * il ne doit pas attendre le client (SseEmitter.complete ne fait que planifier la fin de la réponse).
+         */
+        private void disconnect() {
+            if (closed) {
+                return;
+            }
+            cancel();
+            disconnectedCounter.increment();
+            onOverflow.run();
+        }
+
+        private void schedule() {
+            if (live && !closed && !buffer.isEmpty() && scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        /**
+         * Vide la file et confie l'envoi à un thread d'écriture, sans l'attendre : le pool partagé reste disponible
+         * pour les autres abonnés. L'abonné reste planifié jusqu'à la fin de l'écriture, ce qui préserve l'ordre.
+         */
+        private void drain() {
+            List<TaskChange> changes = new ArrayList<>();
+            buffer.drainTo(changes);
+            if (changes.isEmpty() || closed) {
+                scheduled.set(false);
+                schedule();
+                return;
+            }
+            write(() -> {
+                sink.accept(changes);
+                return changes;
+            }, sent -> {
+                scheduled.set(false);
+                schedule(); // Modifications arrivées pendant l'envoi
+            });
+        }
+    }
+}
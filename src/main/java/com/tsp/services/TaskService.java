@@ -1,22 +1,199 @@
 package com.tsp.services;
 
+import com.generic.ChangeCounters;
+import com.generic.GenericEntity;
 import com.generic.GenericService;
 import com.tsp.dtos.TaskInputDTO;
 import com.tsp.dtos.TaskOutputDTO;
+import com.tsp.enums.TaskStatus;
 import com.tsp.mappers.TaskMapper;
+import com.tsp.models.Log;
 import com.tsp.models.Task;
+import com.tsp.models.TaskSnapshot;
 import com.tsp.models.User;
+import com.tsp.repositories.LogRepository;
 import com.tsp.repositories.TaskRepository;
+import com.tsp.repositories.TaskSnapshotRepository;
+import com.utils.InvertedIndex;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class TaskService extends GenericService<Task, TaskInputDTO, TaskOutputDTO> {
 
     private final TaskRepository taskRepository;
+    private final LogRepository logRepository;
+    private final TaskSnapshotRepository snapshotRepository;
+    private final TaskMapper historyMapper = new TaskMapper();
+    private final TaskAuditListener auditListener;
+    private final TaskChangeFeed changeFeed;
+    private final TaskStatistics statistics;
+    private final DueDateScheduler dueDates;
+    private final ChangeCounters changeCounters;
+
+    // Index plein texte des titres et descriptions (le titre pèse plus lourd dans le classement)
+    private final InvertedIndex textIndex = new InvertedIndex(Map.of("title", 2.0, "description", 1.0));
 
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, LogRepository logRepository, TaskSnapshotRepository snapshotRepository,
+                       TaskAuditListener auditListener, TaskChangeFeed changeFeed, TaskStatistics statistics,
+                       DueDateScheduler dueDates, ChangeCounters changeCounters) {
         super(taskRepository, new TaskMapper());  // Passer le UserRepository à GenericService
         this.taskRepository = taskRepository;
+        this.logRepository = logRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.auditListener = auditListener;
+        this.changeFeed = changeFeed;
+        this.statistics = statistics;
+        this.dueDates = dueDates;
+        this.changeCounters = changeCounters;
+    }
+
+    /**
+     * Journalise, diffuse, compte dans les statistiques et replanifie les mises à jour partielles,
+     * qui ne passent pas par les écouteurs Hibernate. Le flux des modifications ne reçoit que les champs modifiés.
+     */
+    @Override
+    protected void afterPatch(Long id, Map<String, Object> values, Long oldVersion, Long newVersion) {
+        super.afterPatch(id, values, oldVersion, newVersion);
+        auditListener.capturePatch(id, values, oldVersion, newVersion, () -> taskRepository.findCurrent(id).orElse(null));
+        User user = (User) values.get("user"); // Référence : l'ID est lu sans requête
+        changeFeed.publishAfterCommit(TaskChangeFeed.UPDATED, new TaskOutputDTO(id,
+                (String) values.get("title"),
+                (String) values.get("color"),
+                (String) values.get("description"),
+                (LocalDateTime) values.get("dueDate"),
+                (TaskStatus) values.get("status"),
+                user == null ? null : user.getId(),
+                newVersion), GenericEntity.now());
+        statistics.patchAfterCommit(id, values);
+        dueDates.rescheduleAfterCommit(id, values);
+    }
+
+    /**
+     * Journalise et diffuse les suppressions logiques, faites par une requête UPDATE directe, et les retire
+     * des statistiques et du planificateur des échéances.
+     */
+    @Override
+    protected void afterDelete(Long id) {
+        super.afterDelete(id);
+        auditListener.captureDelete(List.of(id));
+        changeFeed.publishAfterCommit(TaskChangeFeed.DELETED, TaskChangeFeed.deleted(id, null), GenericEntity.now());
+        statistics.removeAfterCommit(id);
+        dueDates.cancelAfterCommit(id);
+    }
+
+    /**
+     * Fait passer en bloc des tâches échues au statut cible : une requête UPDATE (version incrémentée) pour tout
+     * le lot, puis une lecture des tâches effectivement modifiées, journalisées et diffusées comme un PATCH.
+     * Une tâche modifiée entre-temps (échéance repoussée, statut changé, suppression) est laissée telle quelle.
+     *
+     * @param ids    Identifiants des tâches dont l'échéance est passée
+     * @param from   Statuts qui peuvent passer au statut cible
+     * @param target Statut cible
+     * @return Identifiants des tâches modifiées
+     */
+    @Transactional
+    public List<Long> transitionOverdue(Collection<Long> ids, Collection<TaskStatus> from, TaskStatus target) {
+        LocalDateTime now = GenericEntity.now();
+        if (ids.isEmpty() || taskRepository.transitionOverdue(ids, from, target, now) == 0) {
+            return List.of();
+        }
+        List<Long> transitioned = new ArrayList<>();
+        for (Object[] row : taskRepository.findTransitioned(ids, target, now)) {
+            Long id = (Long) row[0];
+            Long version = (Long) row[1];
+            afterPatch(id, Map.of("status", target), version - 1, version);
+            transitioned.add(id);
+        }
+        changeCounters.incrementAfterCommit(Task.class);
+        return transitioned;
+    }
+
+    /**
+     * Reconstruit l'état d'une tâche à une version donnée.
+     * Part du snapshot le plus récent à cette version ou avant, puis rejoue les lignes du journal suivantes :
+     * le coût est borné par l'intervalle des snapshots, pas par la longueur de l'historique.
+     *
+     * @param id      Identifiant de la tâche
+     * @param version Version cible
+     * @return L'état de la tâche, ou vide si cette version n'est pas dans l'historique
+     */
+    @Transactional(readOnly = true)
+    public Optional<TaskOutputDTO> historyAtVersion(Long id, Long version) {
+        return snapshotRepository.findFirstByTaskIdAndVersionLessThanEqualOrderByVersionDesc(id, version)
+                .map(snapshot -> replay(snapshot, logRepository.findVersionsBetween(id, snapshot.version(), version)))
+                .filter(task -> task.version().equals(version))
+                .map(historyMapper::toOutputDTO);
+    }
+
+    /**
+     * Reconstruit l'état d'une tâche à une date donnée (dernière version écrite à cette date ou avant).
+     *
+     * @param id Identifiant de la tâche
+     * @param at Date cible
+     * @return L'état de la tâche, ou vide si la tâche n'existait pas encore à cette date
+     */
+    @Transactional(readOnly = true)
+    public Optional<TaskOutputDTO> historyAt(Long id, LocalDateTime at) {
+        return snapshotRepository.findFirstByTaskIdAndTakenAtLessThanEqualOrderByTakenAtDesc(id, at)
+                .map(snapshot -> replay(snapshot, logRepository.findVersionsUntil(id, snapshot.version(), at)))
+                .map(historyMapper::toOutputDTO);
+    }
+
+    /**
+     * Applique au snapshot les modifications journalisées, dans l'ordre des versions.
+     * Les champs absents du journal (couleur, échéance, utilisateur) sont ceux du snapshot : toute version qui
+     * les modifie donne lieu à un snapshot, ils ne changent donc pas entre le snapshot et la version cible.
+     *
+     * @param snapshot État de départ
+     * @param logs     Modifications postérieures au snapshot
+     * @return Une tâche détachée représentant l'état reconstruit
+     */
+    private Task replay(TaskSnapshot snapshot, List<Log> logs) {
+        Task task = new Task().setTitle(snapshot.title())
+                .setDescription(snapshot.description())
+                .setStatus(snapshot.status())
+                .setColor(snapshot.color())
+                .setDueDate(snapshot.dueDate())
+                .setVersion(snapshot.version());
+        task.setId(snapshot.task().getId());
+        User user = new User();
+        user.setId(snapshot.userId());
+        task.setUser(user);
+        for (Log log : logs) {
+            // Une valeur absente (PATCH partiel) signifie que le champ n'a pas changé
+            if (log.newTitle() != null) {
+                task.setTitle(log.newTitle());
+            }
+            if (log.newDescription() != null) {
+                task.setDescription(log.newDescription());
+            }
+            if (log.newStatus() != null) {
+                task.setStatus(log.newStatus());
+            }
+            task.setVersion(log.newVersion());
+        }
+        return task;
+    }
+
+    @Override
+    protected InvertedIndex fullTextIndex() {
+        return textIndex;
+    }
 
+    @Override
+    protected Map<String, String> fullTextDocument(Task task) {
+        Map<String, String> document = new HashMap<>();
+        document.put("title", task.title());
+        document.put("description", task.description());
+        return document;
     }
 }
@@ -0,0 +1,465 @@
+package com.tsp.services;
+
+import com.generic.GenericEntity;
+import com.tsp.enums.Countries;
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.Task;
+import com.tsp.models.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Statistiques des tâches (par statut, par utilisateur, par pays de l'utilisateur, en retard), tenues en mémoire
+ * et mises à jour à chaque écriture : leur lecture ne touche pas la base.
+ * <p>
+ * Les statistiques sont dérivées de l'état de chaque tâche (statut, utilisateur, échéance), conservé en mémoire
+ * comme l'index plein texte : une modification, même partielle, retire l'ancienne contribution de la tâche
+ * et ajoute la nouvelle. Les écritures Hibernate sont captées par des écouteurs post-commit ; les requêtes
+ * UPDATE directes (PATCH, suppression logique) sont signalées par {@link TaskService} et {@link UserService}.
+ * <p>
+ * Une tâche est en retard si son échéance est passée et qu'elle n'est ni terminée ni annulée. Les échéances
+ * à venir sont triées : chaque lecture fait passer en retard celles qui sont échues, sans parcourir les autres.
+ * <p>
+ * Les écritures faites hors de l'application (ou par une autre instance) ne sont pas vues : les compteurs
+ * sont comparés périodiquement (stats.reconcile-interval-ms) à des requêtes GROUP BY, et rechargés en cas d'écart.
+ */
+@Component
+public class TaskStatistics implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskStatistics.class);
+
+    // Statuts d'une tâche qui ne peut plus être en retard
+    public static final Set<TaskStatus> CLOSED = Collections.unmodifiableSet(EnumSet.of(TaskStatus.COMPLETED, TaskStatus.CANCELLED));
+
+    /**
+     * Statistiques des tâches non supprimées.
+     *
+     * @param total     Nombre de tâches
+     * @param byStatus  Tâches par statut
+     * @param byUser    Tâches par ID d'utilisateur
+     * @param byCountry Tâches par pays de l'utilisateur (les utilisateurs sans pays ne sont pas comptés)
+     * @param overdue   Tâches en retard
+     */
+    public record Stats(long total, Map<TaskStatus, Long> byStatus, Map<Long, Long> byUser,
+                        Map<Countries, Long> byCountry, long overdue) {
+    }
+
+    // Ce qui, d'une tâche, compte dans les statistiques
+    private record Facts(TaskStatus status, Long userId, LocalDateTime dueDate) {
+    }
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter driftCounter;
+    private final Object reloadLock = new Object();
+
+    // État protégé par le verrou de l'instance
+    private final Map<Long, Facts> tasks = new HashMap<>();
+    private final Map<Long, Countries> countries = new HashMap<>(); // Pays de chaque utilisateur (null : aucun)
+    private final Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+    private final Map<Long, Long> byUser = new HashMap<>();
+    private final Map<Countries, Long> byCountry = new EnumMap<>(Countries.class);
+    private final TreeMap<LocalDateTime, Long> upcoming = new TreeMap<>(); // Échéances pas encore passées
+    private long overdue;
+    private LocalDateTime overdueUntil; // Les échéances antérieures sont comptées dans overdue
+    private long revision; // Incrémentée à chaque modification
+    private List<Runnable> replay; // Modifications reçues pendant un rechargement
+    private Stats snapshot; // Dernières statistiques calculées, null si elles ont changé depuis
+    private volatile boolean ready;
+
+    public TaskStatistics(EntityManagerFactory entityManagerFactory, EntityManager entityManager,
+                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.driftCounter = Counter.builder("task.stats.drift")
+                .description("Écarts constatés entre les statistiques en mémoire et la base")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enregistre l'écouteur auprès de Hibernate.
+     */
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * Charge les statistiques en arrière-plan au démarrage de l'application.
+     * Tant que le chargement n'est pas terminé, {@link #stats()} ne renvoie rien.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread thread = new Thread(this::reload, "task-stats-load");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return Les statistiques courantes, ou vide tant qu'elles ne sont pas chargées
+     */
+    public Optional<Stats> stats() {
+        if (!ready) {
+            return Optional.empty();
+        }
+        LocalDateTime now = GenericEntity.now();
+        synchronized (this) {
+            advance(now);
+            if (snapshot == null) {
+                snapshot = new Stats(tasks.size(),
+                        Collections.unmodifiableMap(new EnumMap<>(byStatus)),
+                        Map.copyOf(byUser),
+                        Collections.unmodifiableMap(new EnumMap<>(byCountry)),
+                        overdue);
+            }
+            return Optional.of(snapshot);
+        }
+    }
+
+    /**
+     * Compare les compteurs aux requêtes GROUP BY de la base et les recharge en cas d'écart.
+     * La comparaison est abandonnée (et refaite à l'échéance suivante) si une écriture arrive pendant les requêtes.
+     *
+     * @return true si un écart a été corrigé
+     */
+    @Scheduled(fixedDelayString = "${stats.reconcile-interval-ms:600000}", initialDelayString = "${stats.reconcile-interval-ms:600000}")
+    public boolean reconcile() {
+        if (!ready) {
+            reload();
+            return false;
+        }
+        LocalDateTime now = GenericEntity.now();
+        long before;
+        synchronized (this) {
+            before = revision;
+        }
+        Stats database = transactionTemplate.execute(status -> countInDatabase(now));
+        synchronized (this) {
+            if (revision != before) {
+                return false;
+            }
+            advance(now);
+            if (database.byStatus().equals(byStatus) && database.byUser().equals(byUser)
+                    && database.byCountry().equals(byCountry) && database.overdue() == overdue) {
+                return false;
+            }
+        }
+        LOGGER.warn("Task statistics drifted from the database, reloading");
+        driftCounter.increment();
+        reload();
+        return true;
+    }
+
+    /**
+     * Recharge l'état des tâches et des utilisateurs depuis la base. Les modifications reçues pendant la lecture
+     * sont rejouées ensuite : elles portent l'état complet de la tâche, les rejouer est sans effet si la lecture
+     * les contenait déjà.
+     */
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                replay = new ArrayList<>();
+            }
+            try {
+                Map<Long, Countries> users = new HashMap<>();
+                Map<Long, Facts> facts = new HashMap<>();
+                transactionTemplate.executeWithoutResult(status -> {
+                    entityManager.createQuery("select u.id, u.country from User u", Object[].class)
+                            .getResultStream()
+                            .forEach(row -> users.put((Long) row[0], (Countries) row[1]));
+                    entityManager.createQuery("select t.id, t.status, t.user.id, t.dueDate from Task t", Object[].class)
+                            .getResultStream()
+                            .forEach(row -> facts.put((Long) row[0],
+                                    new Facts((TaskStatus) row[1], (Long) row[2], (LocalDateTime) row[3])));
+                });
+                synchronized (this) {
+                    tasks.clear();
+                    countries.clear();
+                    byStatus.clear();
+                    byUser.clear();
+                    byCountry.clear();
+                    upcoming.clear();
+                    overdue = 0;
+                    overdueUntil = null;
+                    countries.putAll(users);
+                    facts.forEach(this::putTask);
+                    replay.forEach(Runnable::run);
+                    revision++;
+                    snapshot = null;
+                }
+                ready = true;
+            } finally {
+                synchronized (this) {
+                    replay = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Prend en compte une mise à jour partielle (PATCH) après la validation de la transaction en cours.
+     *
+     * @param id     Identifiant de la tâche
+     * @param values Valeurs appliquées, par nom d'attribut
+     */
+    public void patchAfterCommit(Long id, Map<String, Object> values) {
+        boolean status = values.containsKey("status");
+        boolean user = values.containsKey("user");
+        boolean dueDate = values.containsKey("dueDate");
+        if (!status && !user && !dueDate) {
+            return;
+        }
+        User newUser = (User) values.get("user"); // Référence : l'ID est lu sans requête
+        Facts changes = new Facts((TaskStatus) values.get("status"), newUser == null ? null : newUser.getId(),
+                (LocalDateTime) values.get("dueDate"));
+        afterCommit(() -> {
+            Facts old = tasks.get(id);
+            if (old != null) { // Tâche inconnue : corrigée par la prochaine comparaison
+                putTask(id, new Facts(status ? changes.status() : old.status(),
+                        user ? changes.userId() : old.userId(),
+                        dueDate ? changes.dueDate() : old.dueDate()));
+            }
+        });
+    }
+
+    /**
+     * Retire une tâche supprimée par une requête directe, après la validation de la transaction en cours.
+     *
+     * @param id Identifiant de la tâche
+     */
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> removeTask(id));
+    }
+
+    /**
+     * Retire un utilisateur et toutes ses tâches, après la validation de la transaction en cours.
+     *
+     * @param userId Identifiant de l'utilisateur
+     */
+    public void removeUserAfterCommit(Long userId) {
+        afterCommit(() -> removeUser(userId));
+    }
+
+    /**
+     * Change le pays d'un utilisateur modifié par une requête directe, après la validation de la transaction en cours.
+     *
+     * @param userId  Identifiant de l'utilisateur
+     * @param country Nouveau pays, ou null
+     */
+    public void countryAfterCommit(Long userId, Countries country) {
+        afterCommit(() -> putUser(userId, country));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    private synchronized void apply(Runnable change) {
+        change.run();
+        if (replay != null) {
+            replay.add(change);
+        }
+        revision++;
+        snapshot = null;
+    }
+
+    private void putTask(Long id, Facts facts) {
+        Facts old = tasks.put(id, facts);
+        if (old != null) {
+            count(old, -1);
+        }
+        count(facts, 1);
+    }
+
+    private void removeTask(Long id) {
+        Facts old = tasks.remove(id);
+        if (old != null) {
+            count(old, -1);
+        }
+    }
+
+    private void removeUser(Long userId) {
+        tasks.values().removeIf(facts -> {
+            if (!userId.equals(facts.userId())) {
+                return false;
+            }
+            count(facts, -1);
+            return true;
+        });
+        countries.remove(userId);
+    }
+
+    private void putUser(Long userId, Countries country) {
+        boolean known = countries.containsKey(userId);
+        Countries old = countries.put(userId, country);
+        if (known && old == country) {
+            return;
+        }
+        long count = byUser.getOrDefault(userId, 0L);
+        if (count != 0) {
+            add(byCountry, old, -count);
+            add(byCountry, country, count);
+        }
+    }
+
+    private void count(Facts facts, int sign) {
+        add(byStatus, facts.status(), sign);
+        add(byUser, facts.userId(), sign);
+        add(byCountry, countries.get(facts.userId()), sign);
+        if (facts.dueDate() != null && !CLOSED.contains(facts.status())) {
+            if (overdueUntil != null && facts.dueDate().isBefore(overdueUntil)) {
+                overdue += sign;
+            } else {
+                add(upcoming, facts.dueDate(), sign);
+            }
+        }
+    }
+
+    // Fait passer en retard les échéances antérieures à now
+    private void advance(LocalDateTime now) {
+        if (overdueUntil != null && !now.isAfter(overdueUntil)) {
+            return;
+        }
+        Map<LocalDateTime, Long> due = upcoming.headMap(now, false);
+        if (!due.isEmpty()) {
+            overdue += due.values().stream().mapToLong(Long::longValue).sum();
+            due.clear();
+            snapshot = null;
+        }
+        overdueUntil = now;
+    }
+
+    private static <K> void add(Map<K, Long> counts, K key, long delta) {
+        if (key != null) {
+            counts.merge(key, delta, (count, change) -> count + change == 0 ? null : count + change);
+        }
+    }
+
+    private Stats countInDatabase(LocalDateTime now) {
+        Map<TaskStatus, Long> statuses = new EnumMap<>(TaskStatus.class);
+        Map<Long, Long> users = new HashMap<>();
+        Map<Countries, Long> countryCounts = new EnumMap<>(Countries.class);
+        entityManager.createQuery("select t.status, t.user.id, count(t) from Task t group by t.status, t.user.id", Object[].class)
+                .getResultStream()
+                .forEach(row -> {
+                    add(statuses, (TaskStatus) row[0], (Long) row[2]);
+                    add(users, (Long) row[1], (Long) row[2]);
+                });
+        entityManager.createQuery("select u.country, count(t) from Task t join t.user u group by u.country", Object[].class)
+                .getResultStream()
+                .forEach(row -> add(countryCounts, (Countries) row[0], (Long) row[1]));
+        long overdueCount = entityManager.createQuery("select count(t) from Task t where t.dueDate < :now"
+                        + " and t.status not in :closed", Long.class)
+                .setParameter("now", now)
+                .setParameter("closed", CLOSED)
+                .getSingleResult();
+        return new Stats(0, statuses, users, countryCounts, overdueCount);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Task.class || persister.getMappedClass() == User.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        onWrite(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onWrite(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Task task) {
+            apply(() -> removeTask(task.getId()));
+        } else if (event.getEntity() instanceof User user) {
+            apply(() -> removeUser(user.getId()));
+        }
+    }
+
+    private void onWrite(Object entity) {
+        if (entity instanceof Task task) {
+            Long id = task.getId();
+            if (task.isDeleted()) {
+                apply(() -> removeTask(id));
+            } else {
+                Facts facts = new Facts(task.status(), task.user() != null ? task.user().getId() : task.userId(), task.dueDate());
+                apply(() -> putTask(id, facts));
+            }
+        } else if (entity instanceof User user) {
+            Long id = user.getId();
+            Countries country = user.getCountry();
+            apply(user.isDeleted() ? () -> removeUser(id) : () -> putUser(id, country));
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Transaction annulée : rien n'a changé
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Transaction annulée : rien n'a changé
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Transaction annulée : rien n'a changé
+    }
+}
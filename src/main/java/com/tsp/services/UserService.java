@@ -1,22 +1,155 @@
 package com.tsp.services;
 
+import com.generic.ChangeCounters;
+import com.generic.GenericEntity;
+import com.generic.PatchResult;
 import com.tsp.dtos.UserInputDTO;
 import com.tsp.dtos.UserOutputDTO;
+import com.tsp.enums.Countries;
 import com.tsp.mappers.UserMapper;
+import com.tsp.repositories.TaskRepository;
 import com.tsp.repositories.UserRepository;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import com.generic.GenericService;
+import com.tsp.models.Task;
 import com.tsp.models.User;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class UserService extends GenericService<User, UserInputDTO, UserOutputDTO> {
 
     private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final SoftDeletePurgeJob purgeJob;
+    private final ChangeCounters changeCounters;
+    private final TaskChangeFeed changeFeed;
+    private final TaskStatistics statistics;
+    private final TaskAuditListener auditListener;
+    private final TaskService taskService;
 
     // Injection du UserRepository via le constructeur
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, TaskRepository taskRepository, SoftDeletePurgeJob purgeJob,
+                       ChangeCounters changeCounters, TaskChangeFeed changeFeed, TaskStatistics statistics,
+                       TaskAuditListener auditListener, TaskService taskService) {
         super(userRepository, new UserMapper());  // Passer le UserRepository à GenericService
         this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+        this.purgeJob = purgeJob;
+        this.changeCounters = changeCounters;
+        this.changeFeed = changeFeed;
+        this.statistics = statistics;
+        this.auditListener = auditListener;
+        this.taskService = taskService;
+    }
+
+    /**
+     * Crée un utilisateur après avoir vérifié que son nom n'est pas pris par un utilisateur non supprimé.
+     * Le nom d'un utilisateur supprimé logiquement peut être réutilisé sans attendre la purge.
+     *
+     * @throws DuplicateKeyException Si un utilisateur non supprimé porte déjà ce nom (réponse 409)
+     */
+    @Override
+    @Transactional
+    public UserOutputDTO create(UserInputDTO dto) {
+        if (dto.username() != null && userRepository.existsByUsername(dto.username())) {
+            throw usernameTaken(dto.username());
+        }
+        return super.create(dto);
+    }
+
+    /**
+     * Met à jour un utilisateur ; un nouveau nom d'utilisateur ne doit pas être pris par un autre utilisateur
+     * non supprimé.
+     *
+     * @throws DuplicateKeyException Si un autre utilisateur non supprimé porte déjà ce nom (réponse 409)
+     */
+    @Override
+    @Transactional
+    public UserOutputDTO update(Long id, UserInputDTO dto) {
+        if (dto.username() != null && userRepository.existsByUsernameAndIdNot(dto.username(), id)) {
+            throw usernameTaken(dto.username());
+        }
+        return super.update(id, dto);
+    }
+
+    /**
+     * Met à jour partiellement un utilisateur ; un nouveau nom d'utilisateur ne doit pas être pris par un autre
+     * utilisateur non supprimé.
+     *
+     * @throws DuplicateKeyException Si un autre utilisateur non supprimé porte déjà ce nom (réponse 409)
+     */
+    @Override
+    @Transactional
+    public Optional<PatchResult> patch(Long id, Map<String, Object> changes) {
+        if (changes.get("username") instanceof String username && userRepository.existsByUsernameAndIdNot(username, id)) {
+            throw usernameTaken(username);
+        }
+        return super.patch(id, changes);
+    }
+
+    /**
+     * Supprime logiquement un utilisateur et ses tâches : deux requêtes UPDATE, sans charger les tâches.
+     * Seuls les identifiants des tâches sont lus, pour journaliser la suppression de chacune.
+     * La suppression physique est faite par la purge, par petits lots.
+     *
+     * @param id Identifiant de l'utilisateur
+     */
+    @Override
+    @Transactional
+    public void delete(Long id) {
+        LocalDateTime now = GenericEntity.now();
+        List<Long> taskIds = taskRepository.findLiveIdsByUserId(id);
+        taskRepository.softDeleteByUserId(id, now);
+        auditListener.captureDelete(taskIds);
+        taskService.removeFromFullTextIndexAfterCommit(taskIds);
+        changeCounters.incrementAfterCommit(Task.class);
+        changeFeed.publishAfterCommit(TaskChangeFeed.DELETED, TaskChangeFeed.deleted(null, id), now);
+        statistics.removeUserAfterCommit(id);
+        super.delete(id);
+    }
+
+    /**
+     * Supprime physiquement et immédiatement un utilisateur, ses tâches et leur journal, par lots ensemblistes.
+     * Contrairement à la cascade JPA de {@link User#getTasks()}, aucune tâche n'est chargée en mémoire.
+     *
+     * @param id Identifiant de l'utilisateur
+     * @return L'avancement final (nombre de tâches supprimées), ou vide si l'utilisateur n'existe pas
+     */
+    public Optional<SoftDeletePurgeJob.UserPurgeProgress> purge(Long id) {
+        List<Long> taskIds = taskRepository.findLiveIdsByUserId(id);
+        Optional<SoftDeletePurgeJob.UserPurgeProgress> result = purgeJob.purgeUser(id, progress -> { });
+        if (result.isEmpty()) {
+            return result;
+        }
+        taskService.removeFromFullTextIndexAfterCommit(taskIds);
+        changeFeed.publishAfterCommit(TaskChangeFeed.DELETED, TaskChangeFeed.deleted(null, id), GenericEntity.now());
+        statistics.removeUserAfterCommit(id);
+        return result;
+    }
+
+    /**
+     * @param username Nom d'utilisateur déjà pris
+     * @return L'exception convertie en réponse 409 par le contrôleur
+     */
+    private static DuplicateKeyException usernameTaken(String username) {
+        return new DuplicateKeyException("Username '" + username + "' is already taken.");
+    }
+
+    /**
+     * Reporte dans les statistiques des tâches le changement de pays fait par une mise à jour partielle.
+     */
+    @Override
+    protected void afterPatch(Long id, Map<String, Object> values, Long oldVersion, Long newVersion) {
+        super.afterPatch(id, values, oldVersion, newVersion);
+        if (values.containsKey("country")) {
+            statistics.countryAfterCommit(id, (Countries) values.get("country"));
+        }
     }
 }
@@ -0,0 +1,283 @@
+package com.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé en mémoire pour la recherche plein texte.
+ * Chaque champ d'un document (identifié par son ID) est découpé en termes normalisés (minuscules, sans accents) ;
+ * pour chaque champ et chaque terme, l'index conserve les documents qui le contiennent et son poids dans chacun.
+ * La recherche porte sur un sous-ensemble des champs : elle fait correspondre chaque mot de la requête comme préfixe
+ * de terme, exige que tous les mots soient trouvés dans l'un de ces champs et classe les documents par pertinence
+ * (poids du terme × rareté du terme, type TF-IDF, additionnés sur les champs).
+ * <p>
+ * L'index est mis à jour incrémentalement ({@link #put}, {@link #remove}) ; les lectures sont concurrentes.
+ */
+public class InvertedIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Nombre maximal de termes pris en compte pour un préfixe (borne le coût des préfixes très courts).
+     */
+    private static final int MAX_PREFIX_EXPANSION = 256;
+
+    /**
+     * Réduction du score d'un terme trouvé par préfixe par rapport à un terme exact.
+     */
+    private static final double PREFIX_MATCH_FACTOR = 0.7;
+
+    private final Map<String, Double> fieldWeights;
+
+    // champ -> terme -> (ID du document -> poids du terme dans le champ du document)
+    private final Map<String, NavigableMap<String, Map<Long, Double>>> postings = new HashMap<>();
+    // ID du document -> champ -> termes indexés (pour les mises à jour et suppressions)
+    private final Map<Long, Map<String, Map<String, Double>>> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    /**
+     * @param fieldWeights Poids de chaque champ indexé (ex : titre plus important que la description)
+     */
+    public InvertedIndex(Map<String, Double> fieldWeights) {
+        this.fieldWeights = Map.copyOf(fieldWeights);
+    }
+
+    /**
+     * @return Les champs couverts par l'index
+     */
+    public Set<String> fields() {
+        return fieldWeights.keySet();
+    }
+
+    /**
+     * Indique si l'index est complet (reconstruction terminée) et peut servir les recherches.
+     *
+     * @return true si l'index est prêt
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    /**
+     * Indexe (ou réindexe) un document.
+     *
+     * @param id     ID du document
+     * @param fields Texte de chaque champ indexé
+     */
+    public void put(Long id, Map<String, String> fields) {
+        Map<String, Map<String, Double>> document = new HashMap<>();
+        fields.forEach((field, text) -> {
+            double weight = fieldWeights.getOrDefault(field, 0.0);
+            if (weight > 0) {
+                Map<String, Double> terms = new HashMap<>();
+                for (String term : tokenize(text)) {
+                    terms.merge(term, weight, Double::sum);
+                }
+                if (!terms.isEmpty()) {
+                    document.put(field, terms);
+                }
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            documents.put(id, document);
+            document.forEach((field, terms) -> {
+                NavigableMap<String, Map<Long, Double>> fieldPostings = postings.computeIfAbsent(field, k -> new TreeMap<>());
+                terms.forEach((term, weight) -> fieldPostings.computeIfAbsent(term, k -> new HashMap<>()).put(id, weight));
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire un document de l'index.
+     *
+     * @param id ID du document
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vide l'index avant une reconstruction.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Nombre de documents indexés
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recherche sur tous les champs indexés.
+     *
+     * @param query Texte recherché
+     * @param limit Nombre maximal d'IDs renvoyés
+     * @return IDs des documents, du plus pertinent au moins pertinent
+     * @see #search(String, Collection, int)
+     */
+    public List<Long> search(String query, int limit) {
+        return search(query, fields(), limit);
+    }
+
+    /**
+     * Recherche les documents dont les champs demandés contiennent tous les mots de la requête
+     * (chaque mot pouvant être un préfixe, et chaque mot pouvant être dans un champ différent),
+     * classés par pertinence décroissante.
+     *
+     * @param query  Texte recherché
+     * @param fields Champs dans lesquels chercher (les champs non indexés sont ignorés)
+     * @param limit  Nombre maximal d'IDs renvoyés
+     * @return IDs des documents, du plus pertinent au moins pertinent
+     */
+    public List<Long> search(String query, Collection<String> fields, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String word : words) {
+                Map<Long, Double> wordScores = scoreWord(word, fields);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    // Tous les mots doivent être présents : intersection des documents
+                    Map<Long, Double> previous = scores;
+                    scores = new HashMap<>();
+                    for (Map.Entry<Long, Double> entry : wordScores.entrySet()) {
+                        Double score = previous.get(entry.getKey());
+                        if (score != null) {
+                            scores.put(entry.getKey(), score + entry.getValue());
+                        }
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Calcule le score de chaque document pour un mot de la requête : dans chaque champ, le meilleur des termes
+     * commençant par ce mot, puis la somme sur les champs.
+     */
+    private Map<Long, Double> scoreWord(String word, Collection<String> fields) {
+        Map<Long, Double> scores = new HashMap<>();
+        int documentCount = Math.max(1, documents.size());
+        for (String field : Set.copyOf(fields)) {
+            NavigableMap<String, Map<Long, Double>> fieldPostings = postings.get(field);
+            if (fieldPostings == null) {
+                continue;
+            }
+            Map<Long, Double> fieldScores = new HashMap<>();
+            int expanded = 0;
+            for (Map.Entry<String, Map<Long, Double>> entry : fieldPostings.subMap(word, true, word + Character.MAX_VALUE, false).entrySet()) {
+                if (expanded++ >= MAX_PREFIX_EXPANSION) {
+                    break;
+                }
+                Map<Long, Double> postingList = entry.getValue();
+                double idf = Math.log(1.0 + (double) documentCount / postingList.size());
+                double factor = entry.getKey().equals(word) ? 1.0 : PREFIX_MATCH_FACTOR;
+                postingList.forEach((id, weight) -> fieldScores.merge(id, weight * idf * factor, Math::max));
+            }
+            fieldScores.forEach((id, score) -> scores.merge(id, score, Double::sum));
+        }
+        return scores;
+    }
+
+    private void removeLocked(Long id) {
+        Map<String, Map<String, Double>> document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        document.forEach((field, terms) -> {
+            NavigableMap<String, Map<Long, Double>> fieldPostings = postings.get(field);
+            for (String term : terms.keySet()) {
+                Map<Long, Double> postingList = fieldPostings.get(term);
+                if (postingList != null) {
+                    postingList.remove(id);
+                    if (postingList.isEmpty()) {
+                        fieldPostings.remove(term);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Découpe un texte en termes normalisés : minuscules, sans accents, séparés par tout caractère
+     * qui n'est ni une lettre ni un chiffre.
+     *
+     * @param text Texte à découper
+     * @return Les termes, dans l'ordre du texte
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String term : NON_WORD.split(normalized)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -1,19 +1,24 @@
 package com.utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import jakarta.annotation.PostConstruct;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
+import java.security.Key;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -23,10 +28,27 @@ import java.util.List;
  */
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final String SECRET_KEY;
+    // Parseur construit une seule fois avec la clé de signature déjà décodée (thread-safe)
+    private final JwtParser jwtParser;
+    private final VerifiedTokenCache tokenCache;
 
-    public JwtAuthenticationFilter(String secretKey) {
-        this.SECRET_KEY = secretKey;
+    /**
+     * @param secretKey  Clé secrète encodée en Base64, partagée avec {@code AuthService}
+     * @param tokenCache Cache des tokens déjà vérifiés
+     */
+    public JwtAuthenticationFilter(String secretKey, VerifiedTokenCache tokenCache) {
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey(secretKey)).build();
+        this.tokenCache = tokenCache;
+    }
+
+    /**
+     * Construit la clé HMAC-SHA256 à partir du secret encodé en Base64.
+     *
+     * @param secretKey Clé secrète encodée en Base64
+     * @return La clé de signature
+     */
+    public static Key signingKey(String secretKey) {
+        return new SecretKeySpec(Decoders.BASE64.decode(secretKey), SignatureAlgorithm.HS256.getJcaName());
     }
 
     /**
@@ -49,19 +71,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7); // Remove "Bearer " prefix
 
             try {
-                // Parse the JWT
-                Claims claims = Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
-
-                // Extract username and role from the token
-                String username = claims.getSubject();
-                String role = claims.get("role", String.class);
-
-                // Create authorities based on the role
-                List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(role));
+                VerifiedTokenCache.Entry entry = tokenCache.get(token);
+                if (entry == null) {
+                    entry = verify(token);
+                }
 
                 // Set the authentication object in the SecurityContext
                 PreAuthenticatedAuthenticationToken authentication =
-                        new PreAuthenticatedAuthenticationToken(username, null, authorities);
+                        new PreAuthenticatedAuthenticationToken(entry.username(), null, entry.authorities());
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             } catch (Exception e) {
                 System.out.println("Invalid JWT: " + e.getMessage());
@@ -70,4 +87,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         // Continue with the next filter
         filterChain.doFilter(request, response);
-    }}
+    }
+    /**
+     * Vérifie la signature et l'expiration d'un token, puis le met en cache jusqu'à son expiration.
+     *
+     * @param token Token JWT brut
+     * @return L'authentification extraite du token
+     */
+    private VerifiedTokenCache.Entry verify(String token) {
+        // Parse the JWT
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+
+        // Extract username and role from the token
+        String username = claims.getSubject();
+        String role = claims.get("role", String.class);
+
+        // Create authorities based on the role
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(role));
+
+        Date expiration = claims.getExpiration();
+        VerifiedTokenCache.Entry entry = new VerifiedTokenCache.Entry(
+                username, authorities, expiration != null ? expiration.getTime() : 0L);
+        if (expiration != null) {
+            tokenCache.put(token, entry); // Un token sans expiration n'est jamais mis en cache
+        }
+        return entry;
+    }
+}
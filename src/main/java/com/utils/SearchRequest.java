@@ -3,6 +3,8 @@ package com.utils;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 
 public class SearchRequest {
 
@@ -11,6 +13,10 @@ public class SearchRequest {
     private int size = 10;     // Nombre d'éléments par page, valeur par défaut : 10
     private List<String> searchableFields; // Champs recherchables
     private Map<String, Object> filters;
+    private String sortField;  // Champ de tri pour la pagination par curseur (ex : "updatedAt"), l'ID départage
+    private String sortDirection = "ASC"; // Sens du tri : ASC ou DESC
+    private String cursor;     // Jeton opaque renvoyé par la tranche précédente (nextCursor)
+    private boolean withCount = true; // false : renvoie une tranche sans COUNT(*)
 
     // Getters et Setters
 
@@ -58,4 +64,93 @@ public class SearchRequest {
         this.searchableFields = searchableFields;
         return this;
     }
+
+    public String sortField() {
+        return sortField;
+    }
+
+    public SearchRequest setSortField(String sortField) {
+        this.sortField = sortField;
+        return this;
+    }
+
+    public String sortDirection() {
+        return sortDirection;
+    }
+
+    public SearchRequest setSortDirection(String sortDirection) {
+        this.sortDirection = sortDirection;
+        return this;
+    }
+
+    public String cursor() {
+        return cursor;
+    }
+
+    public SearchRequest setCursor(String cursor) {
+        this.cursor = cursor;
+        return this;
+    }
+
+    public boolean withCount() {
+        return withCount;
+    }
+
+    public SearchRequest setWithCount(boolean withCount) {
+        this.withCount = withCount;
+        return this;
+    }
+
+    /**
+     * Indique si la recherche doit être paginée par curseur (keyset) plutôt que par OFFSET.
+     *
+     * @return true si un champ de tri ou un curseur est fourni
+     */
+    public boolean isKeyset() {
+        return sortField != null || cursor != null;
+    }
+
+    /**
+     * Critères de la recherche sous une forme canonique, triée par nom, à sérialiser pour calculer l'ETag :
+     * deux recherches égales (au sens de {@link #equals}) ont la même forme.
+     *
+     * @return Les critères, par nom
+     */
+    public Map<String, Object> canonicalForm() {
+        Map<String, Object> form = new TreeMap<>();
+        form.put("cursor", cursor);
+        form.put("filters", filters);
+        form.put("page", page);
+        form.put("searchTerm", searchTerm);
+        form.put("searchableFields", searchableFields);
+        form.put("size", size);
+        form.put("sortDirection", sortDirection);
+        form.put("sortField", sortField);
+        form.put("withCount", withCount);
+        return form;
+    }
+
+    // Égalité par valeur
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchRequest that)) {
+            return false;
+        }
+        return page == that.page && size == that.size && withCount == that.withCount
+                && Objects.equals(searchTerm, that.searchTerm)
+                && Objects.equals(searchableFields, that.searchableFields)
+                && Objects.equals(filters, that.filters)
+                && Objects.equals(sortField, that.sortField)
+                && Objects.equals(sortDirection, that.sortDirection)
+                && Objects.equals(cursor, that.cursor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(searchTerm, page, size, searchableFields, filters, sortField, sortDirection, cursor, withCount);
+    }
 }
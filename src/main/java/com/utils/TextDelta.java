@@ -0,0 +1,174 @@
+package com.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodage compact des textes longs du journal d'audit.
+ * <ul>
+ *     <li>{@link #compress} : texte UTF-8, compressé (Deflate) uniquement si cela réduit sa taille ;</li>
+ *     <li>{@link #diff} / {@link #apply} : différence entre deux versions d'un texte, réduite à l'unique zone modifiée
+ *     (longueurs du préfixe et du suffixe communs, puis texte remplacé). Une modification de quelques caractères
+ *     coûte quelques octets, quelle que soit la longueur du texte.</li>
+ * </ul>
+ */
+public final class TextDelta {
+
+    private static final byte RAW = 0;
+    private static final byte DEFLATED = 1;
+
+    private TextDelta() {
+    }
+
+    /**
+     * Encode un texte, compressé si la compression est rentable.
+     *
+     * @param text Texte à encoder (peut être null)
+     * @return Octets encodés, ou null si le texte est null
+     */
+    public static byte[] compress(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        byte[] deflated = deflate(utf8);
+        boolean useDeflated = deflated.length < utf8.length;
+        byte[] payload = useDeflated ? deflated : utf8;
+        byte[] encoded = new byte[payload.length + 1];
+        encoded[0] = useDeflated ? DEFLATED : RAW;
+        System.arraycopy(payload, 0, encoded, 1, payload.length);
+        return encoded;
+    }
+
+    /**
+     * Décode un texte encodé par {@link #compress}.
+     *
+     * @param encoded Octets encodés (peut être null)
+     * @return Le texte, ou null
+     */
+    public static String decompress(byte[] encoded) {
+        if (encoded == null) {
+            return null;
+        }
+        byte[] payload = Arrays.copyOfRange(encoded, 1, encoded.length);
+        byte[] utf8 = encoded[0] == DEFLATED ? inflate(payload) : payload;
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Calcule la différence permettant de retrouver {@code source} à partir de {@code target}.
+     *
+     * @param source Texte à reconstruire (ex : l'ancienne description)
+     * @param target Texte de référence conservé en entier (ex : la nouvelle description)
+     * @return La différence encodée, ou null si {@code source} est null
+     */
+    public static byte[] diff(String source, String target) {
+        if (source == null) {
+            return null;
+        }
+        String reference = target == null ? "" : target;
+        int max = Math.min(source.length(), reference.length());
+
+        int prefix = 0;
+        while (prefix < max && source.charAt(prefix) == reference.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix > 0 && Character.isHighSurrogate(source.charAt(prefix - 1))) {
+            prefix--; // Ne pas couper une paire de substitution
+        }
+        int suffix = 0;
+        while (suffix < max - prefix
+                && source.charAt(source.length() - 1 - suffix) == reference.charAt(reference.length() - 1 - suffix)) {
+            suffix++;
+        }
+        if (suffix > 0 && Character.isLowSurrogate(source.charAt(source.length() - suffix))) {
+            suffix--;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarInt(out, prefix);
+        writeVarInt(out, suffix);
+        out.writeBytes(compress(source.substring(prefix, source.length() - suffix)));
+        return out.toByteArray();
+    }
+
+    /**
+     * Reconstruit le texte source à partir du texte de référence et d'une différence calculée par {@link #diff}.
+     *
+     * @param target Texte de référence
+     * @param delta  Différence encodée (peut être null)
+     * @return Le texte source, ou null si la différence est null
+     */
+    public static String apply(String target, byte[] delta) {
+        if (delta == null) {
+            return null;
+        }
+        String reference = target == null ? "" : target;
+        int[] position = {0};
+        int prefix = readVarInt(delta, position);
+        int suffix = readVarInt(delta, position);
+        String middle = decompress(Arrays.copyOfRange(delta, position[0], delta.length));
+        return reference.substring(0, prefix) + middle + reference.substring(reference.length() - suffix);
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 3);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated deflate stream");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Invalid deflate stream", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(byte[] bytes, int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = bytes[position[0]++];
+            value |= (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return value;
+    }
+}
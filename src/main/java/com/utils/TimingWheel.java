@@ -0,0 +1,177 @@
+package com.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roue temporelle hiérarchique : planifie des échéances identifiées par une clé (ex : l'ID d'une tâche)
+ * et renvoie, à chaque avancée du temps, les clés dont l'échéance est passée.
+ * <p>
+ * Le temps est découpé en ticks de durée fixe. La roue compte plusieurs niveaux de 64 cases : le niveau 0
+ * couvre les 64 prochains ticks, chaque niveau suivant 64 fois plus. Une échéance est rangée au niveau du chiffre
+ * (en base 64) le plus élevé qui la distingue du tick courant ; lorsque le temps atteint sa case, elle redescend
+ * d'un niveau, jusqu'au niveau 0 où elle expire. Planifier et annuler coûtent O(1) quel que soit le nombre
+ * d'échéances ; une avancée ne parcourt que les cases atteintes.
+ * <p>
+ * Non thread-safe : l'appelant synchronise les accès.
+ */
+public class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = (Long.SIZE + SLOT_BITS - 1) / SLOT_BITS; // Couvre toute la plage d'un long
+
+    private final long tickMillis;
+    private final Node[][] slots = new Node[LEVELS][SLOTS]; // Tête de la liste doublement chaînée de chaque case
+    private final Map<Long, Node> nodes = new HashMap<>(); // Par clé, pour l'annulation
+    private final List<Long> expired = new ArrayList<>(); // Échéances déjà passées lors de leur planification
+    private long currentTick;
+
+    /**
+     * @param tickMillis Durée d'un tick (précision de la roue)
+     * @param nowMillis  Date courante
+     */
+    public TimingWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    /**
+     * Planifie (ou replanifie) l'échéance d'une clé. Une échéance déjà passée expire à la prochaine avancée.
+     *
+     * @param key            Clé
+     * @param deadlineMillis Échéance
+     */
+    public void schedule(long key, long deadlineMillis) {
+        cancel(key);
+        Node node = new Node(key, -Math.floorDiv(-deadlineMillis, tickMillis)); // Premier tick qui atteint l'échéance
+        nodes.put(key, node);
+        place(node);
+    }
+
+    /**
+     * Annule l'échéance d'une clé.
+     *
+     * @param key Clé
+     * @return true si la clé était planifiée
+     */
+    public boolean cancel(long key) {
+        Node node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        if (node.level < 0) {
+            expired.remove(Long.valueOf(node.key));
+        } else {
+            unlink(node);
+        }
+        return true;
+    }
+
+    /**
+     * Avance la roue jusqu'à une date et retire les clés échues.
+     *
+     * @param nowMillis Date courante
+     * @return Les clés dont l'échéance est antérieure ou égale à cette date
+     */
+    public List<Long> advance(long nowMillis) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        List<Long> due = new ArrayList<>(expired);
+        expired.clear();
+        if (nodes.size() == due.size()) {
+            currentTick = Math.max(currentTick, target); // Roue vide : inutile de parcourir les ticks
+        }
+        while (currentTick < target) {
+            currentTick++;
+            // Descend d'abord les niveaux supérieurs : leurs échéances peuvent tomber dans une case traitée ensuite
+            int level = Math.min(LEVELS - 1, Long.numberOfTrailingZeros(currentTick) / SLOT_BITS);
+            for (; level > 0; level--) {
+                cascade(level, slot(currentTick, level));
+            }
+            Node node = detach(0, slot(currentTick, 0));
+            for (; node != null; node = node.next) {
+                due.add(node.key);
+            }
+            due.addAll(expired); // Échéances de ce tick redescendues d'un niveau supérieur
+            expired.clear();
+        }
+        due.forEach(nodes::remove);
+        return due;
+    }
+
+    /**
+     * @return Le nombre d'échéances planifiées
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    private void place(Node node) {
+        if (node.tick <= currentTick) {
+            node.level = -1;
+            expired.add(node.key);
+            return;
+        }
+        // Chiffre le plus élevé qui diffère du tick courant
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(node.tick ^ currentTick)) / SLOT_BITS;
+        int slot = slot(node.tick, level);
+        node.level = level;
+        node.slot = slot;
+        node.prev = null;
+        node.next = slots[level][slot];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        slots[level][slot] = node;
+    }
+
+    private void cascade(int level, int slot) {
+        Node node = detach(level, slot);
+        while (node != null) {
+            Node next = node.next;
+            place(node);
+            node = next;
+        }
+    }
+
+    private Node detach(int level, int slot) {
+        Node head = slots[level][slot];
+        slots[level][slot] = null;
+        return head;
+    }
+
+    private void unlink(Node node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            slots[node.level][node.slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) ((tick >>> (level * SLOT_BITS)) & (SLOTS - 1));
+    }
+
+    private static final class Node {
+
+        private final long key;
+        private final long tick;
+        private int level; // -1 : échue, en attente de la prochaine avancée
+        private int slot;
+        private Node prev;
+        private Node next;
+
+        private Node(long key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.utils;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache borné des tokens JWT déjà vérifiés.
+ * Associe l'empreinte SHA-256 d'un token à l'utilisateur authentifié et à ses autorités,
+ * jusqu'à l'expiration du token (claim "exp") : une rafale de requêtes portant le même token
+ * ne paie la vérification de signature qu'une seule fois.
+ * Les compteurs de succès et d'échecs sont exposés via Micrometer.
+ */
+public class VerifiedTokenCache implements MeterBinder {
+
+    /**
+     * Authentification mise en cache pour un token.
+     *
+     * @param username    Nom d'utilisateur (subject du token)
+     * @param authorities Autorités dérivées du rôle
+     * @param expiresAt   Expiration du token, en millisecondes depuis l'epoch
+     */
+    public record Entry(String username, List<GrantedAuthority> authorities, long expiresAt) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxSize Nombre maximal de tokens conservés
+     */
+    public VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Recherche l'authentification associée à un token encore valide.
+     *
+     * @param token Token JWT brut
+     * @return L'entrée en cache, ou null si le token est inconnu ou expiré
+     */
+    public Entry get(String token) {
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            hits.increment();
+            return entry;
+        }
+        if (entry != null) {
+            entries.remove(key, entry); // Token expiré
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Met en cache l'authentification d'un token dont la signature vient d'être vérifiée.
+     *
+     * @param token Token JWT brut
+     * @param entry Authentification associée
+     */
+    public void put(String token, Entry entry) {
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(digest(token), entry);
+    }
+
+    /**
+     * Libère de la place : supprime d'abord les tokens expirés, puis, si le cache est encore plein,
+     * un dixième des entrées.
+     */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        Iterator<String> iterator = entries.keySet().iterator();
+        for (int removed = 0; entries.size() >= maxSize && iterator.hasNext() && removed < Math.max(1, maxSize / 10); removed++) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.cache.requests", this, VerifiedTokenCache::hitCount)
+                .tag("result", "hit")
+                .description("Tokens JWT trouvés dans le cache des tokens vérifiés")
+                .register(registry);
+        FunctionCounter.builder("jwt.cache.requests", this, VerifiedTokenCache::missCount)
+                .tag("result", "miss")
+                .description("Tokens JWT absents du cache des tokens vérifiés")
+                .register(registry);
+        Gauge.builder("jwt.cache.size", entries, Map::size)
+                .description("Nombre de tokens JWT dans le cache des tokens vérifiés")
+                .register(registry);
+    }
+
+    /**
+     * Calcule l'empreinte d'un token, afin de ne pas conserver les tokens bruts en mémoire.
+     *
+     * @param token Token JWT brut
+     * @return Empreinte SHA-256 encodée en Base64
+     */
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
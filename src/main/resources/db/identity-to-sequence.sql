@@ -0,0 +1,106 @@
+-- Migration des clés primaires IDENTITY vers des séquences (SQL Server).
+--
+-- GenericEntity génère désormais ses IDs depuis une séquence par entité (app_user_seq, task_seq, log_seq),
+-- allouée par blocs de 50, ce qui permet les insertions par lots JDBC.
+-- Les tables créées avec l'ancienne version ont une colonne id IDENTITY : Hibernate ne peut pas y insérer
+-- d'ID explicite. Ce script retire la propriété IDENTITY sans copier les lignes (ALTER TABLE ... SWITCH,
+-- opération de métadonnées) puis crée chaque séquence au-delà du plus grand ID existant.
+--
+-- À exécuter une seule fois, application arrêtée, avant de démarrer la nouvelle version.
+-- SWITCH exige des colonnes identiques et dans le même ordre : vérifier la structure réelle avec
+-- sp_help 'app_user' / 'task' / 'log' si les tables ont évolué via ddl-auto.
+
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+DECLARE @sql NVARCHAR(MAX) = N'';
+
+-- 1. Suppression des clés étrangères vers app_user et task (recréées à la fin)
+SELECT @sql += N'ALTER TABLE ' + QUOTENAME(OBJECT_NAME(parent_object_id)) + N' DROP CONSTRAINT ' + QUOTENAME(name) + N';'
+FROM sys.foreign_keys
+WHERE referenced_object_id IN (OBJECT_ID('app_user'), OBJECT_ID('task'));
+EXEC sp_executesql @sql;
+
+-- 2. Recréation des tables sans IDENTITY
+CREATE TABLE app_user_migration (
+    deleted bit not null,
+    created_at datetime2(6) not null,
+    deleted_at datetime2(6),
+    id bigint not null,
+    updated_at datetime2(6) not null,
+    username varchar(100) not null,
+    country varchar(255),
+    email varchar(255) not null,
+    password varchar(255) not null,
+    primary key (id)
+);
+ALTER TABLE app_user SWITCH TO app_user_migration;
+DROP TABLE app_user;
+EXEC sp_rename 'app_user_migration', 'app_user';
+
+CREATE TABLE task_migration (
+    deleted bit not null,
+    created_at datetime2(6) not null,
+    deleted_at datetime2(6),
+    due_date datetime2(6),
+    id bigint not null,
+    updated_at datetime2(6) not null,
+    user_id bigint not null,
+    version bigint,
+    title varchar(100) not null,
+    color varchar(255) not null,
+    description varchar(255) not null,
+    status varchar(255),
+    primary key (id)
+);
+ALTER TABLE task SWITCH TO task_migration;
+DROP TABLE task;
+EXEC sp_rename 'task_migration', 'task';
+
+CREATE TABLE log_migration (
+    deleted bit not null,
+    new_status smallint,
+    old_status smallint,
+    created_at datetime2(6) not null,
+    deleted_at datetime2(6),
+    id bigint not null,
+    new_version bigint,
+    old_version bigint,
+    task_id bigint not null,
+    timestamp datetime2(6),
+    updated_at datetime2(6) not null,
+    action varchar(255),
+    new_description varchar(255),
+    new_title varchar(255),
+    old_description varchar(255),
+    old_title varchar(255),
+    primary key (id)
+);
+ALTER TABLE log SWITCH TO log_migration;
+DROP TABLE log;
+EXEC sp_rename 'log_migration', 'log';
+
+-- 3. Séquences démarrant au-delà du plus grand ID (marge d'un bloc pour les optimiseurs pooled et pooled-lo).
+--    Une séquence créée par ddl-auto lors d'un démarrage précédent (start with 1) est remplacée.
+DECLARE @start BIGINT;
+
+IF OBJECT_ID('app_user_seq', 'SO') IS NOT NULL DROP SEQUENCE app_user_seq;
+SELECT @start = COALESCE(MAX(id), 0) + 51 FROM app_user;
+SET @sql = N'CREATE SEQUENCE app_user_seq START WITH ' + CAST(@start AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql;
+
+IF OBJECT_ID('task_seq', 'SO') IS NOT NULL DROP SEQUENCE task_seq;
+SELECT @start = COALESCE(MAX(id), 0) + 51 FROM task;
+SET @sql = N'CREATE SEQUENCE task_seq START WITH ' + CAST(@start AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql;
+
+IF OBJECT_ID('log_seq', 'SO') IS NOT NULL DROP SEQUENCE log_seq;
+SELECT @start = COALESCE(MAX(id), 0) + 51 FROM log;
+SET @sql = N'CREATE SEQUENCE log_seq START WITH ' + CAST(@start AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql;
+
+-- 4. Recréation des clés étrangères
+ALTER TABLE task ADD CONSTRAINT fk_task_user FOREIGN KEY (user_id) REFERENCES app_user (id);
+ALTER TABLE log ADD CONSTRAINT fk_log_task FOREIGN KEY (task_id) REFERENCES task (id);
+
+COMMIT TRANSACTION;
@@ -0,0 +1,17 @@
+-- Suppression des anciennes colonnes de description du journal (SQL Server).
+--
+-- Log stocke désormais la nouvelle description compressée (new_description_data) et l'ancienne sous forme
+-- de différence (old_description_delta). Les lignes existantes sont converties au démarrage de l'application
+-- avec audit.log.migrate-descriptions=true (voir LogDescriptionMigration).
+--
+-- À exécuter une fois la migration terminée : le script échoue si des lignes n'ont pas été converties.
+
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+IF EXISTS (SELECT 1 FROM log WHERE old_description IS NOT NULL OR new_description IS NOT NULL)
+    THROW 50001, 'Some log rows still hold plain descriptions: run the application with audit.log.migrate-descriptions=true first.', 1;
+
+ALTER TABLE log DROP COLUMN old_description, new_description;
+
+COMMIT TRANSACTION;
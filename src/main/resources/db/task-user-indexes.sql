@@ -0,0 +1,32 @@
+-- Index de lecture des tables task et app_user (SQL Server).
+--
+-- ddl-auto: update crée les index déclarés sur les entités mais ne supprime jamais les anciens.
+-- Ce script remplace les index (deleted, deleted_at), qui attiraient toutes les lectures filtrées par deleted = 0,
+-- par des index sur deleted_at seul (sélection de la purge), et crée les index des filtres de recherche
+-- s'ils n'existent pas encore. Il peut être exécuté plusieurs fois.
+--
+-- ux_app_user_username est recréé comme index unique filtré (WHERE deleted = 0) : un utilisateur supprimé
+-- logiquement garde son nom jusqu'à la purge, et ce nom peut être réutilisé par un nouvel utilisateur.
+-- L'ancien index unique non filtré, ou l'index non unique créé par ddl-auto, est remplacé.
+
+DROP INDEX IF EXISTS ix_task_deleted ON task;
+DROP INDEX IF EXISTS ix_app_user_deleted ON app_user;
+
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ux_app_user_username' AND object_id = OBJECT_ID('app_user')
+           AND (is_unique = 0 OR has_filter = 0))
+    DROP INDEX ux_app_user_username ON app_user;
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ux_app_user_username' AND object_id = OBJECT_ID('app_user'))
+    CREATE UNIQUE INDEX ux_app_user_username ON app_user (username) WHERE deleted = 0;
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_task_deleted_at' AND object_id = OBJECT_ID('task'))
+    CREATE INDEX ix_task_deleted_at ON task (deleted_at);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_app_user_deleted_at' AND object_id = OBJECT_ID('app_user'))
+    CREATE INDEX ix_app_user_deleted_at ON app_user (deleted_at);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_task_user_status' AND object_id = OBJECT_ID('task'))
+    CREATE INDEX ix_task_user_status ON task (user_id, status);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_task_status_due_date' AND object_id = OBJECT_ID('task'))
+    CREATE INDEX ix_task_status_due_date ON task (status, due_date);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_task_due_date' AND object_id = OBJECT_ID('task'))
+    CREATE INDEX ix_task_due_date ON task (due_date);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_task_updated' AND object_id = OBJECT_ID('task'))
+    CREATE INDEX ix_task_updated ON task (updated_at, id);
@@ -0,0 +1,139 @@
+package com.tsp.tsp;
+
+import com.generic.GenericController;
+import com.tsp.models.User;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.TaskService;
+import com.utils.JwtAuthenticationFilter;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Date;
+
+import static com.tsp.tsp.TestFixtures.awaitUntil;
+import static com.tsp.tsp.TestFixtures.saveUser;
+import static com.tsp.tsp.TestFixtures.task;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie, à travers la chaîne de filtres de sécurité, les réponses terminées par un dispatch ASYNC :
+ * le filtre JWT ne s'exécute qu'une fois, sur la requête initiale.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AsyncDispatchTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${jwt.secret}")
+    private String secretKey;
+
+    @Test
+    void authenticatedClientStreamsTasksAsNdjson() throws Exception {
+        User user = saveUser(userRepository, "ndjson-");
+        taskService.create(task("Streamed task", user));
+
+        MvcResult started = mockMvc.perform(get("/api/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("MANAGER"))
+                        .accept(GenericController.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(GenericController.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines()).isNotEmpty().allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+        assertThat(body).contains("\"Streamed task\"");
+    }
+
+    @Test
+    void streamIsForbiddenWithoutTheRequiredRole() throws Exception {
+        mockMvc.perform(get("/api/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("SUPERADMIN"))
+                        .accept(GenericController.APPLICATION_NDJSON))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void authenticatedClientReceivesChangesThroughTheLongPoll() throws Exception {
+        User user = saveUser(userRepository, "long-poll-");
+        MvcResult started = mockMvc.perform(get("/api/tasks/changes")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("MANAGER"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        taskService.create(task("Polled task", user));
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].type").value("created"))
+                .andExpect(jsonPath("$.changes[0].task.title").value("Polled task"))
+                .andExpect(jsonPath("$.cursor").isNotEmpty());
+    }
+
+    @Test
+    void authenticatedClientReceivesChangesThroughServerSentEvents() throws Exception {
+        User user = saveUser(userRepository, "sse-");
+        MvcResult started = mockMvc.perform(get("/api/tasks/changes")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("MANAGER"))
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk())
+                .andReturn();
+
+        taskService.create(task("Streamed event", user));
+
+        awaitUntil(() -> body(started).contains("Streamed event"), "the event is streamed");
+        assertThat(started.getResponse().getContentAsString())
+                .contains("event:created")
+                .contains("\"title\":\"Streamed event\"");
+    }
+
+    private static String body(MvcResult result) {
+        try {
+            return result.getResponse().getContentAsString();
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param role Rôle porté par le token
+     * @return En-tête Authorization avec un token signé comme ceux de {@code AuthService}
+     */
+    private String bearer(String role) {
+        return "Bearer " + Jwts.builder()
+                .claim("role", role)
+                .setSubject("async-dispatch")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(JwtAuthenticationFilter.signingKey(secretKey), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,110 @@
+package com.tsp.tsp;
+
+import com.tsp.dtos.TaskInputDTO;
+import com.tsp.dtos.TaskOutputDTO;
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.Log;
+import com.tsp.models.User;
+import com.tsp.repositories.LogRepository;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.AuditLogWriter;
+import com.tsp.services.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static com.tsp.tsp.TestFixtures.saveUser;
+import static com.tsp.tsp.TestFixtures.task;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie que les créations et modifications de tâches sont journalisées par l'écrivain asynchrone.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AuditLogTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Test
+    void createAndUpdateAreLogged() {
+        User user = userRepository.save(new User().setUsername("audit-" + System.nanoTime())
+                .setEmail("audit@tsp.io").setPassword("secret123"));
+        TaskOutputDTO created = taskService.create(new TaskInputDTO("Audited task", "Audited description",
+                "blue", null, TaskStatus.IN_PROGRESS, user.getId()));
+        taskService.update(created.id(), new TaskInputDTO("Audited task v2", "Audited description",
+                "blue", null, TaskStatus.COMPLETED, user.getId()));
+        auditLogWriter.flush();
+
+        List<Log> logs = logRepository.findAll().stream()
+                .filter(log -> log.task().getId().equals(created.id()))
+                .sorted(Comparator.comparing(Log::newVersion))
+                .toList();
+
+        assertThat(logs).hasSize(2);
+        assertThat(logs.get(0).action()).isEqualTo("Création");
+        assertThat(logs.get(0).newTitle()).isEqualTo("Audited task");
+        assertThat(logs.get(1).action()).isEqualTo("Modification");
+        assertThat(logs.get(1).oldTitle()).isEqualTo("Audited task");
+        assertThat(logs.get(1).newTitle()).isEqualTo("Audited task v2");
+        assertThat(logs.get(1).oldStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
+        assertThat(logs.get(1).newStatus()).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(logs.get(1).newVersion()).isEqualTo(logs.get(1).oldVersion() + 1);
+    }
+
+    @Test
+    void patchIsLoggedWithNewValuesOnly() {
+        User user = saveUser(userRepository, "audit-patch-");
+        TaskOutputDTO created = taskService.create(task("Patched audited task", user));
+        taskService.patch(created.id(), Map.of("title", "Patched audited task v2", "version", 0));
+        auditLogWriter.flush();
+
+        Log patch = logRepository.findVersionsBetween(created.id(), 0L, 1L).get(0);
+        assertThat(patch.action()).isEqualTo("Modification");
+        assertThat(patch.newTitle()).isEqualTo("Patched audited task v2");
+        assertThat(patch.oldTitle()).isNull();
+        assertThat(patch.oldStatus()).isNull();
+        assertThat(patch.newStatus()).isNull(); // Champ non modifié
+        assertThat(patch.oldVersion()).isZero();
+        assertThat(patch.newVersion()).isEqualTo(1L);
+
+        // L'état précédent se lit dans l'historique
+        assertThat(taskService.historyAtVersion(created.id(), patch.oldVersion()).orElseThrow().title())
+                .isEqualTo("Patched audited task");
+    }
+
+    @Test
+    void flushWaitsForEntriesAlreadyTakenByTheWriterThread() {
+        User user = userRepository.save(new User().setUsername("audit-" + System.nanoTime())
+                .setEmail("audit@tsp.io").setPassword("secret123"));
+        TaskOutputDTO created = taskService.create(new TaskInputDTO("Flushed task", "Flushed description",
+                "blue", null, TaskStatus.IN_PROGRESS, user.getId()));
+        auditLogWriter.flush();
+
+        // Chaque entrée est déposée puis immédiatement attendue : le thread d'écriture l'a souvent déjà retirée de la file
+        for (long version = 1; version <= 50; version++) {
+            auditLogWriter.enqueue(new AuditLogWriter.Entry(created.id(), "Modification", LocalDateTime.now(),
+                    null, "Flushed task " + version, null, null, null, null, version - 1, version, null, System.nanoTime()));
+            auditLogWriter.flush();
+            assertThat(logRepository.findVersionsBetween(created.id(), version - 1, version))
+                    .extracting(Log::newVersion)
+                    .contains(version);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.tsp.tsp;
+
+import com.generic.BatchItem;
+import com.generic.BatchResult;
+import com.tsp.dtos.TaskInputDTO;
+import com.tsp.dtos.TaskOutputDTO;
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.User;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie que les éléments invalides d'un lot sont rejetés un par un, sans annuler les autres.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BatchTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User().setUsername("batch-" + System.nanoTime()).setEmail("batch@tsp.io").setPassword("secret123"));
+    }
+
+    @Test
+    void createAllRejectsOnlyTheInvalidItems() {
+        List<BatchResult<TaskOutputDTO>> results = taskService.createAll(List.of(
+                input("Valid batch task", "A valid description"),
+                input("Bad", "A valid description"), // Titre trop court
+                input("Another valid task", "short"))); // Description trop courte
+
+        assertThat(results.get(0).error()).isNull();
+        assertThat(results.get(0).result().id()).isNotNull();
+        assertThat(results.get(1).result()).isNull();
+        assertThat(results.get(1).error()).contains("title");
+        assertThat(results.get(2).error()).contains("description");
+        assertThat(taskService.getById(results.get(0).result().id())).isPresent();
+    }
+
+    @Test
+    void updateAllValidatesOnlyTheProvidedValues() {
+        TaskOutputDTO first = taskService.create(input("First batch task", "A valid description"));
+        TaskOutputDTO second = taskService.create(input("Second batch task", "A valid description"));
+
+        List<BatchResult<TaskOutputDTO>> results = taskService.updateAll(List.of(
+                new BatchItem<>(first.id(), new TaskInputDTO("Renamed batch task", null, null, null, TaskStatus.REVIEW, null)),
+                new BatchItem<>(second.id(), new TaskInputDTO("Bad", null, null, null, TaskStatus.REVIEW, null))));
+
+        assertThat(results.get(0).error()).isNull();
+        assertThat(results.get(0).result().title()).isEqualTo("Renamed batch task");
+        assertThat(results.get(1).error()).contains("title");
+        assertThat(taskService.getById(second.id()).orElseThrow().title()).isEqualTo("Second batch task");
+    }
+
+    private TaskInputDTO input(String title, String description) {
+        return new TaskInputDTO(title, description, "blue", null, TaskStatus.PENDING, user.getId());
+    }
+}
@@ -0,0 +1,103 @@
+package com.tsp.tsp;
+
+import com.tsp.dtos.TaskOutputDTO;
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.User;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.AuditLogWriter;
+import com.tsp.services.DueDateScheduler;
+import com.tsp.services.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static com.tsp.tsp.TestFixtures.awaitUntil;
+import static com.tsp.tsp.TestFixtures.saveUser;
+import static com.tsp.tsp.TestFixtures.task;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie le passage des tâches échues au statut des tâches en retard, la replanification et le rattrapage.
+ */
+@SpringBootTest(properties = {"due.enabled=true", "due.tick-ms=50", "due.sweep-interval-ms=86400000"})
+@ActiveProfiles("test")
+class DueDateSchedulerTests {
+
+    @Autowired
+    private DueDateScheduler scheduler;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void openTasksChangeStatusWhenTheirDueDatePasses() throws InterruptedException {
+        User user = saveUser(userRepository, "due-open-");
+        TaskOutputDTO due = taskService.create(task("Due soon task", user, TaskStatus.PENDING, dueIn(1000)));
+        TaskOutputDTO completed = taskService.create(task("Completed due task", user, TaskStatus.COMPLETED, dueIn(1000)));
+        TaskOutputDTO later = taskService.create(task("Due later task", user, TaskStatus.PENDING, dueIn(86_400_000)));
+
+        TaskOutputDTO transitioned = awaitStatus(due.id(), TaskStatus.ON_HOLD);
+        assertThat(transitioned.version()).isEqualTo(1L);
+        assertThat(taskService.getById(completed.id()).orElseThrow().status()).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(taskService.getById(later.id()).orElseThrow().version()).isZero();
+
+        auditLogWriter.flush(); // Passage journalisé comme un PATCH : l'historique reste continu
+        assertThat(taskService.historyAtVersion(due.id(), 1L).orElseThrow().status()).isEqualTo(TaskStatus.ON_HOLD);
+    }
+
+    @Test
+    void rescheduledAndDeletedTasksAreNotTransitioned() throws InterruptedException {
+        User user = saveUser(userRepository, "due-moved-");
+        TaskOutputDTO moved = taskService.create(task("Moved due task", user, TaskStatus.PENDING, dueIn(1000)));
+        TaskOutputDTO deleted = taskService.create(task("Deleted due task", user, TaskStatus.PENDING, dueIn(1000)));
+        TaskOutputDTO witness = taskService.create(task("Witness due task", user, TaskStatus.PENDING, dueIn(1500)));
+        taskService.patch(moved.id(), Map.of("dueDate", LocalDateTime.now().plusDays(1).toString(), "version", 0));
+        taskService.delete(deleted.id());
+
+        awaitStatus(witness.id(), TaskStatus.ON_HOLD); // Les échéances antérieures sont passées
+        TaskOutputDTO unchanged = taskService.getById(moved.id()).orElseThrow();
+        assertThat(unchanged.status()).isEqualTo(TaskStatus.PENDING);
+        assertThat(unchanged.version()).isEqualTo(1L); // Seul le PATCH
+        assertThat(jdbcTemplate.queryForObject("select status from task where id = ?", String.class, deleted.id()))
+                .isEqualTo("PENDING");
+    }
+
+    @Test
+    void sweepCatchesUpDueDatesTheWheelMissed() {
+        User user = saveUser(userRepository, "due-sweep-");
+        TaskOutputDTO task = taskService.create(task("Swept due task", user, TaskStatus.IN_PROGRESS, dueIn(86_400_000)));
+
+        // Écriture hors de l'application : la roue planifie encore l'ancienne échéance
+        jdbcTemplate.update("update task set due_date = ? where id = ?", LocalDateTime.now().minusHours(1), task.id());
+        assertThat(scheduler.sweep(LocalDateTime.now())).isPositive();
+        assertThat(taskService.getById(task.id()).orElseThrow().status()).isEqualTo(TaskStatus.ON_HOLD);
+    }
+
+    private TaskOutputDTO awaitStatus(Long id, TaskStatus status) throws InterruptedException {
+        awaitUntil(() -> taskService.getById(id).orElseThrow().status() == status, "task " + id + " reaches " + status);
+        return taskService.getById(id).orElseThrow();
+    }
+
+    /**
+     * @param millis Délai avant l'échéance : assez long pour que les écritures qui la précèdent dans le test
+     *               soient faites avant, l'attente du passage s'arrêtant dès qu'il a eu lieu
+     * @return L'échéance
+     */
+    private static LocalDateTime dueIn(long millis) {
+        return LocalDateTime.now().plusNanos(millis * 1_000_000);
+    }
+}
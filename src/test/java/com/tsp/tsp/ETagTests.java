@@ -0,0 +1,132 @@
+package com.tsp.tsp;
+
+import com.tsp.controllers.TaskController;
+import com.tsp.controllers.UserController;
+import com.tsp.dtos.TaskOutputDTO;
+import com.tsp.dtos.UserInputDTO;
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.User;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.AuditLogWriter;
+import com.tsp.services.TaskService;
+import com.tsp.services.UserService;
+import com.utils.SearchRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.tsp.tsp.TestFixtures.saveUser;
+import static com.tsp.tsp.TestFixtures.task;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie les ETags et les réponses 304 des lectures génériques.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ETagTests {
+
+    @Autowired
+    private TaskController taskController;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void unchangedTaskIsNotModifiedWithoutLoadingIt() {
+        TaskOutputDTO task = taskService.create(task("ETag task", saveUser(userRepository, "etag-task-")));
+        auditLogWriter.flush();
+
+        ResponseEntity<TaskOutputDTO> first = taskController.getById(task.id(), null);
+        assertThat(first.getHeaders().getETag()).isEqualTo("\"0\"");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ResponseEntity<TaskOutputDTO> second = taskController.getById(task.id(), "\"0\"");
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(second.getBody()).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1); // Lecture de la version uniquement
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        taskService.patch(task.id(), Map.of("status", "review", "version", 0));
+        ResponseEntity<TaskOutputDTO> third = taskController.getById(task.id(), "\"0\"");
+        assertThat(third.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(third.getHeaders().getETag()).isEqualTo("\"1\"");
+        assertThat(third.getBody().status()).isEqualTo(TaskStatus.REVIEW);
+    }
+
+    @Test
+    void unversionedEntityIsTaggedByUpdatedAt() {
+        User user = saveUser(userRepository, "etag-user-");
+        String eTag = userController.getById(user.getId(), null).getHeaders().getETag();
+        assertThat(userController.getById(user.getId(), eTag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        userService.update(user.getId(), new UserInputDTO(null, "changed@tsp.io", null, null));
+        assertThat(userController.getById(user.getId(), eTag).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void listAndSearchFollowTheTableChangeCounter() {
+        User user = saveUser(userRepository, "etag-list-");
+        TaskOutputDTO task = taskService.create(task("ETag listed task", user));
+        SearchRequest search = new SearchRequest().setFilters(Map.of("title", "ETag listed task"));
+
+        String listETag = taskController.getAll(null).getHeaders().getETag();
+        String searchETag = taskController.search(search, null).getHeaders().getETag();
+        assertThat(taskController.getAll(listETag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(taskController.search(new SearchRequest().setFilters(Map.of("title", "ETag listed task")), searchETag)
+                .getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(taskController.search(new SearchRequest().setFilters(Map.of("title", "Other task")), searchETag)
+                .getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        taskService.delete(task.id()); // Requête UPDATE directe : compteur incrémenté après validation
+        assertThat(taskController.getAll(listETag).getStatusCode()).isEqualTo(HttpStatus.OK);
+        ResponseEntity<?> afterDelete = taskController.search(search, searchETag);
+        assertThat(afterDelete.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(afterDelete.getHeaders().getETag()).isNotEqualTo(searchETag);
+    }
+
+    @Test
+    void searchETagIdentifiesTheCriteria() {
+        String eTag = taskController.search(new SearchRequest().setSearchTerm("Aa")
+                .setSearchableFields(List.of("title")), null).getHeaders().getETag();
+        // "Aa" et "BB" ont le même hashCode
+        assertThat(taskController.search(new SearchRequest().setSearchTerm("BB")
+                .setSearchableFields(List.of("title")), eTag).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        Map<String, Object> filters = new LinkedHashMap<>();
+        filters.put("status", "PENDING");
+        filters.put("color", "blue");
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("color", "blue");
+        reordered.put("status", "PENDING");
+        String filteredETag = taskController.search(new SearchRequest().setFilters(filters), null).getHeaders().getETag();
+        assertThat(taskController.search(new SearchRequest().setFilters(reordered), filteredETag).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+}
@@ -0,0 +1,43 @@
+package com.tsp.tsp;
+
+import com.tsp.models.Log;
+import com.utils.TextDelta;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie l'encodage compact des descriptions du journal et le gain de place par ligne.
+ * Le temps d'encodage et de décodage est mesuré par LogDescriptionEncodingBenchmark (profil benchmarks).
+ */
+class LogDescriptionEncodingTests {
+
+    private static final String DESCRIPTION = ("Préparer la revue trimestrielle : rassembler les indicateurs de chaque équipe, "
+            + "vérifier les écarts avec le budget, rédiger la synthèse et planifier la présentation au comité. ").repeat(8);
+
+    @Test
+    void descriptionsRoundTrip() {
+        String edited = DESCRIPTION.replace("comité", "comité de direction");
+        Log log = new Log().setOldDescription(DESCRIPTION).setNewDescription(edited);
+
+        assertThat(log.oldDescription()).isEqualTo(DESCRIPTION);
+        assertThat(log.newDescription()).isEqualTo(edited);
+
+        // Valeurs limites : création (pas d'ancienne description), texte vidé, caractères hors BMP
+        assertThat(TextDelta.apply("nouveau", TextDelta.diff(null, "nouveau"))).isNull();
+        assertThat(TextDelta.apply("", TextDelta.diff("ancien texte", ""))).isEqualTo("ancien texte");
+        assertThat(TextDelta.apply("a😀b", TextDelta.diff("a😁b", "a😀b"))).isEqualTo("a😁b");
+        assertThat(TextDelta.decompress(TextDelta.compress("court"))).isEqualTo("court");
+    }
+
+    @Test
+    void encodedRowIsMuchSmallerThanTwoFullCopies() {
+        String edited = DESCRIPTION.substring(0, 400) + "(mis à jour) " + DESCRIPTION.substring(400);
+        int plainBytes = DESCRIPTION.getBytes(StandardCharsets.UTF_8).length + edited.getBytes(StandardCharsets.UTF_8).length;
+        int encodedBytes = TextDelta.compress(edited).length + TextDelta.diff(DESCRIPTION, edited).length;
+
+        assertThat(encodedBytes).isLessThan(plainBytes / 4);
+    }
+}
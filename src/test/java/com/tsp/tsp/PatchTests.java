@@ -0,0 +1,109 @@
+package com.tsp.tsp;
+
+import com.generic.PatchResult;
+import com.tsp.dtos.TaskInputDTO;
+import com.tsp.dtos.TaskOutputDTO;
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.User;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.AuditLogWriter;
+import com.tsp.services.TaskService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Vérifie la mise à jour partielle en une seule requête avec contrôle de version.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.tsp.tsp.PatchTests$CallerStatements")
+@ActiveProfiles("test")
+class PatchTests {
+
+    /**
+     * Enregistre les requêtes SQL émises par le thread du test uniquement
+     * (le journal d'audit est écrit en parallèle par son propre thread).
+     */
+    public static class CallerStatements implements StatementInspector {
+
+        static volatile Thread caller;
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == caller) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    private TaskOutputDTO task;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(new User().setUsername("patch-" + System.nanoTime())
+                .setEmail("patch@tsp.io").setPassword("secret123"));
+        task = taskService.create(new TaskInputDTO("Patched task", "Patched description", "orange", null,
+                TaskStatus.PENDING, user.getId()));
+        auditLogWriter.flush();
+    }
+
+    @Test
+    void patchIsOneStatementAndReturnsNewVersion() {
+        CallerStatements.statements.clear();
+        CallerStatements.caller = Thread.currentThread();
+        PatchResult result = taskService.patch(task.id(), Map.of("status", "review", "version", 0)).orElseThrow();
+        CallerStatements.caller = null;
+
+        assertThat(CallerStatements.statements).singleElement().asString().startsWith("update task");
+        assertThat(result.version()).isEqualTo(1L);
+        TaskOutputDTO patched = taskService.getById(task.id()).orElseThrow();
+        assertThat(patched.status()).isEqualTo(TaskStatus.REVIEW);
+        assertThat(patched.title()).isEqualTo("Patched task");
+        assertThat(patched.version()).isEqualTo(1L);
+    }
+
+    @Test
+    void staleVersionIsRejected() {
+        taskService.patch(task.id(), Map.of("title", "Patched once", "version", 0));
+
+        assertThatThrownBy(() -> taskService.patch(task.id(), Map.of("title", "Patched twice", "version", 0)))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(taskService.getById(task.id()).orElseThrow().title()).isEqualTo("Patched once");
+    }
+
+    @Test
+    void invalidPatchesAreRejectedBeforeTheDatabase() {
+        assertThatThrownBy(() -> taskService.patch(task.id(), Map.of("title", "abc", "version", 0)))
+                .isInstanceOf(IllegalArgumentException.class); // @Size(min = 5)
+        assertThatThrownBy(() -> taskService.patch(task.id(), Map.of("createdAt", "2020-01-01T00:00:00", "version", 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> taskService.patch(task.id(), Map.of("title", "Missing version")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> taskService.patch(task.id(), Map.of("userId", Long.MAX_VALUE, "version", 0)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not found");
+        assertThat(taskService.getById(task.id()).orElseThrow().version()).isZero();
+        assertThat(taskService.patch(Long.MAX_VALUE, Map.of("title", "Unknown task", "version", 0))).isEmpty();
+    }
+}
@@ -0,0 +1,208 @@
+package com.tsp.tsp;
+
+import com.generic.KeysetCursor;
+import com.tsp.dtos.TaskInputDTO;
+import com.tsp.dtos.TaskOutputDTO;
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.User;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.AuditLogWriter;
+import com.tsp.services.DueDateScheduler;
+import com.tsp.services.SoftDeletePurgeJob;
+import com.tsp.services.TaskChangeFeed;
+import com.tsp.services.TaskService;
+import com.tsp.services.UserService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie, par EXPLAIN sur H2, que les requêtes générées par GenericService et les services utilisent un index :
+ * un filtre ou une jointure qui redevient un parcours complet de table fait échouer le test.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.tsp.tsp.QueryPlanTests$RecordedStatements")
+@ActiveProfiles("test")
+class QueryPlanTests {
+
+    /**
+     * Enregistre les requêtes SQL émises pendant un scénario, tous threads confondus.
+     */
+    public static class RecordedStatements implements StatementInspector {
+
+        static volatile boolean recording;
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (recording) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SoftDeletePurgeJob purgeJob;
+
+    @Autowired
+    private TaskChangeFeed changeFeed;
+
+    @Autowired
+    private DueDateScheduler dueDateScheduler;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private TaskOutputDTO task;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User().setUsername("plan-" + System.nanoTime())
+                .setEmail("plan@tsp.io").setPassword("secret123"));
+        task = taskService.create(new TaskInputDTO("Planned task", "Planned description", "teal",
+                LocalDateTime.of(2030, 1, 1, 12, 0), TaskStatus.PENDING, user.getId()));
+        taskService.patch(task.id(), Map.of("status", "review", "version", 0));
+        auditLogWriter.flush();
+        jdbcTemplate.execute("analyze"); // Statistiques de sélectivité, comme celles de la base en production
+        RecordedStatements.statements.clear();
+        RecordedStatements.recording = true;
+    }
+
+    @AfterEach
+    void stopRecording() {
+        RecordedStatements.recording = false;
+    }
+
+    @Test
+    void searchFiltersUseIndexes() {
+        // H2 indexe aussi chaque clé étrangère (user_id seul) ; SQL Server non, d'où ix_task_user_status
+        search(Map.of("userId", user.getId()));
+        assertUses("USER_ID = ?");
+
+        search(Map.of("userId", user.getId(), "status", "review"));
+        assertUses("IX_TASK_USER_STATUS");
+
+        search(Map.of("status", "review"));
+        assertUses("IX_TASK_STATUS_DUE_DATE");
+
+        search(Map.of("dueDate", "2030-01-01T12:00:00"));
+        assertUses("IX_TASK_DUE_DATE");
+
+        taskService.search(taskService.buildSearchSpecification(null, null, Map.of("userId", user.getId())),
+                PageRequest.of(0, 10)); // Avec COUNT(*)
+        assertUses("USER_ID = ?");
+    }
+
+    @Test
+    void keysetPagesUseTheSortIndex() {
+        var firstPage = taskService.searchKeyset(taskService.buildSearchSpecification(null, null, Map.of()),
+                "dueDate", "ASC", null, 1);
+        taskService.searchKeyset(taskService.buildSearchSpecification(null, null, Map.of()),
+                "dueDate", "ASC", firstPage.getNextCursor(), 1);
+        assertUses("IX_TASK_DUE_DATE");
+    }
+
+    @Test
+    void lookupsAndHistoryUseIndexes() {
+        userRepository.findByUsername(user.getUsername());
+        assertUses("UX_APP_USER_USERNAME");
+
+        taskService.currentETag(task.id());
+        assertUses("PRIMARY_KEY");
+
+        taskService.historyAtVersion(task.id(), 1L);
+        assertUses("IX_TASK_SNAPSHOT_TASK_VERSION", "IX_LOG_TASK_VERSION");
+
+        taskService.historyAt(task.id(), LocalDateTime.now());
+        assertUses("IX_TASK_SNAPSHOT_TASK_TAKEN_AT", "IX_LOG_TASK");
+    }
+
+    @Test
+    void changeFeedResumeUsesTheCursorIndex() throws Exception {
+        // Curseur antérieur à la tâche du jeu de test : la reprise la relit et l'attente se termine aussitôt
+        String cursor = new KeysetCursor("updatedAt", Sort.Direction.ASC, 0L, LocalDateTime.now().minusMinutes(1).toString()).encode();
+        changeFeed.poll(cursor).get(5, TimeUnit.SECONDS);
+        assertUses("IX_TASK_UPDATED");
+    }
+
+    @Test
+    void deletesAndPurgesUseIndexes() {
+        userService.delete(user.getId());
+        assertUses("USER_ID = ?", "PRIMARY_KEY");
+
+        jdbcTemplate.update("update task set deleted_at = dateadd('DAY', -30, deleted_at) where user_id = ?", user.getId());
+        jdbcTemplate.update("update app_user set deleted_at = dateadd('DAY', -30, deleted_at) where id = ?", user.getId());
+        purgeJob.purge();
+        assertUses("IX_TASK_DELETED_AT", "TASK_ID = ?", "IX_APP_USER_DELETED_AT");
+    }
+
+    @Test
+    void overdueSweepUsesTheStatusDueDateIndex() {
+        jdbcTemplate.update("update task set due_date = ? where id = ?", LocalDateTime.now().minusDays(1), task.id());
+        RecordedStatements.statements.clear();
+        assertThat(dueDateScheduler.sweep(LocalDateTime.now())).isPositive();
+        assertUses("IX_TASK_STATUS_DUE_DATE", "PRIMARY_KEY");
+    }
+
+    private void search(Map<String, Object> filters) {
+        taskService.searchSlice(taskService.buildSearchSpecification(null, null, filters), PageRequest.of(0, 10));
+    }
+
+    /**
+     * Vérifie qu'aucune requête enregistrée depuis l'appel précédent ne parcourt une table entière,
+     * et que chaque index attendu apparaît dans au moins un plan.
+     *
+     * @param expectedAccesses Noms (ou préfixes) d'index, ou conditions d'accès par index (ex : "USER_ID = ?")
+     */
+    private void assertUses(String... expectedAccesses) {
+        List<String> statements = List.copyOf(RecordedStatements.statements);
+        RecordedStatements.statements.clear();
+        assertThat(statements).as("recorded statements").isNotEmpty();
+
+        StringBuilder plans = new StringBuilder();
+        for (String sql : statements) {
+            String verb = sql.stripLeading().toLowerCase(Locale.ROOT);
+            if (!verb.startsWith("select") && !verb.startsWith("update") && !verb.startsWith("delete")) {
+                continue; // Insertions : pas de plan d'accès
+            }
+            String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+            assertThat(plan).as("plan of %s", sql).doesNotContainIgnoringCase("tableScan");
+            plans.append(plan).append('\n');
+        }
+        for (String access : expectedAccesses) {
+            // Commentaire d'accès de H2 : /* PUBLIC.<index>: <conditions> */
+            assertThat(plans.toString()).as("plans using %s", access)
+                    .containsPattern("/\\* PUBLIC\\.[^*]*" + Pattern.quote(access));
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.tsp.tsp;
+
+import com.generic.KeysetSlice;
+import com.tsp.dtos.TaskInputDTO;
+import com.tsp.dtos.TaskOutputDTO;
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.Task;
+import com.tsp.models.User;
+import com.tsp.repositories.TaskRepository;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.TaskService;
+import com.tsp.services.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Vérifie la compilation des recherches (validation des champs, conversion des valeurs),
+ * la recherche plein texte et la pagination par curseur.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SearchTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User().setUsername("search-" + System.nanoTime()).setEmail("search@tsp.io").setPassword("secret123"));
+        for (int i = 0; i < 25; i++) {
+            taskRepository.save(new Task().setTitle("Task number " + i).setDescription("Description of task " + i)
+                    .setColor("blue").setStatus(i % 5 == 0 ? TaskStatus.COMPLETED : TaskStatus.PENDING).setUser(user));
+        }
+    }
+
+    @Test
+    void filterValuesAreCoercedToAttributeTypes() {
+        var spec = taskService.buildSearchSpecification(null, null, Map.of("status", "completed", "userId", user.getId().intValue()));
+
+        assertThat(taskService.search(spec, PageRequest.of(0, 50)).getContent())
+                .hasSize(5)
+                .allMatch(task -> task.status() == TaskStatus.COMPLETED);
+    }
+
+    @Test
+    void unknownFieldsAreRejected() {
+        assertThatThrownBy(() -> taskService.buildSearchSpecification(null, null, Map.of("unknown", 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> taskService.buildSearchSpecification("x", List.of("dueDate"), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fullTextSearchRanksPrefixMatchesFromTheIndex() {
+        taskService.rebuildFullTextIndex();
+        TaskOutputDTO inDescription = taskService.create(new TaskInputDTO("Weekly report", "Mention of the zephyrus project",
+                "red", null, TaskStatus.PENDING, user.getId()));
+        TaskOutputDTO inTitle = taskService.create(new TaskInputDTO("Zephyrus kickoff", "Prepare the kickoff meeting",
+                "red", null, TaskStatus.PENDING, user.getId()));
+        taskService.create(new TaskInputDTO("Unrelated task", "Nothing to see here at all",
+                "red", null, TaskStatus.PENDING, user.getId()));
+
+        assertThat(taskService.canUseFullTextIndex("zeph", List.of("title", "description"))).isTrue();
+        assertThat(taskService.searchFullText("zeph", null, Map.of("userId", user.getId()), PageRequest.of(0, 10)).getContent())
+                .extracting(TaskOutputDTO::id)
+                .containsExactly(inTitle.id(), inDescription.id());
+        // Seuls les champs demandés sont cherchés : la mention dans la description est ignorée
+        assertThat(taskService.searchFullText("zeph", List.of("title"), Map.of("userId", user.getId()), PageRequest.of(0, 10)).getContent())
+                .extracting(TaskOutputDTO::id)
+                .containsExactly(inTitle.id());
+
+        taskService.delete(inTitle.id());
+        assertThat(taskService.searchFullText("zephyrus", null, null, PageRequest.of(0, 10)).getContent())
+                .extracting(TaskOutputDTO::id)
+                .containsExactly(inDescription.id());
+    }
+
+    @Test
+    void filteredFullTextSearchFindsMatchesRankedBeyondTheFirstThousand() {
+        String term = "quasar" + System.nanoTime();
+        User other = userRepository.save(new User().setUsername("search-other-" + System.nanoTime()).setEmail("other@tsp.io").setPassword("secret123"));
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1100; i++) { // Correspondances dans le titre : mieux classées
+            tasks.add(new Task().setTitle(term + " title " + i).setDescription("Other user task").setColor("blue")
+                    .setStatus(TaskStatus.PENDING).setUser(other));
+        }
+        for (int i = 0; i < 3; i++) { // Correspondances dans la description seulement : classées après les 1100
+            tasks.add(new Task().setTitle("Low ranked " + i).setDescription("Mentions " + term).setColor("blue")
+                    .setStatus(TaskStatus.PENDING).setUser(user));
+        }
+        taskRepository.saveAll(tasks);
+        taskService.rebuildFullTextIndex();
+
+        var page = taskService.searchFullText(term, null, Map.of("userId", user.getId()), PageRequest.of(0, 10));
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).hasSize(3).allMatch(task -> task.userId().equals(user.getId()));
+        assertThat(taskService.searchFullText(term, null, null, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1103);
+
+        // Filtre retenu par les premiers candidats : le filtrage s'arrête une ligne après la page
+        var first = taskService.searchFullText(term, null, Map.of("userId", other.getId()), PageRequest.of(0, 10));
+        assertThat(first.getContent()).hasSize(10).allMatch(task -> task.userId().equals(other.getId()));
+        assertThat(first.getTotalElements()).isEqualTo(11);
+        assertThat(first.hasNext()).isTrue();
+
+        // Les tâches d'un utilisateur supprimé quittent l'index sans relecture en base
+        userService.delete(other.getId());
+        assertThat(taskService.searchFullText(term, null, null, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void rolledBackWritesDoNotReachTheFullTextIndex() {
+        taskService.rebuildFullTextIndex();
+        String term = "nebula" + System.nanoTime();
+        TaskOutputDTO task = taskService.create(new TaskInputDTO("Committed task", "Committed description",
+                "red", null, TaskStatus.PENDING, user.getId()));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            taskService.create(new TaskInputDTO(term + " created", "Rolled back", "red", null, TaskStatus.PENDING, user.getId()));
+            taskService.update(task.id(), new TaskInputDTO(term + " updated", "Rolled back", "red", null, TaskStatus.PENDING, user.getId()));
+            status.setRollbackOnly();
+        });
+        assertThat(taskService.searchFullText(term, null, null, PageRequest.of(0, 10)).getContent()).isEmpty();
+
+        transaction.executeWithoutResult(status -> {
+            taskService.delete(task.id());
+            status.setRollbackOnly();
+        });
+        assertThat(taskService.searchFullText("committed", List.of("title"), Map.of("userId", user.getId()), PageRequest.of(0, 10))
+                .getContent()).extracting(TaskOutputDTO::id).containsExactly(task.id());
+    }
+
+    @Test
+    void keysetPaginationVisitsEveryRowOnce() {
+        var spec = taskService.buildSearchSpecification(null, null, Map.of("userId", user.getId()));
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetSlice<TaskOutputDTO> slice = taskService.searchKeyset(spec, "createdAt", "DESC", cursor, 10);
+            slice.getContent().forEach(task -> ids.add(task.id()));
+            cursor = slice.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(ids).hasSize(25).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void keysetPaginationCrossesNullSortValues() {
+        LocalDateTime due = LocalDateTime.of(2030, 1, 1, 12, 0);
+        for (int i = 0; i < 3; i++) { // Les 25 tâches du jeu de test n'ont pas d'échéance
+            taskRepository.save(new Task().setTitle("Due task " + i).setDescription("Due description").setColor("blue")
+                    .setStatus(TaskStatus.PENDING).setDueDate(due.plusDays(i)).setUser(user));
+        }
+        var spec = taskService.buildSearchSpecification(null, null, Map.of("userId", user.getId()));
+
+        for (String direction : List.of("ASC", "DESC")) {
+            List<TaskOutputDTO> tasks = new ArrayList<>();
+            String cursor = null;
+            do { // Pages de 4 : les curseurs s'arrêtent sur des échéances nulles
+                KeysetSlice<TaskOutputDTO> slice = taskService.searchKeyset(spec, "dueDate", direction, cursor, 4);
+                tasks.addAll(slice.getContent());
+                cursor = slice.getNextCursor();
+            } while (cursor != null);
+
+            assertThat(tasks).extracting(TaskOutputDTO::id).as(direction).hasSize(28).doesNotHaveDuplicates();
+            List<LocalDateTime> dueDates = tasks.stream().map(TaskOutputDTO::dueDate).filter(Objects::nonNull).toList();
+            if (direction.equals("ASC")) { // Valeurs nulles en tête
+                assertThat(tasks.subList(0, 25)).extracting(TaskOutputDTO::dueDate).containsOnlyNulls();
+                assertThat(dueDates).containsExactly(due, due.plusDays(1), due.plusDays(2));
+            } else { // Valeurs nulles en fin
+                assertThat(tasks.subList(3, 28)).extracting(TaskOutputDTO::dueDate).containsOnlyNulls();
+                assertThat(dueDates).containsExactly(due.plusDays(2), due.plusDays(1), due);
+            }
+        }
+    }
+}
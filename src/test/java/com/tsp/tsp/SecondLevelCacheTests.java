@@ -0,0 +1,66 @@
+package com.tsp.tsp;
+
+import com.tsp.dtos.UserInputDTO;
+import com.tsp.dtos.UserOutputDTO;
+import com.tsp.models.User;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie que les lectures d'utilisateurs sont servies par le cache de second niveau
+ * et que les écritures de GenericService l'invalident.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getByIdIsServedFromCache() {
+        User user = userRepository.save(new User().setUsername("cached-read").setEmail("read@tsp.io").setPassword("secret123"));
+        statistics.clear();
+
+        assertThat(userService.getById(user.getId())).isPresent();
+        assertThat(userService.getById(user.getId())).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void updateAndDeleteInvalidateCache() {
+        User user = userRepository.save(new User().setUsername("cached-write").setEmail("before@tsp.io").setPassword("secret123"));
+        userService.getById(user.getId());
+
+        userService.update(user.getId(), new UserInputDTO(null, "after@tsp.io", null, null));
+        assertThat(userService.getById(user.getId())).map(UserOutputDTO::email).contains("after@tsp.io");
+
+        userService.delete(user.getId());
+        assertThat(userService.getById(user.getId())).isEmpty();
+    }
+}
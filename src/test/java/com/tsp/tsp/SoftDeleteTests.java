@@ -0,0 +1,121 @@
+package com.tsp.tsp;
+
+import com.tsp.dtos.TaskOutputDTO;
+import com.tsp.dtos.UserInputDTO;
+import com.tsp.models.User;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.AuditLogWriter;
+import com.tsp.services.SoftDeletePurgeJob;
+import com.tsp.services.TaskService;
+import com.tsp.services.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.tsp.tsp.TestFixtures.saveUser;
+import static com.tsp.tsp.TestFixtures.task;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Vérifie la suppression logique (lectures filtrées) et la purge physique des lignes supprimées.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SoftDeleteTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private SoftDeletePurgeJob purgeJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deletedTaskIsHiddenThenPurged() {
+        User user = saveUser(userRepository, "soft-task-");
+        TaskOutputDTO task = taskService.create(task("Soft deleted task", user));
+        auditLogWriter.flush();
+
+        taskService.delete(task.id());
+        auditLogWriter.flush();
+
+        assertThat(taskService.getById(task.id())).isEmpty();
+        assertThat(taskService.getAll()).noneMatch(output -> output.id().equals(task.id()));
+        var spec = taskService.buildSearchSpecification(null, null, Map.of("title", "Soft deleted task"));
+        assertThat(taskService.searchSlice(spec, PageRequest.of(0, 10)).getContent()).isEmpty();
+        assertThat(count("select count(*) from task where id = ?", task.id())).isEqualTo(1); // Ligne conservée
+        assertThat(actions(task.id())).containsExactly("Création", "Suppression"); // Journal conservé
+
+        purgeJob.purge();
+        assertThat(count("select count(*) from task where id = ?", task.id())).isEqualTo(1); // Pas encore éligible
+
+        jdbcTemplate.update("update task set deleted_at = dateadd('DAY', -30, deleted_at) where id = ?", task.id());
+        purgeJob.purge();
+        assertThat(count("select count(*) from task where id = ?", task.id())).isZero();
+        assertThat(count("select count(*) from log where task_id = ?", task.id())).isZero();
+    }
+
+    @Test
+    void deletedUserHidesTasksAndIsPurgedAfterThem() {
+        User user = saveUser(userRepository, "soft-user-");
+        TaskOutputDTO task = taskService.create(task("Task of deleted user", user));
+        auditLogWriter.flush();
+
+        userService.delete(user.getId());
+        auditLogWriter.flush();
+
+        assertThat(userService.getById(user.getId())).isEmpty();
+        assertThat(taskService.getById(task.id())).isEmpty();
+        assertThat(actions(task.id())).containsExactly("Création", "Suppression");
+
+        jdbcTemplate.update("update task set deleted_at = dateadd('DAY', -30, deleted_at) where id = ?", task.id());
+        jdbcTemplate.update("update app_user set deleted_at = dateadd('DAY', -30, deleted_at) where id = ?", user.getId());
+        purgeJob.purge();
+        assertThat(count("select count(*) from app_user where id = ?", user.getId())).isZero();
+    }
+
+    @Test
+    void usernameOfDeletedUserCanBeReusedBeforeThePurge() {
+        User first = saveUser(userRepository, "soft-name-");
+        String username = first.getUsername();
+        User other = saveUser(userRepository, "soft-other-");
+        assertThatThrownBy(() -> userService.create(new UserInputDTO(username, "soft@tsp.io", "secret123", null)))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThatThrownBy(() -> userService.patch(other.getId(), Map.of("username", username)))
+                .isInstanceOf(DuplicateKeyException.class);
+
+        userService.delete(first.getId());
+        assertThat(userService.patch(other.getId(), Map.of("username", username))).isPresent();
+
+        assertThat(userRepository.findByUsername(username)).hasValueSatisfying(user ->
+                assertThat(user.getId()).isEqualTo(other.getId()));
+        assertThat(count("select count(*) from app_user where id = ?", first.getId())).isEqualTo(1); // En attente de purge
+    }
+
+    private List<String> actions(Long taskId) {
+        return jdbcTemplate.queryForList("select action from log where task_id = ? order by id", String.class, taskId);
+    }
+
+    private long count(String sql, Long id) {
+        return jdbcTemplate.queryForObject(sql, Long.class, id);
+    }
+}
@@ -0,0 +1,82 @@
+package com.tsp.tsp;
+
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.Task;
+import com.tsp.models.User;
+import com.tsp.repositories.TaskRepository;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.AuditLogWriter;
+import com.tsp.services.TaskService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie que les listes de tâches sont lues en une seule requête SQL, sans requête par utilisateur (N+1).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StatementCountTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int u = 0; u < 3; u++) {
+            User user = userRepository.save(new User().setUsername("count-" + u + "-" + System.nanoTime())
+                    .setEmail("count@tsp.io").setPassword("secret123"));
+            for (int t = 0; t < 4; t++) {
+                taskRepository.save(new Task().setTitle("Counted task " + t).setDescription("Counted description")
+                        .setColor("green").setStatus(TaskStatus.REVIEW).setUser(user));
+            }
+        }
+        auditLogWriter.flush(); // Les écritures du journal d'audit ne doivent pas être comptées
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions(); // Le cache ne doit pas masquer un éventuel N+1
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllIssuesOneStatement() {
+        assertThat(taskService.getAll()).hasSizeGreaterThanOrEqualTo(12);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void searchIssuesOneStatementPlusCount() {
+        var spec = taskService.buildSearchSpecification(null, null, Map.of("status", "REVIEW"));
+
+        assertThat(taskService.searchSlice(spec, PageRequest.of(0, 5)).getContent()).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat(taskService.search(spec, PageRequest.of(0, 5)).getContent()).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2); // Données + COUNT(*)
+    }
+}
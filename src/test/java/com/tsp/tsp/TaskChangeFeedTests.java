@@ -0,0 +1,194 @@
+package com.tsp.tsp;
+
+import com.tsp.dtos.TaskOutputDTO;
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.User;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.TaskChangeFeed;
+import com.tsp.services.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.tsp.tsp.TestFixtures.saveUser;
+import static com.tsp.tsp.TestFixtures.task;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie la diffusion des modifications de tâches, la reprise depuis un curseur et la déconnexion des clients lents.
+ */
+@SpringBootTest(properties = {"changes.buffer-size=4", "changes.long-poll-timeout-ms=1000", "changes.write-timeout-ms=1000",
+        "changes.writer-threads=6", "changes.writer-queue-capacity=8"})
+@ActiveProfiles("test")
+class TaskChangeFeedTests {
+
+    @Autowired
+    private TaskChangeFeed changeFeed;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void liveChangesArePushedToSubscribers() throws InterruptedException {
+        User user = saveUser(userRepository, "feed-live-");
+        BlockingQueue<TaskChangeFeed.TaskChange> received = new LinkedBlockingQueue<>();
+        TaskChangeFeed.Subscription subscription = changeFeed.subscription(received::addAll, () -> { });
+        subscription.start(null);
+        try {
+            TaskOutputDTO task = taskService.create(task("Live feed task", user));
+            taskService.patch(task.id(), Map.of("status", "review", "version", 0));
+            taskService.delete(task.id());
+
+            TaskChangeFeed.TaskChange created = next(received, task.id());
+            assertThat(created.type()).isEqualTo(TaskChangeFeed.CREATED);
+            assertThat(created.task().title()).isEqualTo("Live feed task");
+
+            TaskChangeFeed.TaskChange patched = next(received, task.id());
+            assertThat(patched.type()).isEqualTo(TaskChangeFeed.UPDATED);
+            assertThat(patched.task().status()).isEqualTo(TaskStatus.REVIEW);
+            assertThat(patched.task().title()).isNull(); // Seuls les champs modifiés
+            assertThat(patched.task().version()).isEqualTo(1L);
+
+            assertThat(next(received, task.id()).type()).isEqualTo(TaskChangeFeed.DELETED);
+        } finally {
+            subscription.cancel();
+        }
+    }
+
+    @Test
+    void pollResumesFromCursorIncludingDeletions() throws Exception {
+        User user = saveUser(userRepository, "feed-resume-");
+        String cursor = changeFeed.currentCursor();
+        TaskOutputDTO kept = taskService.create(task("Resumed kept task", user));
+        TaskOutputDTO removed = taskService.create(task("Resumed removed task", user));
+        taskService.delete(removed.id());
+
+        TaskChangeFeed.ChangeBatch batch = changeFeed.poll(cursor).get(5, TimeUnit.SECONDS);
+
+        assertThat(batch.changes()).anyMatch(change -> change.task().id().equals(kept.id())
+                && change.type().equals(TaskChangeFeed.CREATED));
+        assertThat(batch.changes()).anyMatch(change -> change.task().id().equals(removed.id())
+                && change.type().equals(TaskChangeFeed.DELETED));
+        assertThat(batch.cursor()).isEqualTo(batch.changes().get(batch.changes().size() - 1).cursor());
+
+        // Rien de nouveau après le dernier curseur : l'appel attend le délai au lieu de renvoyer les mêmes modifications
+        long start = System.nanoTime();
+        TaskChangeFeed.ChangeBatch again = changeFeed.poll(batch.cursor()).get(5, TimeUnit.SECONDS);
+        assertThat(again.changes()).isEmpty();
+        assertThat(again.cursor()).isEqualTo(batch.cursor());
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(1000);
+    }
+
+    @Test
+    void slowSubscriberIsDisconnected() throws InterruptedException {
+        User user = saveUser(userRepository, "feed-slow-");
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch disconnected = new CountDownLatch(1);
+        List<TaskChangeFeed.TaskChange> received = new CopyOnWriteArrayList<>();
+        TaskChangeFeed.Subscription subscription = changeFeed.subscription(changes -> {
+            received.addAll(changes);
+            try {
+                blocked.await(5, TimeUnit.SECONDS); // Client qui ne lit plus
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, disconnected::countDown);
+        subscription.start(null);
+        try {
+            for (int i = 0; i < 10; i++) {
+                taskService.create(task("Slow feed task " + i, user));
+            }
+            assertThat(disconnected.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            blocked.countDown();
+            subscription.cancel();
+        }
+        assertThat(received.size()).isLessThan(10);
+    }
+
+    @Test
+    void stalledSubscribersDoNotBlockOthers() throws InterruptedException {
+        User user = saveUser(userRepository, "feed-stalled-");
+        CountDownLatch released = new CountDownLatch(1);
+        List<TaskChangeFeed.Subscription> stalled = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 4; i++) { // Plus d'abonnés bloqués que de threads dans le pool partagé
+            TaskChangeFeed.Subscription subscription = changeFeed.subscription(changes -> {
+                try {
+                    released.await(10, TimeUnit.SECONDS); // Écriture bloquée sur un client qui ne lit plus
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, () -> { });
+            subscription.start(null);
+            stalled.add(subscription);
+        }
+        BlockingQueue<TaskChangeFeed.TaskChange> received = new LinkedBlockingQueue<>();
+        TaskChangeFeed.Subscription healthy = changeFeed.subscription(received::addAll, () -> { });
+        healthy.start(null);
+        try {
+            TaskOutputDTO first = taskService.create(task("Stalled feed task 1", user));
+            TaskOutputDTO second = taskService.create(task("Stalled feed task 2", user));
+
+            assertThat(next(received, first.id()).type()).isEqualTo(TaskChangeFeed.CREATED);
+            assertThat(next(received, second.id()).type()).isEqualTo(TaskChangeFeed.CREATED);
+        } finally {
+            released.countDown();
+            healthy.cancel();
+            stalled.forEach(TaskChangeFeed.Subscription::cancel);
+        }
+    }
+
+    @Test
+    void saturatedWriterPoolDisconnectsSubscribersInsteadOfGrowing() throws InterruptedException {
+        User user = saveUser(userRepository, "feed-saturated-");
+        CountDownLatch released = new CountDownLatch(1);
+        CountDownLatch disconnected = new CountDownLatch(20);
+        List<TaskChangeFeed.Subscription> stalled = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 20; i++) { // Plus d'abonnés bloqués que de threads et de places dans la file d'écriture
+            TaskChangeFeed.Subscription subscription = changeFeed.subscription(changes -> {
+                try {
+                    released.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, disconnected::countDown);
+            subscription.start(null);
+            stalled.add(subscription);
+        }
+        try {
+            taskService.create(task("Saturated feed task", user));
+
+            // Envois refusés tout de suite, envois bloqués au délai d'écriture : aucun abonné ne reste attaché
+            assertThat(disconnected.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(Thread.getAllStackTraces().keySet())
+                    .filteredOn(thread -> thread.getName().startsWith("task-changes-writer-"))
+                    .hasSizeLessThanOrEqualTo(6);
+        } finally {
+            released.countDown();
+            stalled.forEach(TaskChangeFeed.Subscription::cancel);
+        }
+    }
+
+    private static TaskChangeFeed.TaskChange next(BlockingQueue<TaskChangeFeed.TaskChange> received, Long taskId)
+            throws InterruptedException {
+        while (true) {
+            TaskChangeFeed.TaskChange change = received.poll(5, TimeUnit.SECONDS);
+            assertThat(change).as("change for task %d", taskId).isNotNull();
+            if (taskId.equals(change.task().id())) {
+                return change;
+            }
+        }
+    }
+}
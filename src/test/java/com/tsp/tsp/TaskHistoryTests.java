@@ -0,0 +1,108 @@
+package com.tsp.tsp;
+
+import com.tsp.dtos.TaskInputDTO;
+import com.tsp.dtos.TaskOutputDTO;
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.User;
+import com.tsp.repositories.TaskSnapshotRepository;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.AuditLogWriter;
+import com.tsp.services.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Vérifie la lecture de l'état passé d'une tâche à partir des snapshots et du journal.
+ */
+@SpringBootTest(properties = "audit.snapshot.interval=3")
+@ActiveProfiles("test")
+class TaskHistoryTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Test
+    void rebuildsEveryVersionFromSnapshotsAndLog() throws InterruptedException {
+        User user = userRepository.save(new User().setUsername("history-" + System.nanoTime())
+                .setEmail("history@tsp.io").setPassword("secret123"));
+        TaskOutputDTO task = taskService.create(input("History title 0", TaskStatus.PENDING, user));
+        LocalDateTime afterVersion4 = null;
+        for (int version = 1; version <= 7; version++) {
+            taskService.update(task.id(), input("History title " + version,
+                    version % 2 == 0 ? TaskStatus.IN_PROGRESS : TaskStatus.REVIEW, user));
+            if (version == 4) {
+                Thread.sleep(5);
+                afterVersion4 = LocalDateTime.now();
+                Thread.sleep(5);
+            }
+        }
+        auditLogWriter.flush();
+
+        // Snapshots aux versions 0, 3 et 6
+        assertThat(snapshotRepository.findAll()).filteredOn(snapshot -> snapshot.task().getId().equals(task.id()))
+                .extracting(snapshot -> snapshot.version())
+                .containsExactlyInAnyOrder(0L, 3L, 6L);
+
+        for (long version = 0; version <= 7; version++) {
+            TaskOutputDTO state = taskService.historyAtVersion(task.id(), version).orElseThrow();
+            assertThat(state.version()).isEqualTo(version);
+            assertThat(state.title()).isEqualTo("History title " + version);
+            assertThat(state.userId()).isEqualTo(user.getId());
+        }
+        assertThat(taskService.historyAtVersion(task.id(), 8L)).isEmpty();
+
+        assertThat(taskService.historyAt(task.id(), afterVersion4).orElseThrow().version()).isEqualTo(4L);
+        assertThat(taskService.historyAt(task.id(), LocalDateTime.now().minusDays(1))).isEmpty();
+    }
+
+    @Test
+    void changesToFieldsMissingFromTheLogForceASnapshot() {
+        User user = userRepository.save(new User().setUsername("history-" + System.nanoTime())
+                .setEmail("history@tsp.io").setPassword("secret123"));
+        User other = userRepository.save(new User().setUsername("history-other-" + System.nanoTime())
+                .setEmail("history@tsp.io").setPassword("secret123"));
+        LocalDateTime dueDate = LocalDateTime.now().plusDays(3).withNano(0);
+        TaskOutputDTO task = taskService.create(input("Colored", TaskStatus.PENDING, user));
+        taskService.update(task.id(), new TaskInputDTO("Colored", "History description", "orange", null, TaskStatus.PENDING, user.getId()));
+        taskService.patch(task.id(), Map.of("version", 1L, "dueDate", dueDate.toString()));
+        taskService.patch(task.id(), Map.of("version", 2L, "userId", other.getId()));
+        taskService.patch(task.id(), Map.of("version", 3L, "title", "Renamed"));
+        auditLogWriter.flush();
+
+        // Snapshots à la création, puis à chaque changement de couleur, d'échéance ou d'utilisateur ; pas au renommage
+        assertThat(snapshotRepository.findAll()).filteredOn(snapshot -> snapshot.task().getId().equals(task.id()))
+                .extracting(snapshot -> snapshot.version(), snapshot -> snapshot.color())
+                .containsExactlyInAnyOrder(tuple(0L, "purple"), tuple(1L, "orange"), tuple(2L, "orange"), tuple(3L, "orange"));
+
+        TaskOutputDTO version1 = taskService.historyAtVersion(task.id(), 1L).orElseThrow();
+        TaskOutputDTO version2 = taskService.historyAtVersion(task.id(), 2L).orElseThrow();
+        TaskOutputDTO version4 = taskService.historyAtVersion(task.id(), 4L).orElseThrow();
+        assertThat(version1.dueDate()).isNull();
+        assertThat(version2.dueDate()).isEqualTo(dueDate);
+        assertThat(version2.userId()).isEqualTo(user.getId());
+        assertThat(version4.userId()).isEqualTo(other.getId());
+        assertThat(version4.dueDate()).isEqualTo(dueDate);
+        assertThat(version4.title()).isEqualTo("Renamed");
+    }
+
+    private static TaskInputDTO input(String title, TaskStatus status, User user) {
+        return new TaskInputDTO(title, "History description", "purple", null, status, user.getId());
+    }
+}
@@ -0,0 +1,123 @@
+package com.tsp.tsp;
+
+import com.tsp.dtos.TaskOutputDTO;
+import com.tsp.dtos.UserInputDTO;
+import com.tsp.enums.Countries;
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.User;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.TaskService;
+import com.tsp.services.TaskStatistics;
+import com.tsp.services.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static com.tsp.tsp.TestFixtures.awaitUntil;
+import static com.tsp.tsp.TestFixtures.saveUser;
+import static com.tsp.tsp.TestFixtures.task;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie la mise à jour incrémentale des statistiques des tâches et leur comparaison avec la base.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskStatisticsTests {
+
+    @Autowired
+    private TaskStatistics statistics;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        statistics.reconcile(); // Écritures des tests précédents faites par un autre contexte Spring
+    }
+
+    @Test
+    void countersFollowEveryWrite() {
+        User user = saveUser(userRepository, "stats-writes-", Countries.FRANCE);
+        TaskStatistics.Stats before = stats();
+
+        TaskOutputDTO late = taskService.create(task("Overdue stats task", user, LocalDateTime.now().minusDays(1)));
+        TaskOutputDTO upcoming = taskService.create(task("Upcoming stats task", user, LocalDateTime.now().plusDays(1)));
+        TaskStatistics.Stats created = stats();
+        assertThat(created.total()).isEqualTo(before.total() + 2);
+        assertThat(created.byUser()).containsEntry(user.getId(), 2L);
+        assertThat(delta(before.byStatus(), created.byStatus(), TaskStatus.PENDING)).isEqualTo(2);
+        assertThat(delta(before.byCountry(), created.byCountry(), Countries.FRANCE)).isEqualTo(2);
+        assertThat(created.overdue()).isEqualTo(before.overdue() + 1);
+
+        taskService.patch(late.id(), Map.of("status", "completed", "version", 0));
+        TaskStatistics.Stats patched = stats();
+        assertThat(delta(before.byStatus(), patched.byStatus(), TaskStatus.COMPLETED)).isEqualTo(1);
+        assertThat(patched.overdue()).isEqualTo(before.overdue()); // Une tâche terminée n'est plus en retard
+
+        userService.update(user.getId(), new UserInputDTO(null, null, null, Countries.SPAIN));
+        TaskStatistics.Stats moved = stats();
+        assertThat(delta(before.byCountry(), moved.byCountry(), Countries.FRANCE)).isZero();
+        assertThat(delta(before.byCountry(), moved.byCountry(), Countries.SPAIN)).isEqualTo(2);
+
+        taskService.delete(upcoming.id());
+        assertThat(stats().byUser()).containsEntry(user.getId(), 1L);
+
+        userService.delete(user.getId());
+        assertThat(stats().byUser()).doesNotContainKey(user.getId());
+        assertThat(stats().total()).isEqualTo(before.total());
+
+        assertThat(statistics.reconcile()).isFalse(); // Aucun écart avec les requêtes GROUP BY
+    }
+
+    @Test
+    void taskBecomesOverdueWhenItsDueDatePasses() throws InterruptedException {
+        User user = saveUser(userRepository, "stats-due-");
+        long overdue = stats().overdue();
+        LocalDateTime dueDate = LocalDateTime.now().plusSeconds(1);
+        taskService.create(task("Soon due stats task", user, dueDate));
+        long beforeDueDate = stats().overdue();
+        if (LocalDateTime.now().isBefore(dueDate)) { // Lecture faite avant l'échéance, même sur une machine lente
+            assertThat(beforeDueDate).isEqualTo(overdue);
+        }
+
+        awaitUntil(() -> stats().overdue() == overdue + 1, "the task is counted as overdue");
+    }
+
+    @Test
+    void reconciliationRepairsWritesMadeOutsideTheApplication() {
+        User user = saveUser(userRepository, "stats-drift-", Countries.ITALY);
+        TaskOutputDTO task = taskService.create(task("Drifted stats task", user, null));
+
+        jdbcTemplate.update("update task set status = 'REVIEW' where id = ?", task.id());
+        assertThat(statistics.reconcile()).isTrue();
+
+        TaskStatistics.Stats stats = stats();
+        assertThat(stats.byStatus()).containsKey(TaskStatus.REVIEW);
+        assertThat(stats.byCountry()).containsEntry(Countries.ITALY, 1L);
+        assertThat(statistics.reconcile()).isFalse();
+    }
+
+    private TaskStatistics.Stats stats() {
+        return statistics.stats().orElseThrow();
+    }
+
+    private static <K> long delta(Map<K, Long> before, Map<K, Long> after, K key) {
+        return after.getOrDefault(key, 0L) - before.getOrDefault(key, 0L);
+    }
+}
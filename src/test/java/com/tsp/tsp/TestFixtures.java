@@ -0,0 +1,93 @@
+package com.tsp.tsp;
+
+import com.tsp.dtos.TaskInputDTO;
+import com.tsp.enums.Countries;
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.User;
+import com.tsp.repositories.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Données de test partagées : utilisateurs enregistrés directement par le repository
+ * (avec un nom unique, les contextes Spring des tests partageant la même base H2), DTOs de création de tâche
+ * et attente d'une condition remplie par un thread de l'application.
+ */
+final class TestFixtures {
+
+    // Délai maximal d'attente : large, l'attente s'arrête dès que la condition est remplie
+    private static final Duration AWAIT_TIMEOUT = Duration.ofSeconds(10);
+
+    private TestFixtures() {
+    }
+
+    /**
+     * @param userRepository Repository des utilisateurs
+     * @param prefix         Préfixe du nom d'utilisateur, complété pour le rendre unique
+     * @return L'utilisateur enregistré
+     */
+    static User saveUser(UserRepository userRepository, String prefix) {
+        return saveUser(userRepository, prefix, null);
+    }
+
+    /**
+     * @param userRepository Repository des utilisateurs
+     * @param prefix         Préfixe du nom d'utilisateur, complété pour le rendre unique
+     * @param country        Pays de l'utilisateur (peut être null)
+     * @return L'utilisateur enregistré
+     */
+    static User saveUser(UserRepository userRepository, String prefix, Countries country) {
+        return userRepository.save(new User().setUsername(prefix + System.nanoTime())
+                .setEmail("test@tsp.io").setPassword("secret123").setCountry(country));
+    }
+
+    /**
+     * @param title Titre de la tâche
+     * @param user  Utilisateur propriétaire
+     * @return Une tâche en attente, sans échéance
+     */
+    static TaskInputDTO task(String title, User user) {
+        return task(title, user, TaskStatus.PENDING, null);
+    }
+
+    /**
+     * @param title   Titre de la tâche
+     * @param user    Utilisateur propriétaire
+     * @param dueDate Échéance (peut être null)
+     * @return Une tâche en attente
+     */
+    static TaskInputDTO task(String title, User user, LocalDateTime dueDate) {
+        return task(title, user, TaskStatus.PENDING, dueDate);
+    }
+
+    /**
+     * @param title   Titre de la tâche
+     * @param user    Utilisateur propriétaire
+     * @param status  Statut de la tâche
+     * @param dueDate Échéance (peut être null)
+     * @return Le DTO de création de la tâche
+     */
+    static TaskInputDTO task(String title, User user, TaskStatus status, LocalDateTime dueDate) {
+        return new TaskInputDTO(title, "Test description", "blue", dueDate, status, user.getId());
+    }
+
+    /**
+     * Attend qu'une condition soit remplie, en la vérifiant régulièrement jusqu'à une date limite,
+     * plutôt que de dormir une durée fixe calée sur l'horloge.
+     *
+     * @param condition   Condition attendue
+     * @param description Description de la condition, pour le message d'échec
+     * @throws InterruptedException Si l'attente est interrompue
+     */
+    static void awaitUntil(BooleanSupplier condition, String description) throws InterruptedException {
+        long deadline = System.nanoTime() + AWAIT_TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new AssertionError("Timed out waiting until " + description);
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.tsp.tsp;
+
+import com.utils.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie la roue temporelle seule, sans contexte Spring : le temps est fourni par les tests.
+ */
+class TimingWheelTests {
+
+    @Test
+    void wheelExpiresDeadlinesAcrossLevels() {
+        TimingWheel wheel = new TimingWheel(1000, 0);
+        Map<Long, Long> deadlines = new HashMap<>();
+        long[] millis = {500, 64_000, 64_001, 65_000, 4_096_003, 262_144_000, 1_000_000_000};
+        for (int key = 0; key < millis.length; key++) {
+            deadlines.put((long) key, millis[key]);
+            wheel.schedule(key, millis[key]);
+        }
+        assertThat(wheel.cancel(3)).isTrue();
+        deadlines.remove(3L);
+        wheel.schedule(1, 64_999); // Replanification
+
+        deadlines.put(1L, 64_999L);
+        Set<Long> fired = new HashSet<>();
+        long previous = 0;
+        for (long now = 0; now <= 1_100_000_000; now += 7_000) {
+            for (Long key : wheel.advance(now)) {
+                assertThat(deadlines.get(key)).as("deadline of %d", key).isLessThanOrEqualTo(now).isGreaterThan(previous);
+                assertThat(fired.add(key)).isTrue();
+            }
+            previous = now;
+        }
+        assertThat(fired).isEqualTo(deadlines.keySet());
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlineCancelledAfterCascadingDoesNotExpire() {
+        TimingWheel wheel = new TimingWheel(1000, 0);
+        wheel.schedule(1, 65_500); // Tick 66 : niveau 1, redescend au niveau 0 au tick 64
+        wheel.schedule(2, 65_000); // Même case du niveau 1, tick 65
+
+        assertThat(wheel.advance(64_000)).isEmpty(); // Cascade faite, aucune échéance atteinte
+        assertThat(wheel.cancel(1)).isTrue();
+        assertThat(wheel.cancel(1)).isFalse();
+
+        assertThat(wheel.advance(70_000)).containsExactly(2L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void expiredKeyCanBeRescheduled() {
+        TimingWheel wheel = new TimingWheel(1000, 0);
+        wheel.schedule(1, 500);
+        assertThat(wheel.advance(1000)).containsExactly(1L);
+        assertThat(wheel.cancel(1)).isFalse(); // Retirée à l'expiration
+
+        wheel.schedule(1, 3000);
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(2000)).isEmpty();
+        assertThat(wheel.advance(3000)).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadlineRescheduledBeforeTheNextAdvanceKeepsOnlyTheNewOne() {
+        TimingWheel wheel = new TimingWheel(1000, 10_000);
+        wheel.schedule(1, 5_000); // Déjà passée : expire à la prochaine avancée
+        wheel.schedule(1, 12_000);
+
+        assertThat(wheel.advance(11_000)).isEmpty();
+        assertThat(wheel.advance(12_000)).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -0,0 +1,112 @@
+package com.tsp.tsp;
+
+import com.tsp.controllers.UserController;
+import com.tsp.enums.TaskStatus;
+import com.tsp.models.Task;
+import com.tsp.models.User;
+import com.tsp.repositories.TaskRepository;
+import com.tsp.repositories.UserRepository;
+import com.tsp.services.AuditLogWriter;
+import com.tsp.services.SoftDeletePurgeJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie la suppression ensembliste d'un utilisateur, sa reprise après interruption et le cas d'un utilisateur absent.
+ * La comparaison avec la cascade JPA est mesurée par UserPurgeBenchmark (profil benchmarks).
+ */
+@SpringBootTest(properties = "purge.batch-size=200")
+@ActiveProfiles("test")
+class UserPurgeTests {
+
+    private static final int TASKS = 1000;
+
+    @Autowired
+    private SoftDeletePurgeJob purgeJob;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void purgesUserTasksAndLogsInChunks() {
+        User user = userWithTasks("purge-");
+        List<SoftDeletePurgeJob.UserPurgeProgress> reports = new ArrayList<>();
+
+        SoftDeletePurgeJob.UserPurgeProgress result = purgeJob.purgeUser(user.getId(), reports::add).orElseThrow();
+
+        assertThat(result.tasksPurged()).isEqualTo(TASKS);
+        assertThat(result.userPurged()).isTrue();
+        assertThat(reports).hasSizeGreaterThanOrEqualTo(TASKS / 200);
+        assertThat(reports.get(0).tasksRemaining()).isEqualTo(TASKS - 200);
+        assertThat(count("select count(*) from task where user_id = ?", user.getId())).isZero();
+        assertThat(count("select count(*) from app_user where id = ?", user.getId())).isZero();
+    }
+
+    @Test
+    void interruptedPurgeResumes() {
+        User user = userWithTasks("resume-");
+        try {
+            purgeJob.purgeUser(user.getId(), progress -> {
+                if (!progress.userPurged() && progress.tasksPurged() >= 400) {
+                    throw new IllegalStateException("Simulated crash");
+                }
+            });
+        } catch (IllegalStateException expected) {
+            // Lots déjà validés : 400 tâches supprimées, le reste est masqué (suppression logique)
+        }
+        assertThat(count("select count(*) from task where user_id = ?", user.getId())).isEqualTo(TASKS - 400);
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+
+        SoftDeletePurgeJob.UserPurgeProgress result = purgeJob.purgeUser(user.getId(), progress -> { }).orElseThrow();
+        assertThat(result.tasksPurged()).isEqualTo(TASKS - 400);
+        assertThat(result.userPurged()).isTrue();
+        assertThat(count("select count(*) from app_user where id = ?", user.getId())).isZero();
+    }
+
+    @Test
+    void purgingAMissingUserIsNotFound() {
+        User user = userWithTasks("missing-");
+        assertThat(userController.purge(user.getId()).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // Déjà purgé : rien n'est supprimé, l'appel ne prétend pas l'avoir fait
+        assertThat(userController.purge(user.getId()).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(purgeJob.purgeUser(user.getId(), progress -> { })).isEmpty();
+    }
+
+    private User userWithTasks(String prefix) {
+        User user = userRepository.save(new User().setUsername(prefix + System.nanoTime())
+                .setEmail("purge@tsp.io").setPassword("secret123"));
+        taskRepository.saveAll(IntStream.range(0, TASKS)
+                .mapToObj(i -> new Task().setTitle("Purged task " + i).setDescription("Purged description")
+                        .setColor("black").setStatus(TaskStatus.PENDING).setUser(user))
+                .toList());
+        auditLogWriter.flush();
+        return user;
+    }
+
+    private long count(String sql, Long id) {
+        return jdbcTemplate.queryForObject(sql, Long.class, id);
+    }
+}